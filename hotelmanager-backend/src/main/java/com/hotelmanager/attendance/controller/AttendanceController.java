@@ -1,12 +1,23 @@
 package com.hotelmanager.attendance.controller;
 
 import com.hotelmanager.attendance.dto.AttendanceDto;
+import com.hotelmanager.attendance.dto.AttendancePage;
 import com.hotelmanager.attendance.dto.CheckInRequest;
 import com.hotelmanager.attendance.dto.CheckOutResponse;
 import com.hotelmanager.attendance.dto.ManualAttendanceRequest;
+import com.hotelmanager.attendance.dto.TimesheetPeriod;
+import com.hotelmanager.attendance.dto.TimesheetRow;
+import com.hotelmanager.attendance.entity.Attendance;
 import com.hotelmanager.attendance.repository.AttendanceRepository;
+import com.hotelmanager.attendance.service.AttendanceExportService;
 import com.hotelmanager.attendance.service.AttendanceService;
+import com.hotelmanager.attendance.service.CheckInGeofence;
+import com.hotelmanager.attendance.service.TimesheetService;
+import com.hotelmanager.common.export.ExportFormat;
+import com.hotelmanager.common.export.StreamingExporter;
+import com.hotelmanager.common.idempotency.IdempotencyService;
 import com.hotelmanager.user.entity.User;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -15,9 +26,12 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/attendance")
@@ -26,16 +40,37 @@ public class AttendanceController {
 
     private final AttendanceService attendanceService;
     private final AttendanceRepository attendanceRepository;
+    private final IdempotencyService idempotency;
+    private final AttendanceExportService exportService;
+    private final StreamingExporter exporter;
+    private final TimesheetService timesheetService;
+    private final CheckInGeofence geofence;
 
     /**
      * Starts an attendance session (check-in) for the authenticated employee/manager.
+     * A retried request carrying the same Idempotency-Key returns the original session.
      */
     @PostMapping("/check-in")
     @PreAuthorize("hasAnyRole('EMPLOYE','MANAGER')")
-    public AttendanceDto checkIn(@Valid @RequestBody CheckInRequest request,
+    public AttendanceDto checkIn(@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                 @Valid @RequestBody CheckInRequest request,
                                  @AuthenticationPrincipal User currentUser) {
-        var attendance = attendanceService.checkIn(currentUser, request.code(), request.lat(), request.lng());
-        return AttendanceDto.from(attendance);
+        return idempotency.execute(
+                "attendance-check-in:" + currentUser.getId(), idempotencyKey, request, AttendanceDto.class,
+                () -> AttendanceDto.from(
+                        attendanceService.checkIn(currentUser, request.code(), request.lat(), request.lng())));
+    }
+
+    /**
+     * Check-in geofence outcomes counted for the manager's hotel since startup (this instance).
+     */
+    @GetMapping("/geofence/metrics")
+    @PreAuthorize("hasRole('MANAGER')")
+    public Map<CheckInGeofence.Outcome, Long> geofenceMetrics(@AuthenticationPrincipal User currentUser) {
+        if (currentUser.getHotel() == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Utilisateur sans hôtel");
+        }
+        return geofence.metrics(currentUser.getHotel().getId());
     }
 
     /**
@@ -55,11 +90,60 @@ public class AttendanceController {
     public List<AttendanceDto> listForHotel(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
                                            @AuthenticationPrincipal User currentUser) {
-        return attendanceRepository
-                .findByEmployeeHotelIdAndDateBetween(currentUser.getHotel().getId(), start, end)
-                .stream()
-                .map(AttendanceDto::from)
-                .toList();
+        return attendanceService.listAttendances(currentUser, start, end);
+    }
+
+    /**
+     * Keyset-paginated attendances of the manager's hotel, optionally filtered by employee, status and source.
+     * Pass the returned nextCursor as after to read the next page.
+     */
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('MANAGER')")
+    public AttendancePage page(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+                               @RequestParam(required = false) String after,
+                               @RequestParam(defaultValue = "100") int limit,
+                               @RequestParam(required = false) Long employeeId,
+                               @RequestParam(required = false) Attendance.Status status,
+                               @RequestParam(required = false) String source,
+                               @AuthenticationPrincipal User currentUser) {
+        return attendanceService.pageAttendances(currentUser, start, end, after, limit, employeeId, status, source);
+    }
+
+    /**
+     * Streams the hotel's full attendance history as CSV or NDJSON (manager only).
+     * To resume, pass the last received id as afterId and the first response's X-Export-Until-Id as untilId.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('MANAGER')")
+    public WebAsyncTask<Void> export(@RequestParam(defaultValue = "CSV") ExportFormat format,
+                                     @RequestParam(defaultValue = "0") long afterId,
+                                     @RequestParam(required = false) Long untilId,
+                                     @AuthenticationPrincipal User currentUser,
+                                     HttpServletResponse response) {
+        if (currentUser.getHotel() == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Utilisateur sans hôtel");
+        }
+        Long hotelId = currentUser.getHotel().getId();
+        long until = untilId != null ? untilId : exportService.currentMaxId(hotelId);
+        return exporter.attachment(response, "attendance-" + hotelId, format, until,
+                out -> exportService.export(hotelId, format, afterId, until, out));
+    }
+
+    /**
+     * Worked minutes, late/absent counts and overtime per employee and DAY, WEEK or MONTH (manager only).
+     * The range is widened to whole periods.
+     */
+    @GetMapping("/timesheet")
+    @PreAuthorize("hasRole('MANAGER')")
+    public List<TimesheetRow> timesheet(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+                                        @RequestParam(defaultValue = "MONTH") TimesheetPeriod period,
+                                        @AuthenticationPrincipal User currentUser) {
+        if (currentUser.getHotel() == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Utilisateur sans hôtel");
+        }
+        return timesheetService.timesheet(currentUser.getHotel().getId(), period, start, end);
     }
 
     /**
@@ -95,6 +179,26 @@ public class AttendanceController {
         return attendanceService.checkoutAttendanceByManager(id, currentUser);
     }
 
+    /**
+     * Lists attendances closed automatically after a forgotten check-out, oldest first (manager only).
+     */
+    @GetMapping("/review")
+    @PreAuthorize("hasRole('MANAGER')")
+    public List<AttendanceDto> listToReview(@AuthenticationPrincipal User currentUser) {
+        return attendanceService.listToReview(currentUser);
+    }
+
+    /**
+     * Marks an automatically closed attendance as reviewed, optionally correcting its check-out time (manager only).
+     */
+    @PatchMapping("/{id}/review")
+    @PreAuthorize("hasRole('MANAGER')")
+    public AttendanceDto review(@PathVariable Long id,
+                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime checkOutAt,
+                                @AuthenticationPrincipal User currentUser) {
+        return attendanceService.review(id, currentUser, checkOutAt);
+    }
+
     /**
      * Deletes an attendance record (manager only).
      */
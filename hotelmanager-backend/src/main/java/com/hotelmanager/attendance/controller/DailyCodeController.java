@@ -65,9 +65,9 @@ public class DailyCodeController {
                 ));
 
         return new DailyCodeResponse(
-                dailyCode.getCode(),
-                dailyCode.getValidFrom(),
-                dailyCode.getValidUntil()
+                dailyCode.code(),
+                dailyCode.validFrom(),
+                dailyCode.validUntil()
         );
     }
 }
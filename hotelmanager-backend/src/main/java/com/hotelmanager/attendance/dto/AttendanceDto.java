@@ -18,9 +18,20 @@ public record AttendanceDto(
         LocalDateTime checkInAt,
         LocalDateTime checkOutAt,
         String status,
-        String source
+        String source,
+        boolean needsReview
 ) {
 
+    /**
+     * Constructor used by JPQL constructor expressions.
+     */
+    public AttendanceDto(Long id, Long employeeId, String firstName, String lastName, LocalDate date,
+                         LocalDateTime checkInAt, LocalDateTime checkOutAt, Attendance.Status status,
+                         String source, boolean needsReview) {
+        this(id, employeeId, firstName, lastName, date, checkInAt, checkOutAt,
+                status == null ? null : status.name(), source, needsReview);
+    }
+
     /**
      * Maps an Attendance entity to its DTO representation.
      */
@@ -36,7 +47,8 @@ public record AttendanceDto(
                 attendance.getCheckInAt(),
                 attendance.getCheckOutAt(),
                 attendance.getStatus().name(),
-                attendance.getSource()
+                attendance.getSource(),
+                attendance.isNeedsReview()
         );
     }
 }
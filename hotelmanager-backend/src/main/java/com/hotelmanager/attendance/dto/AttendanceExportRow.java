@@ -0,0 +1,21 @@
+package com.hotelmanager.attendance.dto;
+
+import com.hotelmanager.attendance.entity.Attendance;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Ligne d'export des présences, construite par JPQL (constructor expression).
+ */
+public record AttendanceExportRow(
+        Long id,
+        Long employeeId,
+        String firstName,
+        String lastName,
+        LocalDate date,
+        LocalDateTime checkInAt,
+        LocalDateTime checkOutAt,
+        Attendance.Status status,
+        String source
+) {}
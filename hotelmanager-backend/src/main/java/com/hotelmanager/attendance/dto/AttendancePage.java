@@ -0,0 +1,12 @@
+package com.hotelmanager.attendance.dto;
+
+import java.util.List;
+
+/**
+ * One page of attendances ordered by (date, id).
+ * nextCursor is passed back as "after" to get the following page; null on the last page.
+ */
+public record AttendancePage(
+        List<AttendanceDto> items,
+        String nextCursor
+) {}
@@ -0,0 +1,39 @@
+package com.hotelmanager.attendance.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Timesheet bucket. Boundaries match PostgreSQL date_trunc: ISO weeks start on Monday.
+ */
+public enum TimesheetPeriod {
+    DAY("day"), WEEK("week"), MONTH("month");
+
+    private final String sqlUnit;
+
+    TimesheetPeriod(String sqlUnit) {
+        this.sqlUnit = sqlUnit;
+    }
+
+    public String sqlUnit() {
+        return sqlUnit;
+    }
+
+    public LocalDate floor(LocalDate day) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    /** First day of the following period. */
+    public LocalDate next(LocalDate periodStart) {
+        return switch (this) {
+            case DAY -> periodStart.plusDays(1);
+            case WEEK -> periodStart.plusWeeks(1);
+            case MONTH -> periodStart.plusMonths(1);
+        };
+    }
+}
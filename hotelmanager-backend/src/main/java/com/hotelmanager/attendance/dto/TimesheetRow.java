@@ -0,0 +1,22 @@
+package com.hotelmanager.attendance.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Worked time of one employee over one period.
+ *
+ * workedMinutes only counts closed attendances; openCount tells how many were still open.
+ * overtimeMinutes is the sum, day by day, of the minutes above the daily threshold.
+ */
+public record TimesheetRow(
+        Long employeeId,
+        String firstName,
+        String lastName,
+        LocalDate periodStart,
+        long workedMinutes,
+        int daysWorked,
+        int lateCount,
+        int absentCount,
+        int openCount,
+        long overtimeMinutes
+) {}
@@ -9,7 +9,10 @@ import java.time.LocalDateTime;
 import com.hotelmanager.user.entity.User;
 
 @Entity
-@Table(name = "attendance")
+@Table(name = "attendance", indexes = {
+        @Index(name = "idx_attendance_employee_date", columnList = "employee_id, date"),
+        @Index(name = "idx_attendance_hotel_date", columnList = "hotel_id, date, id")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Attendance {
 
@@ -22,6 +25,10 @@ public class Attendance {
     @JoinColumn(name = "employee_id")
     private User employee;
 
+    /** Copy of employee.hotel, set on insert: hotel listings stay on one index instead of joining users. */
+    @Column(name = "hotel_id")
+    private Long hotelId;
+
     @Column(nullable = false)
     private LocalDate date;
 
@@ -38,7 +45,18 @@ public class Attendance {
     private Double lat;
     private Double lng;
 
-    @ManyToOne(optional = false)
+    /** Set when the attendance was closed automatically; checkOutAt is then an estimate. */
+    private LocalDateTime autoClosedAt;
+
+    /** Closed automatically (forgotten check-out): to be checked by a manager. */
+    @Column(name = "needs_review", nullable = false, columnDefinition = "boolean not null default false")
+    private boolean needsReview;
+
+    /** Turned RETARD by the shift reconciliation (not by hand): reverted if a later run finds it on time. */
+    @Column(name = "late_flagged", nullable = false, columnDefinition = "boolean not null default false")
+    private boolean lateFlagged;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private User createdBy;
 
     @Column(nullable = false)
@@ -47,5 +65,6 @@ public class Attendance {
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) createdAt = LocalDateTime.now();
+        if (hotelId == null && employee != null && employee.getHotel() != null) hotelId = employee.getHotel().getId();
     }
 }
@@ -0,0 +1,9 @@
+package com.hotelmanager.attendance.event;
+
+import java.time.LocalDate;
+
+/**
+ * An attendance of a hotel was created, closed or deleted on the given day.
+ * Cached timesheets of closed periods covering that day are dropped after commit.
+ */
+public record AttendanceChangedEvent(Long hotelId, LocalDate date) {}
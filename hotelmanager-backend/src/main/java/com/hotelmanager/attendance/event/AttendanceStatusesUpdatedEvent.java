@@ -0,0 +1,10 @@
+package com.hotelmanager.attendance.event;
+
+import java.time.LocalDate;
+
+/**
+ * Attendance statuses of a hotel were rewritten in bulk over [from, to] by a process that already
+ * accounts for them (shift reconciliation). Only cached timesheets are dropped: unlike
+ * {@link AttendanceChangedEvent}, it does not ask for a new reconciliation.
+ */
+public record AttendanceStatusesUpdatedEvent(Long hotelId, LocalDate from, LocalDate to) {}
@@ -0,0 +1,14 @@
+package com.hotelmanager.attendance.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * A new daily code replaced the previous ones of a hotel. Published inside the
+ * regenerate transaction; the in-memory code cache switches over after commit.
+ */
+public record DailyCodeRegeneratedEvent(
+        Long hotelId,
+        String code,
+        LocalDateTime validFrom,
+        LocalDateTime validUntil
+) {}
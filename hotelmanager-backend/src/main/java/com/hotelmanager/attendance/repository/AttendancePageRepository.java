@@ -0,0 +1,17 @@
+package com.hotelmanager.attendance.repository;
+
+import com.hotelmanager.attendance.dto.AttendanceDto;
+import com.hotelmanager.attendance.entity.Attendance;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AttendancePageRepository {
+
+    /**
+     * Keyset page over (date, id) after the cursor (afterDate, afterId), on idx_attendance_hotel_date.
+     * Null filters are ignored; limit <= 0: no limit.
+     */
+    List<AttendanceDto> findPage(Long hotelId, LocalDate start, LocalDate end, LocalDate afterDate, long afterId,
+                                 Long employeeId, Attendance.Status status, String source, int limit);
+}
@@ -0,0 +1,62 @@
+package com.hotelmanager.attendance.repository;
+
+import com.hotelmanager.attendance.dto.AttendanceDto;
+import com.hotelmanager.attendance.entity.Attendance;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JPQL built per call with only the filters that are set, as in ReservationSearchRepositoryImpl:
+ * no "(:p is null or ...)" predicate keeping a generic plan off the filter's index.
+ */
+class AttendancePageRepositoryImpl implements AttendancePageRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<AttendanceDto> findPage(Long hotelId, LocalDate start, LocalDate end, LocalDate afterDate, long afterId,
+                                        Long employeeId, Attendance.Status status, String source, int limit) {
+        StringBuilder jpql = new StringBuilder("""
+            select new com.hotelmanager.attendance.dto.AttendanceDto(
+                   a.id, e.id, e.firstName, e.lastName, a.date, a.checkInAt, a.checkOutAt, a.status, a.source, a.needsReview)
+              from Attendance a
+              join a.employee e
+             where a.hotelId = :hotelId
+               and a.date between :start and :end
+               and (a.date > :afterDate or (a.date = :afterDate and a.id > :afterId))
+            """);
+        Map<String, Object> params = new HashMap<>();
+        params.put("hotelId", hotelId);
+        params.put("start", start);
+        params.put("end", end);
+        params.put("afterDate", afterDate);
+        params.put("afterId", afterId);
+
+        if (employeeId != null) {
+            jpql.append(" and e.id = :employeeId");
+            params.put("employeeId", employeeId);
+        }
+        if (status != null) {
+            jpql.append(" and a.status = :status");
+            params.put("status", status);
+        }
+        if (source != null) {
+            jpql.append(" and a.source = :source");
+            params.put("source", source);
+        }
+        jpql.append(" order by a.date, a.id");
+
+        TypedQuery<AttendanceDto> q = em.createQuery(jpql.toString(), AttendanceDto.class);
+        params.forEach(q::setParameter);
+        if (limit > 0) q.setMaxResults(limit);
+        return q.getResultList();
+    }
+}
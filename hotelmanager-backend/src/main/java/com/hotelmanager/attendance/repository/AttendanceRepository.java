@@ -1,19 +1,75 @@
 package com.hotelmanager.attendance.repository;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.hotelmanager.attendance.dto.AttendanceDto;
+import com.hotelmanager.attendance.dto.AttendanceExportRow;
 import com.hotelmanager.attendance.entity.Attendance;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Stream;
 
-public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface AttendanceRepository extends JpaRepository<Attendance, Long>, AttendancePageRepository {
 
     boolean existsByEmployeeIdAndCheckOutAtIsNull(Long employeeId);
 
     Optional<Attendance> findFirstByEmployeeIdAndCheckOutAtIsNullOrderByCheckInAtDesc(Long employeeId);
 
-    List<Attendance> findByEmployeeHotelIdAndDateBetween(Long hotelId, LocalDate start, LocalDate end);
-    List<Attendance> findByEmployeeIdAndDateBetween(Long employeeId, LocalDate start, LocalDate end); // 
+    @Query("""
+        select new com.hotelmanager.attendance.dto.AttendanceDto(
+               a.id, e.id, e.firstName, e.lastName, a.date, a.checkInAt, a.checkOutAt, a.status, a.source, a.needsReview)
+          from Attendance a
+          join a.employee e
+         where a.hotelId = :hotelId
+           and a.date between :start and :end
+         order by a.date, a.id
+    """)
+    List<AttendanceDto> findDtosByHotel(
+        @Param("hotelId") Long hotelId, @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    @Query("""
+        select new com.hotelmanager.attendance.dto.AttendanceDto(
+               a.id, e.id, e.firstName, e.lastName, a.date, a.checkInAt, a.checkOutAt, a.status, a.source, a.needsReview)
+          from Attendance a
+          join a.employee e
+         where e.id = :employeeId
+           and a.date between :start and :end
+         order by a.date, a.id
+    """)
+    List<AttendanceDto> findDtosByEmployee(
+        @Param("employeeId") Long employeeId, @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    @EntityGraph(attributePaths = "employee")
+    List<Attendance> findByHotelIdAndNeedsReviewTrueOrderByCheckInAtAsc(Long hotelId);
+
+    /**
+     * Curseur d'export sur ]afterId, untilId], par id croissant. À consommer dans une transaction, puis fermer.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        select new com.hotelmanager.attendance.dto.AttendanceExportRow(
+               a.id, e.id, e.firstName, e.lastName, a.date, a.checkInAt, a.checkOutAt, a.status, a.source)
+          from Attendance a
+          join a.employee e
+         where a.hotelId = :hotelId
+           and a.id > :afterId
+           and a.id <= :untilId
+         order by a.id
+    """)
+    Stream<AttendanceExportRow> streamForExport(
+        @Param("hotelId") Long hotelId,
+        @Param("afterId") Long afterId,
+        @Param("untilId") Long untilId
+    );
 
+    @Query("select coalesce(max(a.id), 0) from Attendance a where a.hotelId = :hotelId")
+    Long findMaxIdByHotel(@Param("hotelId") Long hotelId);
 }
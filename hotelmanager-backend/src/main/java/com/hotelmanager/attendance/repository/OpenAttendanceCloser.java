@@ -0,0 +1,71 @@
+package com.hotelmanager.attendance.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Closes forgotten attendances of a hotel in one UPDATE.
+ *
+ * The presumed check-out is the end of the employee's shift covering the check-in
+ * (a shift ending at or before its start ends the next day), or check-in + maxDuration
+ * when there is no such shift. Rows are closed once that time + grace has passed.
+ *
+ * Safe with several instances: rows locked by another run are skipped, and the
+ * check_out_at IS NULL condition is re-checked on every row actually updated.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OpenAttendanceCloser {
+
+    private final JdbcTemplate jdbc;
+
+    /** @return dates of the attendances closed (one entry per row) */
+    public List<LocalDate> closeForgotten(Long hotelId, LocalDateTime now, Duration grace, Duration maxDuration) {
+        return jdbc.query("""
+            WITH candidates AS (
+              SELECT a.id,
+                     coalesce(
+                       (SELECT min(s.date + s.end_time
+                                   + CASE WHEN s.end_time <= s.start_time THEN interval '1 day' ELSE interval '0' END)
+                          FROM shifts s
+                         WHERE s.employee_id = a.employee_id
+                           AND s.date BETWEEN a.date - 1 AND a.date
+                           AND s.start_time IS NOT NULL AND s.end_time IS NOT NULL
+                           AND s.date + s.end_time
+                               + CASE WHEN s.end_time <= s.start_time THEN interval '1 day' ELSE interval '0' END
+                               > a.check_in_at),
+                       a.check_in_at + ? * interval '1 second') AS close_at
+                FROM attendance a
+               WHERE a.hotel_id = ?
+                 AND a.check_out_at IS NULL
+                 AND a.status <> 'ABSENT'
+                 AND a.check_in_at < ?
+            ),
+            due AS (
+              SELECT a.id, c.close_at
+                FROM attendance a
+                JOIN candidates c ON c.id = a.id
+               WHERE c.close_at + ? * interval '1 second' <= ?
+                 FOR UPDATE OF a SKIP LOCKED
+            )
+            UPDATE attendance a
+               SET check_out_at   = due.close_at,
+                   auto_closed_at = ?,
+                   needs_review   = true
+              FROM due
+             WHERE a.id = due.id
+               AND a.check_out_at IS NULL
+            RETURNING a.date
+            """,
+            (rs, i) -> rs.getDate(1).toLocalDate(),
+            maxDuration.toSeconds(), hotelId, Timestamp.valueOf(now.minus(grace)),
+            grace.toSeconds(), Timestamp.valueOf(now), Timestamp.valueOf(now));
+    }
+}
@@ -0,0 +1,72 @@
+package com.hotelmanager.attendance.repository;
+
+import com.hotelmanager.attendance.dto.TimesheetPeriod;
+import com.hotelmanager.attendance.dto.TimesheetRow;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Timesheet rollups computed by PostgreSQL: one pass over the hotel's attendances,
+ * grouped per employee and day, then per date_trunc period.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TimesheetQueries {
+
+    private final JdbcTemplate jdbc;
+
+    /**
+     * @param from                first day, inclusive (a period boundary)
+     * @param to                  last day, exclusive (a period boundary)
+     * @param dailyRegularMinutes minutes per day above which time counts as overtime
+     */
+    public List<TimesheetRow> aggregate(Long hotelId, TimesheetPeriod period, LocalDate from, LocalDate to,
+                                        int dailyRegularMinutes) {
+        return jdbc.query("""
+            WITH per_day AS (
+              SELECT a.employee_id,
+                     a.date,
+                     coalesce(sum(extract(epoch FROM a.check_out_at - a.check_in_at)) / 60, 0)::bigint AS worked,
+                     count(*) FILTER (WHERE a.status = 'RETARD')                             AS late,
+                     count(*) FILTER (WHERE a.status = 'ABSENT')                             AS absent,
+                     count(*) FILTER (WHERE a.check_out_at IS NULL AND a.status <> 'ABSENT') AS open_count
+                FROM attendance a
+               WHERE a.hotel_id = ?
+                 AND a.date >= ? AND a.date < ?
+               GROUP BY a.employee_id, a.date
+            )
+            SELECT d.employee_id,
+                   u.first_name,
+                   u.last_name,
+                   date_trunc(?, d.date::timestamp)::date   AS period_start,
+                   sum(d.worked)                            AS worked,
+                   count(*) FILTER (WHERE d.worked > 0)     AS days_worked,
+                   sum(d.late)                              AS late,
+                   sum(d.absent)                            AS absent,
+                   sum(d.open_count)                        AS open_count,
+                   sum(greatest(d.worked - ?, 0))           AS overtime
+              FROM per_day d
+              JOIN users u ON u.id = d.employee_id
+             GROUP BY d.employee_id, u.first_name, u.last_name, period_start
+             ORDER BY period_start, u.last_name, u.first_name, d.employee_id
+            """,
+            (rs, i) -> new TimesheetRow(
+                rs.getLong("employee_id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getDate("period_start").toLocalDate(),
+                rs.getLong("worked"),
+                rs.getInt("days_worked"),
+                rs.getInt("late"),
+                rs.getInt("absent"),
+                rs.getInt("open_count"),
+                rs.getLong("overtime")),
+            hotelId, Date.valueOf(from), Date.valueOf(to), period.sqlUnit(), dailyRegularMinutes);
+    }
+}
@@ -0,0 +1,79 @@
+package com.hotelmanager.attendance.service;
+
+import com.hotelmanager.attendance.event.AttendanceChangedEvent;
+import com.hotelmanager.attendance.repository.OpenAttendanceCloser;
+import com.hotelmanager.hotel.entity.Hotel;
+import com.hotelmanager.hotel.repository.HotelRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Closes attendances left open by a forgotten check-out, so the employee can check in
+ * again. Closed rows are flagged needsReview for the manager (see {@link OpenAttendanceCloser}
+ * for the presumed check-out time).
+ */
+@Slf4j
+@Component
+public class AttendanceAutoCloser {
+
+  private final HotelRepository hotelRepository;
+  private final OpenAttendanceCloser closer;
+  private final ApplicationEventPublisher events;
+  private final TransactionTemplate tx;
+  private final boolean enabled;
+  private final Duration grace;
+  private final Duration maxDuration;
+
+  public AttendanceAutoCloser(HotelRepository hotelRepository,
+                              OpenAttendanceCloser closer,
+                              ApplicationEventPublisher events,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${hotel.attendance.auto-close.enabled:true}") boolean enabled,
+                              @Value("${hotel.attendance.auto-close.grace:PT2H}") Duration grace,
+                              @Value("${hotel.attendance.auto-close.max-duration:PT12H}") Duration maxDuration) {
+    this.hotelRepository = hotelRepository;
+    this.closer = closer;
+    this.events = events;
+    this.tx = new TransactionTemplate(transactionManager);
+    this.enabled = enabled;
+    this.grace = grace;
+    this.maxDuration = maxDuration;
+  }
+
+  @Scheduled(initialDelayString = "${hotel.attendance.auto-close.initial-delay:PT2M}",
+             fixedDelayString = "${hotel.attendance.auto-close.interval:PT15M}")
+  public void run() {
+    if (!enabled) return;
+    for (Hotel hotel : hotelRepository.findAllByActiveTrue()) {
+      try {
+        int closed = closeForHotel(hotel.getId(), LocalDateTime.now());
+        if (closed > 0) log.info("Hotel {}: {} forgotten attendance(s) closed for review", hotel.getId(), closed);
+      } catch (RuntimeException e) {
+        log.error("Attendance auto-close failed for hotel {}: {}", hotel.getId(), e.getMessage());
+      }
+    }
+  }
+
+  int closeForHotel(Long hotelId, LocalDateTime now) {
+    Integer closed = tx.execute(status -> {
+      List<LocalDate> dates = closer.closeForgotten(hotelId, now, grace, maxDuration);
+      for (LocalDate date : new TreeSet<>(dates)) {
+        events.publishEvent(new AttendanceChangedEvent(hotelId, date));
+      }
+      return dates.size();
+    });
+    return closed == null ? 0 : closed;
+  }
+}
@@ -0,0 +1,52 @@
+package com.hotelmanager.attendance.service;
+
+import com.hotelmanager.attendance.dto.AttendanceExportRow;
+import com.hotelmanager.attendance.repository.AttendanceRepository;
+import com.hotelmanager.common.export.ExportColumn;
+import com.hotelmanager.common.export.ExportFormat;
+import com.hotelmanager.common.export.StreamingExporter;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class AttendanceExportService {
+
+    private static final List<ExportColumn<AttendanceExportRow>> COLUMNS = List.of(
+            new ExportColumn<>("id", AttendanceExportRow::id),
+            new ExportColumn<>("employeeId", AttendanceExportRow::employeeId),
+            new ExportColumn<>("firstName", AttendanceExportRow::firstName),
+            new ExportColumn<>("lastName", AttendanceExportRow::lastName),
+            new ExportColumn<>("date", AttendanceExportRow::date),
+            new ExportColumn<>("checkInAt", AttendanceExportRow::checkInAt),
+            new ExportColumn<>("checkOutAt", AttendanceExportRow::checkOutAt),
+            new ExportColumn<>("status", AttendanceExportRow::status),
+            new ExportColumn<>("source", AttendanceExportRow::source)
+    );
+
+    private final AttendanceRepository attendanceRepository;
+    private final StreamingExporter exporter;
+
+    @Transactional(readOnly = true)
+    public Long currentMaxId(Long hotelId) {
+        return attendanceRepository.findMaxIdByHotel(hotelId);
+    }
+
+    /**
+     * Writes the hotel's attendances with id in ]afterId, untilId] through a forward-only JDBC cursor.
+     */
+    @Transactional(readOnly = true)
+    public long export(Long hotelId, ExportFormat format, long afterId, long untilId, OutputStream out)
+            throws IOException {
+        try (Stream<AttendanceExportRow> rows = attendanceRepository.streamForExport(hotelId, afterId, untilId)) {
+            return exporter.write(rows, format, COLUMNS, out);
+        }
+    }
+}
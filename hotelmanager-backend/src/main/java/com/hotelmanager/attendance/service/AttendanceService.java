@@ -1,16 +1,19 @@
 package com.hotelmanager.attendance.service;
 
 import com.hotelmanager.attendance.dto.AttendanceDto;
+import com.hotelmanager.attendance.dto.AttendancePage;
 import com.hotelmanager.attendance.dto.CheckOutResponse;
 import com.hotelmanager.attendance.dto.ManualAttendanceRequest;
 import com.hotelmanager.attendance.entity.Attendance;
-import com.hotelmanager.attendance.entity.DailyCode;
+import com.hotelmanager.attendance.event.AttendanceChangedEvent;
 import com.hotelmanager.attendance.repository.AttendanceRepository;
 import com.hotelmanager.attendance.repository.DailyCodeRepository;
 import com.hotelmanager.user.entity.User;
 import com.hotelmanager.user.repository.UserRepository;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,22 +34,17 @@ public class AttendanceService {
   private final AttendanceRepository attendanceRepository;
 
   private final DailyCodeService dailyCodeService; 
+  private final ApplicationEventPublisher events;
+  private final CheckInGeofence geofence;
+
+  private static final int MAX_PAGE_SIZE = 500;
 
   @Transactional
   public Attendance checkIn(User employee, String code, Double lat, Double lng) {
     var now = LocalDateTime.now();
 
-    var activeOpt = dailyCodeService.current(employee.getHotel().getId());
-    DailyCode active = activeOpt.orElseThrow(
-        () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Code expiré ou introuvable"));
-
-    String normalized = code == null ? "" : code.trim().toUpperCase();
-    if (!active.getCode().equals(normalized)) {
-      throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Code invalide");
-    }
-
-    if (attRepo.existsByEmployeeIdAndCheckOutAtIsNull(employee.getId()))
-      throw new ResponseStatusException(HttpStatus.CONFLICT, "Pointage déjà ouvert");
+    dailyCodeService.verify(employee.getHotel().getId(), code);
+    geofence.check(employee.getHotel(), lat, lng);
 
     var att = Attendance.builder()
         .employee(employee)
@@ -59,7 +57,12 @@ public class AttendanceService {
         .createdAt(now)
         .build();
 
-    return attRepo.save(att);
+    // A second open attendance is rejected by the unique partial index (uk_attendance_open_employee).
+    try {
+      return attRepo.saveAndFlush(att);
+    } catch (DataIntegrityViolationException e) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "Pointage déjà ouvert");
+    }
   }
 
    @Transactional
@@ -72,6 +75,7 @@ public class AttendanceService {
         open.setCheckOutAt(now);
 
         attRepo.saveAndFlush(open);
+        publishChanged(employee, open.getDate());
 
         return new CheckOutResponse(open.getId(), now);
     }
@@ -98,10 +102,6 @@ public class AttendanceService {
         if (!req.getDate().equals(req.getCheckInAt().toLocalDate())) {
             throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "date != date(checkInAt)");
         }
-        if (attendanceRepository.existsByEmployeeIdAndCheckOutAtIsNull(employee.getId())) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Pointage déjà ouvert pour cet employé");
-        }
-
         Attendance att = Attendance.builder()
                 .employee(employee)
                 .date(req.getDate())
@@ -115,7 +115,14 @@ public class AttendanceService {
                 .createdAt(LocalDateTime.now())                  
                 .build();
 
-        Attendance saved = attendanceRepository.save(att);
+        // Same arbiter as check-in: the unique partial index on open attendances.
+        Attendance saved;
+        try {
+            saved = attendanceRepository.saveAndFlush(att);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Pointage déjà ouvert pour cet employé");
+        }
+        publishChanged(employee, saved.getDate());
         return AttendanceDto.from(saved);
     }
 
@@ -124,11 +131,44 @@ public class AttendanceService {
         if (current.getHotel() == null) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Utilisateur sans hôtel");
         }
-        return attendanceRepository
-                .findByEmployeeHotelIdAndDateBetween(current.getHotel().getId(), start, end)
-                .stream()
-                .map(AttendanceDto::from) 
-                .toList();
+        return attendanceRepository.findDtosByHotel(current.getHotel().getId(), start, end);
+    }
+
+    /**
+     * Keyset page of the hotel's attendances in [start, end], ordered by (date, id).
+     * after is the nextCursor of the previous page ("yyyy-MM-dd:id"), null for the first page.
+     */
+    @Transactional(readOnly = true)
+    public AttendancePage pageAttendances(User current, LocalDate start, LocalDate end, String after, int limit,
+                                          Long employeeId, Attendance.Status status, String source) {
+        if (current.getHotel() == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Utilisateur sans hôtel");
+        }
+        if (start == null || end == null || end.isBefore(start)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Période invalide");
+        }
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        LocalDate afterDate = start.minusDays(1);
+        long afterId = 0;
+        if (after != null && !after.isBlank()) {
+            int sep = after.lastIndexOf(':');
+            try {
+                afterDate = LocalDate.parse(after.substring(0, sep));
+                afterId = Long.parseLong(after.substring(sep + 1));
+            } catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Curseur invalide");
+            }
+        }
+
+        List<AttendanceDto> rows = attendanceRepository.findPage(current.getHotel().getId(), start, end,
+                afterDate, afterId, employeeId, status, source == null || source.isBlank() ? null : source,
+                size + 1);
+        if (rows.size() <= size) return new AttendancePage(rows, null);
+
+        List<AttendanceDto> items = rows.subList(0, size);
+        AttendanceDto last = items.get(size - 1);
+        return new AttendancePage(List.copyOf(items), last.date() + ":" + last.id());
     }
 
     @Transactional
@@ -147,6 +187,45 @@ public class AttendanceService {
 
         att.setCheckOutAt(LocalDateTime.now());
         Attendance saved = attRepo.save(att);
+        publishChanged(att.getEmployee(), att.getDate());
+        return AttendanceDto.from(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AttendanceDto> listToReview(User manager) {
+        if (manager.getHotel() == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Utilisateur sans hôtel");
+        }
+        return attRepo.findByHotelIdAndNeedsReviewTrueOrderByCheckInAtAsc(manager.getHotel().getId())
+                .stream()
+                .map(AttendanceDto::from)
+                .toList();
+    }
+
+    /**
+     * Validates an automatically closed attendance, optionally with the real check-out time.
+     */
+    @Transactional
+    public AttendanceDto review(Long attendanceId, User manager, LocalDateTime checkOutAt) {
+        Attendance att = attRepo.findById(attendanceId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Pointage introuvable"));
+
+        if (!att.getEmployee().getHotel().getId().equals(manager.getHotel().getId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Employé d’un autre hôtel");
+        }
+        if (!att.isNeedsReview()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Pointage sans vérification en attente");
+        }
+        if (checkOutAt != null) {
+            if (!checkOutAt.isAfter(att.getCheckInAt())) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Sortie doit être après l’entrée");
+            }
+            att.setCheckOutAt(checkOutAt);
+        }
+
+        att.setNeedsReview(false);
+        Attendance saved = attRepo.save(att);
+        publishChanged(att.getEmployee(), att.getDate());
         return AttendanceDto.from(saved);
     }
 
@@ -161,19 +240,16 @@ public class AttendanceService {
         }
 
         attRepo.delete(att);
+        publishChanged(att.getEmployee(), att.getDate());
     }
 
     @Transactional(readOnly = true)
     public List<AttendanceDto> listMine(User current, LocalDate start, LocalDate end) {
-        return attendanceRepository
-                .findByEmployeeIdAndDateBetween(current.getId(), start, end)
-                .stream()
-                .map(AttendanceDto::from)
-                .toList();
+        return attendanceRepository.findDtosByEmployee(current.getId(), start, end);
     }
 
-
-    
-
-  
+    private void publishChanged(User employee, LocalDate date) {
+        if (employee.getHotel() == null) return;
+        events.publishEvent(new AttendanceChangedEvent(employee.getHotel().getId(), date));
+    }
 }
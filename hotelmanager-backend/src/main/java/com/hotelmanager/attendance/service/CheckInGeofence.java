@@ -0,0 +1,163 @@
+package com.hotelmanager.attendance.service;
+
+import com.hotelmanager.hotel.entity.Hotel;
+import com.hotelmanager.hotel.event.HotelLocationChangedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Geofence check of a check-in position against the hotel's coordinates.
+ *
+ * Each hotel's fence is kept as an immutable snapshot, built from the hotel already loaded
+ * with the authenticated user: the check costs no database round trip. The snapshot is dropped
+ * on HotelLocationChangedEvent, and rebuilt at least every hotel.attendance.geofence.refresh
+ * so that a change made on another instance is picked up too. The distance is first estimated with the equirectangular formula;
+ * only positions close to the radius get the exact haversine distance.
+ *
+ * The fence is opt-in: a hotel without coordinates, or without a radius (its own
+ * checkInRadiusMeters, else hotel.attendance.geofence.default-radius-meters, 0 by default),
+ * has none. Once a hotel has a fence, a check-in without position is LOCATION_MISSING and
+ * rejected; require-location=false only lets it through (still counted) while clients roll out.
+ *
+ * Outcomes are counted per hotel (see {@link #metrics(Long)}).
+ */
+@Slf4j
+@Component
+public class CheckInGeofence {
+
+  private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+  /** Relative error of the equirectangular estimate accepted without haversine (far below 1% at hotel scale). */
+  private static final double APPROX_MARGIN = 0.02;
+
+  public enum Outcome { ACCEPTED, NOT_CONFIGURED, LOCATION_MISSING, INVALID_LOCATION, OUTSIDE_RADIUS }
+
+  /** radius <= 0: no fence. */
+  private record Fence(double latRad, double lngRad, double cosLat, int radiusMeters) {
+    static final Fence NONE = new Fence(0, 0, 1, 0);
+  }
+
+  private record Cached(Fence fence, long refreshAtNanos) {}
+
+  private final int defaultRadiusMeters;
+  private final boolean requireLocation;
+  private final long refreshNanos;
+
+  private final Map<Long, Cached> fences = new ConcurrentHashMap<>();
+  private final Map<Long, Map<Outcome, LongAdder>> counters = new ConcurrentHashMap<>();
+
+  public CheckInGeofence(@Value("${hotel.attendance.geofence.default-radius-meters:0}") int defaultRadiusMeters,
+                         @Value("${hotel.attendance.geofence.require-location:true}") boolean requireLocation,
+                         @Value("${hotel.attendance.geofence.refresh:PT1M}") Duration refresh) {
+    this.defaultRadiusMeters = defaultRadiusMeters;
+    this.requireLocation = requireLocation;
+    this.refreshNanos = refresh.toNanos();
+  }
+
+  /**
+   * @throws ResponseStatusException 403 with the rejection reason
+   */
+  public void check(Hotel hotel, Double lat, Double lng) {
+    Fence fence = fenceFor(hotel);
+
+    Outcome outcome;
+    long distance = -1;
+    if (fence.radiusMeters() <= 0) {
+      outcome = Outcome.NOT_CONFIGURED;
+    } else if (lat == null || lng == null) {
+      outcome = Outcome.LOCATION_MISSING;
+    } else if (!isValid(lat, lng)) {
+      outcome = Outcome.INVALID_LOCATION;
+    } else {
+      distance = Math.round(distanceMeters(fence, lat, lng));
+      outcome = distance <= fence.radiusMeters() ? Outcome.ACCEPTED : Outcome.OUTSIDE_RADIUS;
+    }
+
+    counters.computeIfAbsent(hotel.getId(), id -> newCounters()).get(outcome).increment();
+
+    switch (outcome) {
+      case LOCATION_MISSING -> {
+        if (requireLocation) reject(hotel, outcome, "Position requise pour pointer");
+      }
+      case INVALID_LOCATION -> reject(hotel, outcome, "Position invalide");
+      case OUTSIDE_RADIUS -> reject(hotel, outcome,
+          "Hors de la zone de pointage (" + distance + " m, maximum " + fence.radiusMeters() + " m)");
+      default -> { }
+    }
+  }
+
+  public Map<Outcome, Long> metrics(Long hotelId) {
+    Map<Outcome, Long> out = new EnumMap<>(Outcome.class);
+    Map<Outcome, LongAdder> c = counters.get(hotelId);
+    for (Outcome o : Outcome.values()) out.put(o, c == null ? 0L : c.get(o).sum());
+    return out;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onHotelLocationChanged(HotelLocationChangedEvent event) {
+    fences.remove(event.hotelId());
+  }
+
+  private Fence fenceFor(Hotel hotel) {
+    long nanos = System.nanoTime();
+    Cached cached = fences.get(hotel.getId());
+    if (cached != null && nanos - cached.refreshAtNanos() < 0) return cached.fence();
+    Fence fence = fenceOf(hotel);
+    fences.put(hotel.getId(), new Cached(fence, nanos + refreshNanos));
+    return fence;
+  }
+
+  private double distanceMeters(Fence f, double lat, double lng) {
+    double latRad = Math.toRadians(lat);
+    double dLat = latRad - f.latRad();
+    double dLng = Math.toRadians(lng) - f.lngRad();
+    if (dLng > Math.PI) dLng -= 2 * Math.PI;
+    else if (dLng < -Math.PI) dLng += 2 * Math.PI;
+
+    // cos of the mean latitude ~ cos of the hotel latitude at fence scale.
+    double x = dLng * f.cosLat();
+    double approx = EARTH_RADIUS_METERS * Math.sqrt(x * x + dLat * dLat);
+    if (approx < f.radiusMeters() * (1 - APPROX_MARGIN) || approx > f.radiusMeters() * (1 + APPROX_MARGIN)) {
+      return approx;
+    }
+
+    double sinLat = Math.sin(dLat / 2);
+    double sinLng = Math.sin(dLng / 2);
+    double a = sinLat * sinLat + f.cosLat() * Math.cos(latRad) * sinLng * sinLng;
+    return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+  }
+
+  private Fence fenceOf(Hotel hotel) {
+    Integer radius = hotel.getCheckInRadiusMeters() != null ? hotel.getCheckInRadiusMeters() : defaultRadiusMeters;
+    Double lat = hotel.getLatitude();
+    Double lng = hotel.getLongitude();
+    if (radius <= 0 || lat == null || lng == null || !isValid(lat, lng)) return Fence.NONE;
+    double latRad = Math.toRadians(lat);
+    return new Fence(latRad, Math.toRadians(lng), Math.cos(latRad), radius);
+  }
+
+  private static boolean isValid(double lat, double lng) {
+    return lat >= -90 && lat <= 90 && lng >= -180 && lng <= 180;
+  }
+
+  private static Map<Outcome, LongAdder> newCounters() {
+    Map<Outcome, LongAdder> m = new EnumMap<>(Outcome.class);
+    for (Outcome o : Outcome.values()) m.put(o, new LongAdder());
+    return m;
+  }
+
+  private static void reject(Hotel hotel, Outcome outcome, String message) {
+    log.debug("Check-in rejected for hotel {}: {}", hotel.getId(), outcome);
+    throw new ResponseStatusException(HttpStatus.FORBIDDEN, message);
+  }
+}
@@ -1,25 +1,83 @@
 package com.hotelmanager.attendance.service;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.hotelmanager.attendance.entity.DailyCode;
+import com.hotelmanager.attendance.event.DailyCodeRegeneratedEvent;
 import com.hotelmanager.attendance.repository.DailyCodeRepository;
 import com.hotelmanager.user.entity.User;
 
 import java.security.SecureRandom;
 import java.time.*;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Daily attendance codes.
+ *
+ * The active code of each hotel is kept in memory so that a check-in does not query
+ * daily_codes: an entry is dropped exactly at validUntil and replaced as soon as
+ * regenerate commits. Entries (including "no active code") are re-read from the
+ * database every hotel.attendance.code-refresh, which bounds how long another
+ * instance's regenerate can go unnoticed.
+ *
+ * With hotel.attendance.code-mode=ROTATING the table is not used at all: codes come
+ * from {@link RotatingAttendanceCodes} and rotate every step without regenerate.
+ */
 @Service
-@RequiredArgsConstructor
 public class DailyCodeService {
+
+  /** Immutable snapshot of the active code, safe to share between threads. */
+  public record ActiveCode(String code, LocalDateTime validFrom, LocalDateTime validUntil) {
+
+    boolean isValidAt(LocalDateTime now) {
+      return !now.isBefore(validFrom) && !now.isAfter(validUntil);
+    }
+
+    boolean matches(String candidate) {
+      return candidate != null && code.equals(candidate.trim().toUpperCase());
+    }
+  }
+
+  private record Cached(ActiveCode code, long refreshAtNanos) {}
+
   private final DailyCodeRepository repo;
+  private final ApplicationEventPublisher events;
+  private final RotatingAttendanceCodes rotating;
+  private final long refreshNanos;
+
+  private final Map<Long, Cached> active = new ConcurrentHashMap<>();
+  /** Bumped on every regenerate: a database read started before it is not cached. */
+  private final AtomicLong generation = new AtomicLong();
+
+  public DailyCodeService(DailyCodeRepository repo,
+                          ApplicationEventPublisher events,
+                          RotatingAttendanceCodes rotating,
+                          @Value("${hotel.attendance.code-refresh:PT30S}") Duration refresh) {
+    this.repo = repo;
+    this.events = events;
+    this.rotating = rotating;
+    this.refreshNanos = refresh.toNanos();
+  }
 
+  @Transactional
   public DailyCode regenerate(User manager, Duration ttl) {
+    if (rotating.enabled()) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "Codes tournants actifs : aucune régénération nécessaire");
+    }
     var now = LocalDateTime.now();
+    Long hotelId = manager.getHotel().getId();
 
-    List<DailyCode> actives = repo.findAllActive(manager.getHotel().getId(), now);
+    List<DailyCode> actives = repo.findAllActive(hotelId, now);
     if (!actives.isEmpty()) {
       for (var dc : actives) {
         dc.setRevokedAt(now);
@@ -35,11 +93,57 @@ public class DailyCodeService {
         .createdBy(manager)
         .createdAt(LocalDateTime.now())
         .build();
-    return repo.save(dc);
+    dc = repo.save(dc);
+
+    generation.incrementAndGet();
+    events.publishEvent(new DailyCodeRegeneratedEvent(hotelId, dc.getCode(), dc.getValidFrom(), dc.getValidUntil()));
+    return dc;
+  }
+
+  public Optional<ActiveCode> current(Long hotelId) {
+    if (rotating.enabled()) return Optional.of(rotating.current(hotelId));
+
+    var now = LocalDateTime.now();
+    long nanos = System.nanoTime();
+
+    Cached cached = active.get(hotelId);
+    if (cached != null && nanos - cached.refreshAtNanos() < 0
+        && (cached.code() == null || cached.code().isValidAt(now))) {
+      return Optional.ofNullable(cached.code());
+    }
+
+    long gen = generation.get();
+    ActiveCode loaded = repo.findActive(hotelId, now)
+        .map(d -> new ActiveCode(d.getCode(), d.getValidFrom(), d.getValidUntil()))
+        .orElse(null);
+    if (generation.get() == gen) active.put(hotelId, new Cached(loaded, nanos + refreshNanos));
+    return Optional.ofNullable(loaded);
+  }
+
+  /**
+   * Checks a code typed or scanned by an employee: 404 when the hotel has no active
+   * code, 422 when it does not match.
+   */
+  public void verify(Long hotelId, String code) {
+    if (rotating.enabled()) {
+      if (!rotating.verify(hotelId, code)) {
+        throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Code invalide");
+      }
+      return;
+    }
+
+    var active = current(hotelId).orElseThrow(
+        () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Code expiré ou introuvable"));
+    if (!active.matches(code)) {
+      throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Code invalide");
+    }
   }
 
-  public java.util.Optional<DailyCode> current(Long hotelId) {
-    return repo.findActive(hotelId, LocalDateTime.now());
+  @TransactionalEventListener
+  public void onRegenerated(DailyCodeRegeneratedEvent event) {
+    generation.incrementAndGet();
+    var code = new ActiveCode(event.code(), event.validFrom(), event.validUntil());
+    active.put(event.hotelId(), new Cached(code, System.nanoTime() + refreshNanos));
   }
 
   private static String generateCode(int len) {
@@ -0,0 +1,122 @@
+package com.hotelmanager.attendance.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Stateless attendance codes (hotel.attendance.code-mode=ROTATING), derived like TOTP:
+ * code = truncate(HMAC-SHA256(hotelKey, timeStep)), written with the daily-code alphabet.
+ *
+ * hotelKey = HMAC-SHA256(hotel.attendance.rotating.secret, "hotel:" + hotelId), so one
+ * shared secret (identical on every instance) yields a distinct key per hotel.
+ * A code is accepted during its own step and drift steps before/after it, to absorb
+ * clock skew and the time needed to scan the QR.
+ */
+@Component
+public class RotatingAttendanceCodes {
+
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final String ALPHABET = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+  private static final int LENGTH = 6;
+
+  private final boolean enabled;
+  private final byte[] secret;
+  private final long stepSeconds;
+  private final int drift;
+
+  private final Map<Long, SecretKeySpec> hotelKeys = new ConcurrentHashMap<>();
+
+  public RotatingAttendanceCodes(@Value("${hotel.attendance.code-mode:STORED}") String mode,
+                                 @Value("${hotel.attendance.rotating.secret:}") String secret,
+                                 @Value("${hotel.attendance.rotating.step:PT60S}") Duration step,
+                                 @Value("${hotel.attendance.rotating.drift:1}") int drift) {
+    this.enabled = "ROTATING".equalsIgnoreCase(mode.trim());
+    if (enabled && secret.isBlank()) {
+      throw new IllegalStateException("hotel.attendance.rotating.secret is required when code-mode=ROTATING");
+    }
+    if (step.getSeconds() < 1) {
+      throw new IllegalStateException("hotel.attendance.rotating.step must be at least one second");
+    }
+    this.secret = secret.isBlank() ? new byte[0] : Base64.getDecoder().decode(secret.trim());
+    this.stepSeconds = step.getSeconds();
+    this.drift = Math.max(0, drift);
+  }
+
+  public boolean enabled() {
+    return enabled;
+  }
+
+  /** Code displayed right now, valid (without drift) until the end of the current step. */
+  public DailyCodeService.ActiveCode current(Long hotelId) {
+    long now = Instant.now().getEpochSecond();
+    long step = now / stepSeconds;
+    return new DailyCodeService.ActiveCode(
+        codeAt(hotelId, step),
+        toLocal(step * stepSeconds),
+        toLocal((step + 1) * stepSeconds - 1));
+  }
+
+  public boolean verify(Long hotelId, String candidate) {
+    if (candidate == null) return false;
+    byte[] given = candidate.trim().toUpperCase().getBytes(StandardCharsets.US_ASCII);
+    if (given.length != LENGTH) return false;
+
+    long step = Instant.now().getEpochSecond() / stepSeconds;
+    boolean ok = false;
+    for (long s = step - drift; s <= step + drift; s++) {
+      // Every step is compared, in constant time, so timing does not reveal which one matched.
+      ok |= MessageDigest.isEqual(given, codeAt(hotelId, s).getBytes(StandardCharsets.US_ASCII));
+    }
+    return ok;
+  }
+
+  String codeAt(Long hotelId, long step) {
+    byte[] h = hmac(hotelKeys.computeIfAbsent(hotelId, this::deriveKey),
+        ByteBuffer.allocate(Long.BYTES).putLong(step).array());
+
+    // Dynamic truncation (RFC 4226), then 6 x 5 bits read from the 31-bit value.
+    int offset = h[h.length - 1] & 0x0f;
+    int bin = ((h[offset] & 0x7f) << 24) | ((h[offset + 1] & 0xff) << 16)
+        | ((h[offset + 2] & 0xff) << 8) | (h[offset + 3] & 0xff);
+
+    char[] out = new char[LENGTH];
+    for (int i = 0; i < LENGTH; i++) {
+      out[i] = ALPHABET.charAt(bin & 0x1f);
+      bin >>>= 5;
+    }
+    return new String(out);
+  }
+
+  private SecretKeySpec deriveKey(Long hotelId) {
+    byte[] key = hmac(new SecretKeySpec(secret, ALGORITHM), ("hotel:" + hotelId).getBytes(StandardCharsets.UTF_8));
+    return new SecretKeySpec(key, ALGORITHM);
+  }
+
+  private static byte[] hmac(SecretKeySpec key, byte[] message) {
+    try {
+      Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(key);
+      return mac.doFinal(message);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(ALGORITHM + " unavailable", e);
+    }
+  }
+
+  private static LocalDateTime toLocal(long epochSecond) {
+    return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+  }
+}
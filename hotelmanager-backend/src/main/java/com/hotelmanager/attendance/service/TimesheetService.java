@@ -0,0 +1,126 @@
+package com.hotelmanager.attendance.service;
+
+import com.hotelmanager.attendance.dto.TimesheetPeriod;
+import com.hotelmanager.attendance.dto.TimesheetRow;
+import com.hotelmanager.attendance.event.AttendanceChangedEvent;
+import com.hotelmanager.attendance.event.AttendanceStatusesUpdatedEvent;
+import com.hotelmanager.attendance.repository.TimesheetQueries;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Worked minutes, late counts and overtime per employee and period.
+ *
+ * The requested range is widened to whole periods. Periods that ended before today
+ * ("closed") are cached per hotel; only the remaining span goes to the database, in a
+ * single query. Any manual change to an attendance, or a bulk status update by the shift
+ * reconciliation, drops the cached periods covering its days.
+ */
+@Service
+public class TimesheetService {
+
+    private static final int MAX_DAYS = 400;
+    private static final int MAX_CACHED_PERIODS_PER_HOTEL = 512;
+
+    private record Key(TimesheetPeriod period, LocalDate start, int dailyRegularMinutes) {
+        boolean covers(LocalDate day) {
+            return !day.isBefore(start) && day.isBefore(period.next(start));
+        }
+
+        boolean overlaps(LocalDate from, LocalDate to) {
+            return !to.isBefore(start) && from.isBefore(period.next(start));
+        }
+    }
+
+    private final TimesheetQueries queries;
+    private final int dailyRegularMinutes;
+
+    private final Map<Long, Map<Key, List<TimesheetRow>>> closed = new ConcurrentHashMap<>();
+    /** Bumped on every eviction: rows read before it are returned but not cached. */
+    private final AtomicLong generation = new AtomicLong();
+
+    public TimesheetService(TimesheetQueries queries,
+                            @Value("${hotel.timesheet.daily-regular-minutes:480}") int dailyRegularMinutes) {
+        this.queries = queries;
+        this.dailyRegularMinutes = dailyRegularMinutes;
+    }
+
+    public List<TimesheetRow> timesheet(Long hotelId, TimesheetPeriod period, LocalDate start, LocalDate end) {
+        if (start == null || end == null || end.isBefore(start)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Période invalide");
+        }
+        LocalDate from = period.floor(start);
+        LocalDate to = period.next(period.floor(end));
+        if (ChronoUnit.DAYS.between(from, to) > MAX_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Période limitée à " + MAX_DAYS + " jours");
+        }
+
+        LocalDate today = LocalDate.now();
+        Map<Key, List<TimesheetRow>> cache = closed.computeIfAbsent(hotelId, id -> new ConcurrentHashMap<>());
+
+        // Periods in order; null = still to be read from the database.
+        Map<LocalDate, List<TimesheetRow>> byPeriod = new LinkedHashMap<>();
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        for (LocalDate p = from; p.isBefore(to); p = period.next(p)) {
+            List<TimesheetRow> cached = cache.get(new Key(period, p, dailyRegularMinutes));
+            byPeriod.put(p, cached);
+            if (cached == null) {
+                if (firstMissing == null) firstMissing = p;
+                lastMissing = p;
+            }
+        }
+
+        if (firstMissing != null) {
+            long gen = generation.get();
+            List<TimesheetRow> rows = queries.aggregate(
+                    hotelId, period, firstMissing, period.next(lastMissing), dailyRegularMinutes);
+
+            Map<LocalDate, List<TimesheetRow>> fetched = new LinkedHashMap<>();
+            for (TimesheetRow r : rows) fetched.computeIfAbsent(r.periodStart(), p -> new ArrayList<>()).add(r);
+
+            for (LocalDate p = firstMissing; !p.isAfter(lastMissing); p = period.next(p)) {
+                if (byPeriod.get(p) != null) continue;
+                List<TimesheetRow> periodRows = List.copyOf(fetched.getOrDefault(p, List.of()));
+                byPeriod.put(p, periodRows);
+                if (period.next(p).isAfter(today) || generation.get() != gen) continue;
+                if (cache.size() >= MAX_CACHED_PERIODS_PER_HOTEL) cache.clear();
+                cache.put(new Key(period, p, dailyRegularMinutes), periodRows);
+            }
+        }
+
+        List<TimesheetRow> result = new ArrayList<>();
+        byPeriod.values().forEach(result::addAll);
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        Map<Key, List<TimesheetRow>> cache = closed.get(event.hotelId());
+        if (cache == null) return;
+        generation.incrementAndGet();
+        if (event.date() == null) cache.clear();
+        else cache.keySet().removeIf(k -> k.covers(event.date()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusesUpdated(AttendanceStatusesUpdatedEvent event) {
+        Map<Key, List<TimesheetRow>> cache = closed.get(event.hotelId());
+        if (cache == null) return;
+        generation.incrementAndGet();
+        cache.keySet().removeIf(k -> k.overlaps(event.from(), event.to()));
+    }
+}
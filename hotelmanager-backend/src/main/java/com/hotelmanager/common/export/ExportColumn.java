@@ -0,0 +1,6 @@
+package com.hotelmanager.common.export;
+
+import java.util.function.Function;
+
+/** Colonne CSV : en-tête + extraction de la valeur depuis une ligne. */
+public record ExportColumn<T>(String header, Function<T, Object> value) {}
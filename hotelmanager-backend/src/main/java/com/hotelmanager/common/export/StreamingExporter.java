@@ -0,0 +1,132 @@
+package com.hotelmanager.common.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Écrit un flux de lignes directement dans la réponse, sans jamais le matérialiser :
+ * la mémoire utilisée ne dépend pas du nombre de lignes.
+ *
+ * Les exports tournent sur leur propre pool borné, avec leur propre délai : l'exécuteur
+ * et le délai asynchrones par défaut de Spring MVC restent ceux des autres endpoints.
+ */
+@Component
+public class StreamingExporter {
+
+    public static final String UNTIL_ID_HEADER = "X-Export-Until-Id";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final long timeoutMillis;
+
+    /** Pool borné : un export en trop est rejeté plutôt que mis en attente sans fin. */
+    public StreamingExporter(ObjectMapper objectMapper,
+                             @Value("${hotel.export.threads:4}") int threads,
+                             @Value("${hotel.export.queue:16}") int queue,
+                             @Value("${hotel.export.timeout:PT30M}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeout.toMillis();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queue);
+        executor.setThreadNamePrefix("export-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Réponse "fichier joint" dont le corps est écrit plus tard, sur le pool d'export.
+     * L'en-tête {@value #UNTIL_ID_HEADER} fixe la borne haute : une reprise après coupure
+     * repasse afterId = dernier id reçu et untilId = cette borne.
+     */
+    public WebAsyncTask<Void> attachment(HttpServletResponse response, String baseName, ExportFormat format,
+                                         Long untilId, StreamingResponseBody body) {
+        response.setContentType(format.mediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(baseName + "." + format.extension()).build().toString());
+        response.setHeader(UNTIL_ID_HEADER, String.valueOf(untilId));
+        return new WebAsyncTask<>(timeoutMillis, executor, () -> {
+            OutputStream out = response.getOutputStream();
+            body.writeTo(out);
+            out.flush();
+            return null;
+        });
+    }
+
+    /**
+     * @return nombre de lignes écrites
+     */
+    public <T> long write(Stream<T> rows, ExportFormat format, List<ExportColumn<T>> columns, OutputStream out)
+            throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == ExportFormat.CSV) writeCsvLine(w, columns.stream().map(ExportColumn::header).toList());
+
+        long count = 0;
+        Iterator<T> it = rows.iterator();
+        while (it.hasNext()) {
+            T row = it.next();
+            if (format == ExportFormat.CSV) {
+                writeCsvLine(w, columns.stream().map(c -> c.value().apply(row)).toList());
+            } else {
+                w.write(objectMapper.writeValueAsString(row));
+                w.write('\n');
+            }
+            if (++count % FLUSH_EVERY_ROWS == 0) w.flush();
+        }
+        w.flush();
+        return count;
+    }
+
+    private static void writeCsvLine(Writer w, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) w.write(',');
+            Object v = values.get(i);
+            if (v instanceof String text) w.write(escapeCsv(neutralizeFormula(text)));
+            else if (v != null) w.write(escapeCsv(v.toString()));
+        }
+        w.write("\r\n");
+    }
+
+    /**
+     * Un texte saisi commençant par =, +, - ou @ serait interprété comme formule par un tableur ;
+     * une tabulation ou un retour chariot en tête aussi (certains tableurs les ignorent avant d'évaluer).
+     */
+    private static String neutralizeFormula(String s) {
+        if (s.isEmpty()) return s;
+        char c = s.charAt(0);
+        return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r' ? "'" + s : s;
+    }
+
+    private static String escapeCsv(String s) {
+        boolean quote = s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0;
+        if (!quote) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,27 @@
+package com.hotelmanager.common.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByScopeAndKeyAndCreatedAtAfter(String scope, String key, LocalDateTime cutoff);
+
+    @Modifying
+    @Query("""
+        delete from IdempotencyRecord r
+         where r.scope = :scope
+           and r.key = :key
+           and r.createdAt <= :cutoff
+    """)
+    int deleteExpired(@Param("scope") String scope, @Param("key") String key, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt <= :cutoff")
+    int deleteAllExpired(@Param("cutoff") LocalDateTime cutoff);
+}
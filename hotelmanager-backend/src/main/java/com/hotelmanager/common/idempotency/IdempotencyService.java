@@ -0,0 +1,209 @@
+package com.hotelmanager.common.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelmanager.common.exception.BusinessRuleException;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Exécution "au plus une fois" des POST portant un en-tête Idempotency-Key.
+ *
+ * - rejeu : la réponse stockée est renvoyée sans ré-exécuter l'action
+ * - mémoire bornée (LRU) devant la table idempotency_keys, qui couvre les redémarrages et les autres instances
+ * - la réponse est enregistrée dans la transaction de l'action : les deux sont validées ensemble
+ * - une même clé réutilisée avec un autre corps de requête est refusée
+ * - une réponse {@link ReplaySafe} est stockée sans ses secrets : un rejeu ne les rend jamais
+ */
+@Slf4j
+@Component
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 128;
+    private static final int PURGE_EVERY_WRITES = 1000;
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate tx;
+    private final Duration ttl;
+
+    private final Map<String, Stored> recent;
+    private final Map<String, CompletableFuture<Stored>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger writes = new AtomicInteger();
+
+    public IdempotencyService(
+            IdempotencyRecordRepository repository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${hotel.idempotency.ttl:24h}") Duration ttl,
+            @Value("${hotel.idempotency.max-entries:10000}") int maxEntries
+    ) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Stored> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Exécute {@code action} une seule fois par (scope, clé). Sans clé, l'action est simplement exécutée.
+     *
+     * @param scope   espace de la clé (endpoint, et utilisateur pour les routes authentifiées)
+     * @param request corps de la requête, comparé à celui de la première exécution
+     */
+    public <T> T execute(String scope, String key, Object request, Class<T> type, Supplier<T> action) {
+        if (key == null || key.isBlank()) return action.get();
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key trop longue (" + MAX_KEY_LENGTH + " caractères max).");
+        }
+
+        String id = scope + '\n' + key;
+        String requestHash = hash(serialize(request));
+
+        Stored stored = lookup(id, scope, key);
+        if (stored != null) return replay(stored, requestHash, type);
+
+        CompletableFuture<Stored> mine = new CompletableFuture<>();
+        CompletableFuture<Stored> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) return replay(await(running), requestHash, type);
+
+        try {
+            Stored[] result = new Stored[1];
+            T body;
+            try {
+                body = tx.execute(status -> {
+                    T value = action.get();
+                    String json = serialize(value instanceof ReplaySafe<?> safe ? safe.forReplay() : value);
+                    repository.deleteExpired(scope, key, cutoff());
+                    repository.saveAndFlush(IdempotencyRecord.builder()
+                            .scope(scope)
+                            .key(key)
+                            .requestHash(requestHash)
+                            .responseBody(json)
+                            .build());
+                    result[0] = new Stored(requestHash, json, expiresAt());
+                    return value;
+                });
+            } catch (RuntimeException e) {
+                // Une autre instance a pu traiter la même clé entre-temps : on rejoue sa réponse.
+                Stored winner = fromDatabase(scope, key);
+                if (winner == null) throw e;
+                recent.put(id, winner);
+                mine.complete(winner);
+                return replay(winner, requestHash, type);
+            }
+
+            recent.put(id, result[0]);
+            mine.complete(result[0]);
+            if (writes.incrementAndGet() % PURGE_EVERY_WRITES == 0) purgeExpired();
+            return body;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    private Stored lookup(String id, String scope, String key) {
+        Stored stored = recent.get(id);
+        if (stored != null && !stored.isExpired()) return stored;
+        if (stored != null) recent.remove(id);
+
+        stored = fromDatabase(scope, key);
+        if (stored != null) recent.put(id, stored);
+        return stored;
+    }
+
+    private Stored fromDatabase(String scope, String key) {
+        return repository.findByScopeAndKeyAndCreatedAtAfter(scope, key, cutoff())
+                .map(r -> new Stored(r.getRequestHash(), r.getResponseBody(), r.getCreatedAt().plus(ttl)))
+                .orElse(null);
+    }
+
+    private <T> T replay(Stored stored, String requestHash, Class<T> type) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new BusinessRuleException("Idempotency-Key déjà utilisée pour une autre requête.");
+        }
+        try {
+            return objectMapper.readValue(stored.body(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Réponse idempotente illisible", e);
+        }
+    }
+
+    private static Stored await(CompletableFuture<Stored> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    private void purgeExpired() {
+        try {
+            Integer deleted = tx.execute(status -> repository.deleteAllExpired(cutoff()));
+            log.debug("Clés d'idempotence expirées supprimées : {}", deleted);
+        } catch (RuntimeException e) {
+            log.warn("Purge des clés d'idempotence impossible : {}", e.getMessage());
+        }
+    }
+
+    private LocalDateTime cutoff() {
+        return LocalDateTime.now().minus(ttl);
+    }
+
+    private LocalDateTime expiresAt() {
+        return LocalDateTime.now().plus(ttl);
+    }
+
+    private String serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sérialisation impossible", e);
+        }
+    }
+
+    private static String hash(String json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Stored(String requestHash, String body, LocalDateTime expiresAt) {
+        boolean isExpired() {
+            return LocalDateTime.now().isAfter(expiresAt);
+        }
+    }
+}
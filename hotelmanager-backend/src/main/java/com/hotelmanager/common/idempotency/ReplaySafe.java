@@ -0,0 +1,14 @@
+package com.hotelmanager.common.idempotency;
+
+/**
+ * Réponse contenant un secret (mot de passe généré...) qui ne doit être rendu qu'une fois.
+ * {@link IdempotencyService} stocke et rejoue {@link #forReplay()} à la place de la réponse.
+ *
+ * Conséquence assumée : un client qui réessaie après avoir perdu la première réponse ne
+ * récupère jamais le secret ; la réponse rejouée doit le lui indiquer et proposer un recours.
+ */
+public interface ReplaySafe<T> {
+
+    /** La même réponse, sans ses secrets. */
+    T forReplay();
+}
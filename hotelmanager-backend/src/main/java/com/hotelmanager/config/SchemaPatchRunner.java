@@ -0,0 +1,204 @@
+package com.hotelmanager.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Applique, après la génération du schéma par Hibernate (ddl-auto), les objets SQL
+ * que les annotations JPA ne savent pas exprimer (contraintes d'exclusion, index partiels...).
+ *
+ * Chaque patch est appliqué une seule fois, dans sa propre transaction, sous un verrou
+ * consultatif PostgreSQL : plusieurs instances peuvent démarrer en même temps sans conflit.
+ *
+ * Un patch critique (intégrité des données) qui échoue arrête le démarrage : l'application
+ * ne tourne pas sans la contrainte dont dépend son code. Son contrôle préalable éventuel
+ * liste les lignes qui empêcheraient le patch (ex. réservations qui se chevauchent).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchemaPatchRunner implements ApplicationRunner {
+
+    private static final long ADVISORY_LOCK_KEY = 7_140_202_601L;
+    private static final int MAX_REPORTED_ROWS = 20;
+
+    private static final List<Patch> PATCHES = List.of(
+            Patch.critical("reservations_stay_exclusion", overlapsOf("'PENDING','CONFIRMED','CHECKED_IN'"), List.of(
+                    "CREATE EXTENSION IF NOT EXISTS btree_gist",
+                    """
+                    ALTER TABLE reservations
+                      ADD COLUMN IF NOT EXISTS stay tstzrange
+                      GENERATED ALWAYS AS (tstzrange(start_at, end_at, '[)')) STORED
+                    """,
+                    """
+                    ALTER TABLE reservations
+                      ADD CONSTRAINT ex_reservations_room_stay
+                      EXCLUDE USING gist (room_id WITH =, stay WITH &&)
+                      WHERE (status IN ('PENDING','CONFIRMED','CHECKED_IN'))
+                    """
+            )),
+            Patch.optional("reservations_guest_trgm", List.of(
+                    "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+                    "CREATE INDEX IF NOT EXISTS idx_reservations_guest_last_trgm ON reservations USING gin (lower(guest_last_name) gin_trgm_ops)",
+                    "CREATE INDEX IF NOT EXISTS idx_reservations_guest_first_trgm ON reservations USING gin (lower(guest_first_name) gin_trgm_ops)"
+            )),
+            // Les options (HOLD) bloquent la chambre comme une réservation ; la contrainte CHECK
+            // générée par Hibernate sur l'énumération n'est pas mise à jour par ddl-auto.
+            Patch.critical("reservations_hold_status", overlapsOf("'HOLD','PENDING','CONFIRMED','CHECKED_IN'"), List.of(
+                    "ALTER TABLE reservations DROP CONSTRAINT IF EXISTS reservations_status_check",
+                    "ALTER TABLE reservations DROP CONSTRAINT IF EXISTS ex_reservations_room_stay",
+                    """
+                    ALTER TABLE reservations
+                      ADD CONSTRAINT ex_reservations_room_stay
+                      EXCLUDE USING gist (room_id WITH =, stay WITH &&)
+                      WHERE (status IN ('HOLD','PENDING','CONFIRMED','CHECKED_IN'))
+                    """,
+                    "CREATE INDEX IF NOT EXISTS idx_reservations_hold_expiry ON reservations (hold_expires_at) WHERE status = 'HOLD'"
+            )),
+            // Attribution du suffixe d'email des comptes clients : email LIKE 'prefixe%@domaine'.
+            Patch.optional("users_email_prefix", List.of(
+                    "CREATE INDEX IF NOT EXISTS idx_users_email_prefix ON users (email varchar_pattern_ops)"
+            )),
+            // Réattribution des chambres : un échange entre deux séjours n'est valide qu'au commit.
+            Patch.critical("reservations_stay_exclusion_deferrable", overlapsOf("'HOLD','PENDING','CONFIRMED','CHECKED_IN'"), List.of(
+                    "ALTER TABLE reservations DROP CONSTRAINT IF EXISTS ex_reservations_room_stay",
+                    """
+                    ALTER TABLE reservations
+                      ADD CONSTRAINT ex_reservations_room_stay
+                      EXCLUDE USING gist (room_id WITH =, stay WITH &&)
+                      WHERE (status IN ('HOLD','PENDING','CONFIRMED','CHECKED_IN'))
+                      DEFERRABLE INITIALLY IMMEDIATE
+                    """
+            )),
+            // Pointage : au plus un pointage ouvert par employé, vérifié par l'index à l'insertion.
+            // Les doublons ouverts existants sont d'abord fermés (sauf le plus récent) et signalés
+            // au manager, sinon l'index ne peut pas être créé.
+            Patch.critical("attendance_open_unique", null, List.of(
+                    """
+                    UPDATE attendance a
+                       SET check_out_at = a.check_in_at, auto_closed_at = now(), needs_review = true
+                     WHERE a.check_out_at IS NULL
+                       AND EXISTS (SELECT 1 FROM attendance b
+                                    WHERE b.employee_id = a.employee_id
+                                      AND b.check_out_at IS NULL
+                                      AND (b.check_in_at, b.id) > (a.check_in_at, a.id))
+                    """,
+                    "CREATE UNIQUE INDEX IF NOT EXISTS uk_attendance_open_employee ON attendance (employee_id) WHERE check_out_at IS NULL"
+            )),
+            // Listes de pointages par hôtel : hotel_id recopié depuis users pour les lignes existantes.
+            Patch.critical("attendance_hotel_id_backfill", null, List.of(
+                    "UPDATE attendance a SET hotel_id = u.hotel_id FROM users u WHERE u.id = a.employee_id AND a.hotel_id IS NULL",
+                    "CREATE INDEX IF NOT EXISTS idx_users_hotel ON users (hotel_id)"
+            )),
+            // Réponses idempotentes enregistrées avant leur expurgation : plus de mot de passe en clair.
+            Patch.critical("idempotency_scrub_passwords", null, List.of(
+                    """
+                    UPDATE idempotency_keys
+                       SET response_body = jsonb_set(response_body::jsonb, '{generatedPassword}', 'null'::jsonb)::text
+                     WHERE response_body::jsonb ? 'generatedPassword'
+                    """
+            )),
+            // Verrou optimiste des chambres : colonne ajoutée nullable par ddl-auto sur une table non vide.
+            Patch.critical("rooms_version", null, List.of(
+                    "ALTER TABLE rooms ADD COLUMN IF NOT EXISTS version bigint",
+                    "UPDATE rooms SET version = 0 WHERE version IS NULL",
+                    "ALTER TABLE rooms ALTER COLUMN version SET DEFAULT 0",
+                    "ALTER TABLE rooms ALTER COLUMN version SET NOT NULL"
+            ))
+    );
+
+    private final JdbcTemplate jdbc;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!isPostgres()) {
+            log.info("Schema patches ignorés : base non PostgreSQL.");
+            return;
+        }
+
+        jdbc.execute("""
+            CREATE TABLE IF NOT EXISTS schema_patches (
+              id varchar(128) PRIMARY KEY,
+              applied_at timestamptz NOT NULL DEFAULT now()
+            )
+        """);
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        for (Patch patch : PATCHES) {
+            try {
+                tx.executeWithoutResult(status -> apply(patch));
+            } catch (RuntimeException e) {
+                if (patch.critical()) {
+                    throw new IllegalStateException("Échec du schema patch critique " + patch.id() + " : " + e.getMessage(), e);
+                }
+                log.error("Échec du schema patch {} : {}", patch.id(), e.getMessage());
+            }
+        }
+    }
+
+    private void apply(Patch patch) {
+        jdbc.execute("SELECT pg_advisory_xact_lock(" + ADVISORY_LOCK_KEY + ")");
+
+        Integer applied = jdbc.queryForObject(
+                "SELECT count(*) FROM schema_patches WHERE id = ?", Integer.class, patch.id());
+        if (applied != null && applied > 0) return;
+
+        if (patch.precheck() != null) {
+            List<String> blocking = jdbc.queryForList(patch.precheck() + " LIMIT " + MAX_REPORTED_ROWS, String.class);
+            if (!blocking.isEmpty()) {
+                throw new IllegalStateException("données incompatibles, à corriger avant redémarrage : "
+                        + String.join(" ; ", blocking));
+            }
+        }
+
+        for (String sql : patch.statements()) {
+            jdbc.execute(sql);
+        }
+        jdbc.update("INSERT INTO schema_patches (id) VALUES (?)", patch.id());
+        log.info("Schema patch appliqué : {}", patch.id());
+    }
+
+    private boolean isPostgres() {
+        String product = jdbc.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        return product != null && product.toLowerCase(Locale.ROOT).contains("postgres");
+    }
+
+    /**
+     * Paires de séjours actifs (statuts {@code statuses}) d'une même chambre qui se chevauchent :
+     * la contrainte d'exclusion ne peut pas être ajoutée tant qu'il en reste.
+     */
+    private static String overlapsOf(String statuses) {
+        return """
+            SELECT 'chambre ' || a.room_id || ' : réservations ' || a.id || ' et ' || b.id
+              FROM reservations a
+              JOIN reservations b ON b.room_id = a.room_id AND b.id > a.id
+               AND tstzrange(b.start_at, b.end_at, '[)') && tstzrange(a.start_at, a.end_at, '[)')
+             WHERE a.status IN (%1$s) AND b.status IN (%1$s)
+             ORDER BY a.room_id, a.id, b.id
+            """.formatted(statuses);
+    }
+
+    /**
+     * @param precheck requête listant les lignes qui font échouer le patch, null si aucune
+     */
+    private record Patch(String id, boolean critical, String precheck, List<String> statements) {
+        static Patch critical(String id, String precheck, List<String> statements) {
+            return new Patch(id, true, precheck, statements);
+        }
+
+        static Patch optional(String id, List<String> statements) {
+            return new Patch(id, false, null, statements);
+        }
+    }
+}
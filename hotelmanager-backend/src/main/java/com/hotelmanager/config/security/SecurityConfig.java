@@ -1,5 +1,7 @@
 package com.hotelmanager.config.security;
 
+import com.hotelmanager.common.export.StreamingExporter;
+
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -99,6 +101,7 @@ public class SecurityConfig {
                     .allowedOrigins("http://localhost:3000")
                     .allowedMethods("*")
                     .allowedHeaders("*")
+                    .exposedHeaders("ETag", "X-Truncated", StreamingExporter.UNTIL_ID_HEADER)
                     .allowCredentials(true);
             }
         };
@@ -81,6 +81,7 @@ public class HotelController {
                 h.getLogoUrl(),
                 h.getLatitude(),
                 h.getLongitude(),
+                h.getCheckInRadiusMeters(),
                 h.getFloors(),
                 h.getRoomsPerFloor(),
                 new ArrayList<>(h.getFloorLabels()),
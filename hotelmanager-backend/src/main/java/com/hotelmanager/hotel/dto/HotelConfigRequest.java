@@ -11,6 +11,7 @@ public record HotelConfigRequest(
     String logoUrl,
     Double latitude,
     Double longitude,
+    @Min(0) Integer checkInRadiusMeters,
 
     @Min(0) Integer floors,
     @Min(0) Integer roomsPerFloor,
@@ -13,6 +13,7 @@ public record HotelConfigResponse(
     String logoUrl,
     Double latitude,
     Double longitude,
+    Integer checkInRadiusMeters,
 
     Integer floors,
     Integer roomsPerFloor,
@@ -33,6 +33,9 @@ public class Hotel {
     private Double latitude;   
     private Double longitude;  
 
+    /** Rayon (mètres) autour de latitude/longitude accepté au pointage ; null = valeur par défaut, 0 = aucun contrôle. */
+    private Integer checkInRadiusMeters;
+
 
     private Integer floors;          
     private Integer roomsPerFloor;
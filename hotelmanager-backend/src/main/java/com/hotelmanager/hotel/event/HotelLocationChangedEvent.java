@@ -0,0 +1,7 @@
+package com.hotelmanager.hotel.event;
+
+/**
+ * Les coordonnées ou le rayon de pointage d'un hôtel ont changé : les copies en mémoire
+ * (géorepérage du pointage) doivent être relues.
+ */
+public record HotelLocationChangedEvent(Long hotelId) {}
@@ -12,7 +12,7 @@ public class HotelManualMapper {
     public HotelConfigResponse toResponse(Hotel h) {
         return new HotelConfigResponse(
                 h.getId(), h.getName(), h.getCode(), h.getAddress(), h.getPhone(), h.getEmail(), h.getLogoUrl(),
-                h.getLatitude(), h.getLongitude(), h.getFloors(), h.getRoomsPerFloor(),
+                h.getLatitude(), h.getLongitude(), h.getCheckInRadiusMeters(), h.getFloors(), h.getRoomsPerFloor(),
                 new ArrayList<>(h.getFloorLabels()), new ArrayList<>(h.getRoomTypes()),
                 new HotelConfigResponse.ServicesDTO(
                         h.getServices() != null ? h.getServices().getHasRestaurant() : null,
@@ -45,6 +45,8 @@ public class HotelManualMapper {
             h.setLatitude(req.latitude());
         if (req.longitude() != null)
             h.setLongitude(req.longitude());
+        if (req.checkInRadiusMeters() != null)
+            h.setCheckInRadiusMeters(req.checkInRadiusMeters());
 
         if (req.floors() != null)
             h.setFloors(req.floors());
@@ -4,12 +4,15 @@ import com.hotelmanager.hotel.dto.HotelConfigRequest;
 import com.hotelmanager.hotel.entity.Hotel;
 import com.hotelmanager.hotel.entity.Hotel.Season;
 import com.hotelmanager.hotel.entity.Hotel.Services;
+import com.hotelmanager.hotel.event.HotelLocationChangedEvent;
 import com.hotelmanager.hotel.repository.HotelRepository;
+import com.hotelmanager.rate.event.RatesChangedEvent;
 import com.hotelmanager.room.service.RoomService;
 import com.hotelmanager.user.entity.User;
 import com.hotelmanager.user.repository.UserRepository;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -24,6 +27,7 @@ public class HotelService {
     private final HotelRepository hotelRepository;
     private final UserRepository userRepository;
     private final RoomService roomService;
+    private final ApplicationEventPublisher events;
 
     public Hotel getHotelOf(User principal) {
         var freshUser = userRepository.findById(principal.getId())
@@ -50,6 +54,7 @@ public class HotelService {
 
         Integer oldFloors = h.getFloors();
         Integer oldRoomsPerFloor = h.getRoomsPerFloor();
+        List<Object> oldLocation = locationKey(h);
         List<String> oldFloorLabels = new ArrayList<>(safeList(h.getFloorLabels()));
         List<String> oldRoomTypes   = new ArrayList<>(safeList(h.getRoomTypes()));
 
@@ -60,6 +65,7 @@ public class HotelService {
         h.setLogoUrl(req.logoUrl());
         h.setLatitude(req.latitude());
         h.setLongitude(req.longitude());
+        h.setCheckInRadiusMeters(req.checkInRadiusMeters());
 
         h.setFloors(req.floors());
         h.setRoomsPerFloor(req.roomsPerFloor());
@@ -87,6 +93,7 @@ public class HotelService {
         h.getClosedDays().clear();
         if (req.closedDays() != null) h.getClosedDays().addAll(req.closedDays());
 
+        String oldSeason = seasonKey(h.getHighSeason());
         if (req.highSeason() != null) {
             Hotel.Season season = h.getHighSeason() == null ? new Hotel.Season() : h.getHighSeason();
             season.setFromDate(req.highSeason().from());
@@ -106,6 +113,12 @@ public class HotelService {
         h.setActive(req.active() != null ? req.active() : Boolean.TRUE);
 
         Hotel saved = hotelRepository.save(h);
+        if (!Objects.equals(oldSeason, seasonKey(saved.getHighSeason()))) {
+            events.publishEvent(new RatesChangedEvent(saved.getId()));
+        }
+        if (!Objects.equals(oldLocation, locationKey(saved))) {
+            events.publishEvent(new HotelLocationChangedEvent(saved.getId()));
+        }
 
         boolean structureChanged = structureChanged(
                 oldFloors, oldRoomsPerFloor, oldFloorLabels, oldRoomTypes, req
@@ -127,6 +140,14 @@ public class HotelService {
         return hotelRepository.save(hotel);
     }
 
+    private static String seasonKey(Hotel.Season s) {
+        return s == null ? null : s.getFromDate() + "/" + s.getToDate();
+    }
+
+    private static List<Object> locationKey(Hotel h) {
+        return Arrays.asList(h.getLatitude(), h.getLongitude(), h.getCheckInRadiusMeters());
+    }
+
     private static List<String> safeList(List<String> l) {
         return l == null ? List.of() : l;
     }
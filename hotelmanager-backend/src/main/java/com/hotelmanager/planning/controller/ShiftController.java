@@ -1,12 +1,18 @@
 package com.hotelmanager.planning.controller;
 
+import com.hotelmanager.planning.dto.ShiftCheckRequest;
+import com.hotelmanager.planning.dto.ShiftConflict;
 import com.hotelmanager.planning.dto.ShiftDto;
 import com.hotelmanager.planning.entity.Shift;
+import com.hotelmanager.planning.service.ShiftConflictException;
 import com.hotelmanager.planning.service.ShiftService;
 import com.hotelmanager.user.entity.User;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -29,6 +35,14 @@ public class ShiftController {
         return ShiftDto.from(created);
     }
 
+    /** Dry check of new or moved shifts, called by the planning UI on every drop. */
+    @PostMapping("/conflicts")
+    @PreAuthorize("hasRole('MANAGER')")
+    public List<ShiftConflict> checkShifts(@RequestBody @Size(max = 1000) List<@Valid ShiftCheckRequest> shifts,
+                                           @AuthenticationPrincipal User currentUser) {
+        return shiftService.checkShifts(currentUser.getHotel().getId(), shifts);
+    }
+
     @GetMapping("/hotel")
     @PreAuthorize("hasRole('MANAGER')")
     public List<ShiftDto> getShiftsForHotel(
@@ -56,4 +70,12 @@ public class ShiftController {
     public void deleteShift(@PathVariable Long id) {
         shiftService.deleteShift(id);
     }
+
+    @ExceptionHandler(ShiftConflictException.class)
+    public ProblemDetail handleConflicts(ShiftConflictException ex) {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+        pd.setTitle("Conflit de planning");
+        pd.setProperty("conflicts", ex.getConflicts());
+        return pd;
+    }
 }
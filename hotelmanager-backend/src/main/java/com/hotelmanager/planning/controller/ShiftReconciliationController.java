@@ -0,0 +1,50 @@
+package com.hotelmanager.planning.controller;
+
+import com.hotelmanager.planning.dto.ReconciliationReport;
+import com.hotelmanager.planning.dto.ShiftReconciliationRow;
+import com.hotelmanager.planning.entity.ShiftReconciliation.Outcome;
+import com.hotelmanager.planning.service.ShiftReconciliationService;
+import com.hotelmanager.user.entity.User;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/planning/reconciliation")
+@RequiredArgsConstructor
+public class ShiftReconciliationController {
+
+    private final ShiftReconciliationService reconciliationService;
+
+    /**
+     * Reconciled shifts of the manager's hotel, optionally filtered by outcome (LATE, NO_SHOW...).
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('MANAGER')")
+    public List<ShiftReconciliationRow> results(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestParam(required = false) Outcome outcome,
+            @AuthenticationPrincipal User currentUser
+    ) {
+        return reconciliationService.results(currentUser.getHotel().getId(), start, end, outcome);
+    }
+
+    /**
+     * Reconciles again every finished day from the given date, e.g. after fixing past shifts.
+     */
+    @PostMapping("/run")
+    @PreAuthorize("hasRole('MANAGER')")
+    public ReconciliationReport run(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @AuthenticationPrincipal User currentUser
+    ) {
+        return reconciliationService.reconcileFrom(currentUser.getHotel().getId(), from);
+    }
+}
@@ -0,0 +1,61 @@
+package com.hotelmanager.planning.controller;
+
+import com.hotelmanager.planning.dto.ShiftGenerationReport;
+import com.hotelmanager.planning.dto.ShiftTemplateRequest;
+import com.hotelmanager.planning.dto.ShiftTemplateResponse;
+import com.hotelmanager.planning.service.ShiftTemplateService;
+import com.hotelmanager.user.entity.User;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/planning/templates")
+@RequiredArgsConstructor
+public class ShiftTemplateController {
+
+    private final ShiftTemplateService templateService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    @PreAuthorize("hasRole('MANAGER')")
+    public ShiftTemplateResponse create(@Valid @RequestBody ShiftTemplateRequest request,
+                                        @AuthenticationPrincipal User currentUser) {
+        return ShiftTemplateResponse.from(templateService.create(currentUser, request));
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('MANAGER')")
+    public List<ShiftTemplateResponse> list(@AuthenticationPrincipal User currentUser) {
+        return templateService.list(currentUser).stream().map(ShiftTemplateResponse::from).toList();
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PreAuthorize("hasRole('MANAGER')")
+    public void delete(@PathVariable Long id, @AuthenticationPrincipal User currentUser) {
+        templateService.delete(currentUser, id);
+    }
+
+    /**
+     * Expands the template over [from, to]. With dryRun=true (default) nothing is written:
+     * the response previews the shifts to create and the ones skipped because of a conflict.
+     */
+    @PostMapping("/{id}/generate")
+    @PreAuthorize("hasRole('MANAGER')")
+    public ShiftGenerationReport generate(@PathVariable Long id,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                          @RequestParam(defaultValue = "true") boolean dryRun,
+                                          @AuthenticationPrincipal User currentUser) {
+        return templateService.generate(currentUser, id, from, to, dryRun);
+    }
+}
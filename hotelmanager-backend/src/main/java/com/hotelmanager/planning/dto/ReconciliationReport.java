@@ -0,0 +1,15 @@
+package com.hotelmanager.planning.dto;
+
+import java.time.LocalDate;
+
+/** One batch run for one hotel; from/to are null when there was nothing to reconcile. */
+public record ReconciliationReport(
+        Long hotelId,
+        LocalDate from,
+        LocalDate to,
+        int shifts,
+        int late,
+        int earlyDepartures,
+        int noShows,
+        long elapsedMillis
+) {}
@@ -0,0 +1,22 @@
+package com.hotelmanager.planning.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A shift to check before saving it. shiftId is set when an existing shift is moved:
+ * its current position is then ignored.
+ */
+public record ShiftCheckRequest(
+        Long shiftId,
+        @NotNull Long employeeId,
+        @NotNull LocalDate date,
+        @NotNull LocalTime startTime,
+        @NotNull LocalTime endTime
+) {
+    public ShiftInterval toInterval() {
+        return new ShiftInterval(shiftId, employeeId, date, startTime, endTime);
+    }
+}
@@ -0,0 +1,30 @@
+package com.hotelmanager.planning.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A rule broken by a shift (checked, created or generated).
+ * conflictingShiftId is null when the other shift is not saved yet (same batch).
+ */
+public record ShiftConflict(
+        Type type,
+        Long employeeId,
+        LocalDate date,
+        LocalTime startTime,
+        LocalTime endTime,
+        Long conflictingShiftId,
+        LocalDateTime conflictingStart,
+        LocalDateTime conflictingEnd,
+        String message
+) {
+    public enum Type {
+        /** Overlaps another shift of the same employee. */
+        OVERLAP,
+        /** Less than the minimum rest since the previous working day, or before the next one. */
+        REST,
+        /** Longer than the maximum shift duration. */
+        DURATION
+    }
+}
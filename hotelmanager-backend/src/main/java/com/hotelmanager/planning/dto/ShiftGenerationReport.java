@@ -0,0 +1,25 @@
+package com.hotelmanager.planning.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Outcome of expanding a template over [from, to]. With dryRun nothing is written:
+ * shifts lists what would be created and skipped what would be rejected.
+ */
+public record ShiftGenerationReport(
+        Long templateId,
+        LocalDate from,
+        LocalDate to,
+        boolean dryRun,
+        int created,
+        List<Draft> shifts,
+        List<Skipped> skipped
+) {
+    public record Draft(Long employeeId, LocalDate date, LocalTime startTime, LocalTime endTime, String service) {}
+
+    /** conflictingShiftId is null when the clash is with another generated shift. */
+    public record Skipped(Long employeeId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                          String reason, Long conflictingShiftId) {}
+}
@@ -0,0 +1,26 @@
+package com.hotelmanager.planning.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Lightweight view of a shift (existing or about to be created, shiftId null) as a time interval.
+ */
+public record ShiftInterval(
+        Long shiftId,
+        Long employeeId,
+        LocalDate date,
+        LocalTime startTime,
+        LocalTime endTime
+) {
+    public LocalDateTime start() {
+        return date.atTime(startTime);
+    }
+
+    /** A shift ending at or before its start time ends the next day. */
+    public LocalDateTime end() {
+        LocalDateTime end = date.atTime(endTime);
+        return end.isAfter(start()) ? end : end.plusDays(1);
+    }
+}
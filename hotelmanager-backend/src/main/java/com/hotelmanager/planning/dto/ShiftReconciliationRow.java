@@ -0,0 +1,21 @@
+package com.hotelmanager.planning.dto;
+
+import com.hotelmanager.planning.entity.ShiftReconciliation.Outcome;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public record ShiftReconciliationRow(
+        Long shiftId,
+        Long employeeId,
+        String firstName,
+        String lastName,
+        LocalDate date,
+        LocalTime startTime,
+        LocalTime endTime,
+        Outcome outcome,
+        int lateMinutes,
+        int earlyMinutes,
+        int workedMinutes,
+        Long attendanceId
+) {}
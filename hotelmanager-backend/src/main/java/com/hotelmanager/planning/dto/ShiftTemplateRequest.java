@@ -0,0 +1,26 @@
+package com.hotelmanager.planning.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public record ShiftTemplateRequest(
+        @NotBlank @Size(max = 120) String name,
+        Long employeeId,
+        Long crewId,
+        @Min(1) @Max(12) int rotationWeeks,
+        @NotNull LocalDate anchorDate,
+        @NotEmpty @Size(max = 200) List<@Valid Slot> slots
+) {
+    public record Slot(
+            @Min(0) int week,
+            @NotNull DayOfWeek dayOfWeek,
+            @NotNull LocalTime startTime,
+            @NotNull LocalTime endTime,
+            @Size(max = 255) String service
+    ) {}
+}
@@ -0,0 +1,30 @@
+package com.hotelmanager.planning.dto;
+
+import com.hotelmanager.planning.entity.ShiftTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record ShiftTemplateResponse(
+        Long id,
+        String name,
+        Long employeeId,
+        Long crewId,
+        int rotationWeeks,
+        LocalDate anchorDate,
+        List<ShiftTemplateRequest.Slot> slots
+) {
+    public static ShiftTemplateResponse from(ShiftTemplate t) {
+        return new ShiftTemplateResponse(
+                t.getId(),
+                t.getName(),
+                t.getEmployeeId(),
+                t.getCrewId(),
+                t.getRotationWeeks(),
+                t.getAnchorDate(),
+                t.getSlots().stream()
+                        .map(s -> new ShiftTemplateRequest.Slot(
+                                s.getWeek(), s.getDayOfWeek(), s.getStartTime(), s.getEndTime(), s.getService()))
+                        .toList());
+    }
+}
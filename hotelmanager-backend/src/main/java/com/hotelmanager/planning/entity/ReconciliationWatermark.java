@@ -0,0 +1,23 @@
+package com.hotelmanager.planning.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Last day reconciled for a hotel. Moved back when an attendance of an already
+ * reconciled day changes, so the next batch run redoes that day.
+ */
+@Entity
+@Table(name = "shift_reconciliation_watermarks")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class ReconciliationWatermark {
+
+    @Id
+    @Column(name = "hotel_id")
+    private Long hotelId;
+
+    @Column(name = "reconciled_through", nullable = false)
+    private LocalDate reconciledThrough;
+}
@@ -9,7 +9,9 @@ import java.time.LocalTime;
 import com.hotelmanager.user.entity.User;
 
 @Entity
-@Table(name = "shifts")
+@Table(name = "shifts", indexes = {
+        @Index(name = "idx_shifts_employee_date", columnList = "employee_id, date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
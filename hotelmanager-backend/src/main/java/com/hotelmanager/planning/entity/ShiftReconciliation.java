@@ -0,0 +1,57 @@
+package com.hotelmanager.planning.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Result of matching one shift against the employee's attendances.
+ * Rows are rewritten day by day by the reconciliation batch, never edited by hand.
+ */
+@Entity
+@Table(name = "shift_reconciliations",
+       indexes = @Index(name = "idx_shift_reconciliations_hotel_date", columnList = "hotel_id, date"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class ShiftReconciliation {
+
+    public enum Outcome { ON_TIME, LATE, EARLY_DEPARTURE, LATE_AND_EARLY, OPEN, NO_SHOW }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "shift_id", nullable = false, unique = true)
+    private Long shiftId;
+
+    @Column(name = "hotel_id", nullable = false)
+    private Long hotelId;
+
+    @Column(name = "employee_id", nullable = false)
+    private Long employeeId;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    /** Matched attendance, null for a no-show. */
+    @Column(name = "attendance_id")
+    private Long attendanceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Outcome outcome;
+
+    @Column(name = "late_minutes", nullable = false)
+    private int lateMinutes;
+
+    @Column(name = "early_minutes", nullable = false)
+    private int earlyMinutes;
+
+    /** Minutes worked inside the shift. */
+    @Column(name = "worked_minutes", nullable = false)
+    private int workedMinutes;
+
+    @Column(name = "reconciled_at", nullable = false)
+    private LocalDateTime reconciledAt;
+}
@@ -0,0 +1,81 @@
+package com.hotelmanager.planning.entity;
+
+import com.hotelmanager.hotel.entity.Hotel;
+import com.hotelmanager.user.entity.User;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Weekly rotation of shifts for one employee or for every member of a crew.
+ *
+ * A rotation lasts rotationWeeks weeks; week 0 is the week (Monday) containing anchorDate.
+ * Each slot gives the week of the rotation, the day and the hours of one shift.
+ */
+@Entity
+@Table(name = "shift_templates")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShiftTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "hotel_id")
+    private Hotel hotel;
+
+    @Column(nullable = false, length = 120)
+    private String name;
+
+    /** Exactly one of employeeId / crewId is set. */
+    @Column(name = "employee_id")
+    private Long employeeId;
+
+    @Column(name = "crew_id")
+    private Long crewId;
+
+    @Column(nullable = false)
+    private int rotationWeeks;
+
+    @Column(nullable = false)
+    private LocalDate anchorDate;
+
+    @Builder.Default
+    @ElementCollection
+    @CollectionTable(name = "shift_template_slots", joinColumns = @JoinColumn(name = "template_id"))
+    private List<Slot> slots = new ArrayList<>();
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    private User createdBy;
+
+    @Embeddable
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Slot {
+        private int week;
+
+        @Enumerated(EnumType.STRING)
+        @Column(length = 10)
+        private DayOfWeek dayOfWeek;
+
+        private LocalTime startTime;
+
+        /** At or before startTime: the shift ends the next day. */
+        private LocalTime endTime;
+
+        private String service;
+    }
+}
@@ -0,0 +1,9 @@
+package com.hotelmanager.planning.event;
+
+import java.time.LocalDate;
+
+/**
+ * Shifts of a hotel were created or deleted, the earliest on the given day.
+ * Reconciliation results from that day on are recomputed.
+ */
+public record ShiftsChangedEvent(Long hotelId, LocalDate from) {}
@@ -0,0 +1,54 @@
+package com.hotelmanager.planning.repository;
+
+import com.hotelmanager.planning.dto.ShiftGenerationReport.Draft;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bulk insert of generated shifts through JDBC batches: ids come from the table's
+ * identity default, with no per-row round trip through the persistence context.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ShiftBatchWriter {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int LOCK_CLASS = 7144;
+
+    private final JdbcTemplate jdbc;
+
+    /**
+     * Serializes shift writers per employee until the end of the transaction: take it before
+     * loading the schedule that the new shifts are checked against. Ids are locked in order,
+     * so two writers sharing employees cannot deadlock.
+     */
+    public void lockEmployees(Collection<Long> employeeIds) {
+        employeeIds.stream().distinct().sorted().forEach(id ->
+                jdbc.execute("SELECT pg_advisory_xact_lock(" + LOCK_CLASS + ", " + id.intValue() + ")"));
+    }
+
+    public int insert(List<Draft> drafts, Long createdById) {
+        if (drafts.isEmpty()) return 0;
+        jdbc.batchUpdate("""
+            INSERT INTO shifts (employee_id, date, start_time, end_time, service, created_by_id)
+            VALUES (?,?,?,?,?,?)
+            """, drafts, BATCH_SIZE, (ps, d) -> {
+            ps.setLong(1, d.employeeId());
+            ps.setDate(2, Date.valueOf(d.date()));
+            ps.setTime(3, Time.valueOf(d.startTime()));
+            ps.setTime(4, Time.valueOf(d.endTime()));
+            if (d.service() == null) ps.setNull(5, Types.VARCHAR);
+            else ps.setString(5, d.service());
+            ps.setLong(6, createdById);
+        });
+        return drafts.size();
+    }
+}
@@ -0,0 +1,186 @@
+package com.hotelmanager.planning.repository;
+
+import com.hotelmanager.planning.dto.ShiftReconciliationRow;
+import com.hotelmanager.planning.entity.ShiftReconciliation.Outcome;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC access for the reconciliation batch: bulk reads of a hotel's shifts and
+ * attendances, and batched rewrites of shift_reconciliations.
+ *
+ * Every method runs in the caller's transaction; a hotel is reconciled under a
+ * transaction-level advisory lock so that only one instance works on it at a time.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ShiftReconciliationStore {
+
+    private static final int LOCK_CLASS = 7143;
+
+    private static final String RESULTS_SELECT = """
+        SELECT r.shift_id, r.employee_id, u.first_name, u.last_name, r.date, s.start_time, s.end_time,
+               r.outcome, r.late_minutes, r.early_minutes, r.worked_minutes, r.attendance_id
+          FROM shift_reconciliations r
+          JOIN users u ON u.id = r.employee_id
+          JOIN shifts s ON s.id = r.shift_id
+         WHERE r.hotel_id = ?
+           AND r.date BETWEEN ? AND ?
+        """;
+
+    private static final String RESULTS_ORDER = " ORDER BY r.date, s.start_time, u.last_name, u.first_name";
+
+    private final JdbcTemplate jdbc;
+
+    public record ShiftRow(Long id, Long employeeId, LocalDate date, LocalTime startTime, LocalTime endTime) {}
+
+    public record AttendanceRow(Long id, Long employeeId, LocalDateTime checkInAt, LocalDateTime checkOutAt, String status) {}
+
+    public record ResultRow(Long shiftId, Long employeeId, LocalDate date, Long attendanceId, Outcome outcome,
+                            int lateMinutes, int earlyMinutes, int workedMinutes) {}
+
+    public boolean tryLock(Long hotelId) {
+        return Boolean.TRUE.equals(jdbc.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(" + LOCK_CLASS + ", " + hotelId.intValue() + ")", Boolean.class));
+    }
+
+    /** Row-locked: a concurrent {@link #rewind} waits for the batch instead of being overwritten by it. */
+    public Optional<LocalDate> watermark(Long hotelId) {
+        return jdbc.query("SELECT reconciled_through FROM shift_reconciliation_watermarks WHERE hotel_id = ? FOR UPDATE",
+                        (rs, i) -> rs.getDate(1).toLocalDate(), hotelId)
+                .stream().findFirst();
+    }
+
+    public void setWatermark(Long hotelId, LocalDate through) {
+        jdbc.update("""
+            INSERT INTO shift_reconciliation_watermarks (hotel_id, reconciled_through) VALUES (?, ?)
+            ON CONFLICT (hotel_id) DO UPDATE SET reconciled_through = EXCLUDED.reconciled_through
+            """, hotelId, Date.valueOf(through));
+    }
+
+    /** Makes day (and every later day) due again; no-op when it was not reconciled yet. */
+    public void rewind(Long hotelId, LocalDate day) {
+        jdbc.update("""
+            UPDATE shift_reconciliation_watermarks SET reconciled_through = ?
+             WHERE hotel_id = ? AND reconciled_through >= ?
+            """, Date.valueOf(day.minusDays(1)), hotelId, Date.valueOf(day));
+    }
+
+    public List<ShiftRow> findShifts(Long hotelId, LocalDate from, LocalDate to) {
+        return jdbc.query("""
+            SELECT s.id, s.employee_id, s.date, s.start_time, s.end_time
+              FROM shifts s
+              JOIN users u ON u.id = s.employee_id
+             WHERE u.hotel_id = ?
+               AND s.date BETWEEN ? AND ?
+               AND s.start_time IS NOT NULL AND s.end_time IS NOT NULL
+            """,
+            (rs, i) -> new ShiftRow(rs.getLong(1), rs.getLong(2), rs.getDate(3).toLocalDate(),
+                    rs.getTime(4).toLocalTime(), rs.getTime(5).toLocalTime()),
+            hotelId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    public List<AttendanceRow> findAttendances(Long hotelId, LocalDate from, LocalDate to) {
+        return jdbc.query("""
+            SELECT a.id, a.employee_id, a.check_in_at, a.check_out_at, a.status
+              FROM attendance a
+             WHERE a.hotel_id = ?
+               AND a.date BETWEEN ? AND ?
+            """,
+            (rs, i) -> {
+                Timestamp out = rs.getTimestamp(4);
+                return new AttendanceRow(rs.getLong(1), rs.getLong(2), rs.getTimestamp(3).toLocalDateTime(),
+                        out == null ? null : out.toLocalDateTime(), rs.getString(5));
+            },
+            hotelId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /** Replaces the results of [from, to] (shifts deleted since the last run disappear too). */
+    public void replaceRange(Long hotelId, LocalDate from, LocalDate to, List<ResultRow> rows) {
+        jdbc.update("DELETE FROM shift_reconciliations WHERE hotel_id = ? AND date BETWEEN ? AND ?",
+                hotelId, Date.valueOf(from), Date.valueOf(to));
+        if (rows.isEmpty()) return;
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (ResultRow r : rows) {
+            args.add(new Object[]{r.shiftId(), hotelId, r.employeeId(), Date.valueOf(r.date()), r.attendanceId(),
+                    r.outcome().name(), r.lateMinutes(), r.earlyMinutes(), r.workedMinutes(), now});
+        }
+        jdbc.batchUpdate("""
+            INSERT INTO shift_reconciliations
+              (shift_id, hotel_id, employee_id, date, attendance_id, outcome,
+               late_minutes, early_minutes, worked_minutes, reconciled_at)
+            VALUES (?,?,?,?,?,?,?,?,?,?)
+            ON CONFLICT (shift_id) DO UPDATE SET
+              hotel_id       = EXCLUDED.hotel_id,
+              employee_id    = EXCLUDED.employee_id,
+              date           = EXCLUDED.date,
+              attendance_id  = EXCLUDED.attendance_id,
+              outcome        = EXCLUDED.outcome,
+              late_minutes   = EXCLUDED.late_minutes,
+              early_minutes  = EXCLUDED.early_minutes,
+              worked_minutes = EXCLUDED.worked_minutes,
+              reconciled_at  = EXCLUDED.reconciled_at
+            """, args);
+    }
+
+    /** PRESENT -> RETARD, flagged as set by reconciliation; attendances set by hand to another status are left alone. */
+    public void markLate(Collection<Long> attendanceIds) {
+        if (attendanceIds.isEmpty()) return;
+        jdbc.batchUpdate("UPDATE attendance SET status = 'RETARD', late_flagged = TRUE WHERE id = ? AND status = 'PRESENT'",
+                attendanceIds.stream().map(id -> new Object[]{id}).toList());
+    }
+
+    /**
+     * Reverts to PRESENT the attendances of [from, to] that reconciliation flagged late and that no
+     * stored result (this run's or an earlier one's) reports late anymore. Call after {@link #replaceRange}.
+     *
+     * @return number of attendances restored
+     */
+    public int restoreNoLongerLate(Long hotelId, LocalDate from, LocalDate to) {
+        return jdbc.update("""
+            UPDATE attendance a SET status = 'PRESENT', late_flagged = FALSE
+             WHERE a.hotel_id = ?
+               AND a.date BETWEEN ? AND ?
+               AND a.late_flagged
+               AND a.status = 'RETARD'
+               AND NOT EXISTS (SELECT 1 FROM shift_reconciliations r
+                                WHERE r.attendance_id = a.id AND r.late_minutes > 0)
+            """, hotelId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /** One statement per shape (with or without outcome filter), so each gets its own plan. */
+    public List<ShiftReconciliationRow> findRange(Long hotelId, LocalDate from, LocalDate to, Outcome outcome) {
+        if (outcome == null) {
+            return jdbc.query(RESULTS_SELECT + RESULTS_ORDER, this::resultRow,
+                    hotelId, Date.valueOf(from), Date.valueOf(to));
+        }
+        return jdbc.query(RESULTS_SELECT + "   AND r.outcome = ?" + RESULTS_ORDER, this::resultRow,
+                hotelId, Date.valueOf(from), Date.valueOf(to), outcome.name());
+    }
+
+    private ShiftReconciliationRow resultRow(ResultSet rs, int rowNum) throws SQLException {
+        Time start = rs.getTime(6);
+        Time end = rs.getTime(7);
+        return new ShiftReconciliationRow(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4),
+                rs.getDate(5).toLocalDate(), start == null ? null : start.toLocalTime(),
+                end == null ? null : end.toLocalTime(), Outcome.valueOf(rs.getString(8)),
+                rs.getInt(9), rs.getInt(10), rs.getInt(11), rs.getObject(12, Long.class));
+    }
+}
@@ -1,10 +1,14 @@
 package com.hotelmanager.planning.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.hotelmanager.planning.dto.ShiftInterval;
 import com.hotelmanager.planning.entity.Shift;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface ShiftRepository extends JpaRepository<Shift, Long> {
@@ -14,4 +18,17 @@ public interface ShiftRepository extends JpaRepository<Shift, Long> {
             Long employeeId, LocalDate start, LocalDate end
     );
 
+    @Query("""
+        select new com.hotelmanager.planning.dto.ShiftInterval(s.id, s.employee.id, s.date, s.startTime, s.endTime)
+          from Shift s
+         where s.employee.hotel.id = :hotelId
+           and s.employee.id in :employeeIds
+           and s.date between :start and :end
+           and s.startTime is not null and s.endTime is not null
+    """)
+    List<ShiftInterval> findIntervals(@Param("hotelId") Long hotelId,
+                                      @Param("employeeIds") Collection<Long> employeeIds,
+                                      @Param("start") LocalDate start,
+                                      @Param("end") LocalDate end);
+
 }
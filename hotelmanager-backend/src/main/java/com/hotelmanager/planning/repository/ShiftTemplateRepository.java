@@ -0,0 +1,13 @@
+package com.hotelmanager.planning.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.hotelmanager.planning.entity.ShiftTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ShiftTemplateRepository extends JpaRepository<ShiftTemplate, Long> {
+    List<ShiftTemplate> findByHotelIdOrderByNameAsc(Long hotelId);
+    Optional<ShiftTemplate> findByIdAndHotelId(Long id, Long hotelId);
+}
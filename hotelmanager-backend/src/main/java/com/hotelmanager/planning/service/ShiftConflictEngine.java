@@ -0,0 +1,164 @@
+package com.hotelmanager.planning.service;
+
+import com.hotelmanager.planning.dto.ShiftConflict;
+import com.hotelmanager.planning.dto.ShiftConflict.Type;
+import com.hotelmanager.planning.dto.ShiftInterval;
+import com.hotelmanager.planning.repository.ShiftRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Overlap and rest-time checks for shifts.
+ *
+ * {@link #load} reads, in one query, the shifts of the given employees around a window and
+ * indexes them per employee by start. Shifts placed through a {@link Schedule} never overlap,
+ * so only the previous and next shift by start can clash with a candidate: each check costs
+ * O(log n) and a whole batch can be checked against the stored shifts and against itself.
+ *
+ * Rest rule: between two shifts of different days the gap must be at least min-rest.
+ * Shifts of the same day (split shifts) form one working day and are not subject to it.
+ */
+@Component
+public class ShiftConflictEngine {
+
+    private static final DateTimeFormatter HOURS = DateTimeFormatter.ofPattern("HH:mm");
+
+    private static final Comparator<ShiftInterval> BY_START = Comparator
+            .comparing(ShiftInterval::start)
+            .thenComparing(ShiftInterval::shiftId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final ShiftRepository shiftRepository;
+    private final Duration minRest;
+    private final Duration maxDuration;
+
+    public ShiftConflictEngine(ShiftRepository shiftRepository,
+                               @Value("${hotel.planning.min-rest:PT11H}") Duration minRest,
+                               @Value("${hotel.planning.max-shift-duration:PT12H}") Duration maxDuration) {
+        this.shiftRepository = shiftRepository;
+        this.minRest = minRest;
+        this.maxDuration = maxDuration;
+    }
+
+    /**
+     * Stored shifts of the employees for shifts dated [from, to]. The window is widened so that
+     * night shifts of the previous day and neighbours within min-rest are included.
+     */
+    @Transactional(readOnly = true)
+    public Schedule load(Long hotelId, Collection<Long> employeeIds, LocalDate from, LocalDate to) {
+        Schedule schedule = new Schedule();
+        if (employeeIds.isEmpty()) return schedule;
+        long pad = minRest.toDays() + 2;
+        for (ShiftInterval s : shiftRepository.findIntervals(hotelId, employeeIds, from.minusDays(pad), to.plusDays(pad))) {
+            schedule.put(s);
+        }
+        return schedule;
+    }
+
+    /** Per-employee shifts sorted by start. Not thread-safe: one instance per request. */
+    public final class Schedule {
+
+        private final Map<Long, TreeSet<ShiftInterval>> byEmployee = new HashMap<>();
+        private final Map<Long, ShiftInterval> byId = new HashMap<>();
+
+        private Schedule() {}
+
+        /** Conflicts of the candidate with this schedule, without changing it. */
+        public List<ShiftConflict> check(ShiftInterval c) {
+            List<ShiftConflict> conflicts = new ArrayList<>(2);
+            Duration length = Duration.between(c.start(), c.end());
+            if (length.compareTo(maxDuration) > 0) {
+                conflicts.add(conflict(Type.DURATION, c, null,
+                        "Service de " + hours(length) + ", maximum " + hours(maxDuration)));
+            }
+
+            TreeSet<ShiftInterval> own = byEmployee.get(c.employeeId());
+            if (own == null) return conflicts;
+
+            ShiftInterval before = own.floor(c);
+            if (before != null) {
+                if (before.end().isAfter(c.start())) {
+                    conflicts.add(overlap(c, before));
+                } else if (!before.date().equals(c.date())) {
+                    Duration rest = Duration.between(before.end(), c.start());
+                    if (rest.compareTo(minRest) < 0) {
+                        conflicts.add(conflict(Type.REST, c, before,
+                                "Repos de " + hours(rest) + " après le service du " + describe(before)
+                                        + ", minimum " + hours(minRest)));
+                    }
+                }
+            }
+
+            ShiftInterval after = own.higher(c);
+            if (after != null) {
+                if (after.start().isBefore(c.end())) {
+                    conflicts.add(overlap(c, after));
+                } else if (!after.date().equals(c.date())) {
+                    Duration rest = Duration.between(c.end(), after.start());
+                    if (rest.compareTo(minRest) < 0) {
+                        conflicts.add(conflict(Type.REST, c, after,
+                                "Repos de " + hours(rest) + " avant le service du " + describe(after)
+                                        + ", minimum " + hours(minRest)));
+                    }
+                }
+            }
+            return conflicts;
+        }
+
+        /**
+         * Checks the candidate (an existing shift being moved leaves its old position first)
+         * and adds it unless it overlaps, so that the next candidates of a batch see it.
+         */
+        public List<ShiftConflict> place(ShiftInterval c) {
+            if (c.shiftId() != null) remove(c.shiftId());
+            List<ShiftConflict> conflicts = check(c);
+            if (conflicts.stream().noneMatch(x -> x.type() == Type.OVERLAP)) put(c);
+            return conflicts;
+        }
+
+        public void remove(Long shiftId) {
+            ShiftInterval old = byId.remove(shiftId);
+            if (old != null) byEmployee.get(old.employeeId()).remove(old);
+        }
+
+        private void put(ShiftInterval s) {
+            byEmployee.computeIfAbsent(s.employeeId(), id -> new TreeSet<>(BY_START)).add(s);
+            if (s.shiftId() != null) byId.put(s.shiftId(), s);
+        }
+    }
+
+    private static ShiftConflict overlap(ShiftInterval c, ShiftInterval other) {
+        return conflict(Type.OVERLAP, c, other,
+                other.shiftId() != null
+                        ? "Chevauche le service du " + describe(other)
+                        : "Chevauche un autre service du " + describe(other));
+    }
+
+    private static ShiftConflict conflict(Type type, ShiftInterval c, ShiftInterval other, String message) {
+        return new ShiftConflict(type, c.employeeId(), c.date(), c.startTime(), c.endTime(),
+                other == null ? null : other.shiftId(),
+                other == null ? null : other.start(),
+                other == null ? null : other.end(),
+                message);
+    }
+
+    private static String describe(ShiftInterval s) {
+        return s.date() + " " + s.startTime().format(HOURS) + "-" + s.endTime().format(HOURS);
+    }
+
+    private static String hours(Duration d) {
+        return d.toHours() + "h" + String.format("%02d", d.toMinutesPart());
+    }
+}
@@ -0,0 +1,19 @@
+package com.hotelmanager.planning.service;
+
+import com.hotelmanager.common.exception.BusinessRuleException;
+import com.hotelmanager.planning.dto.ShiftConflict;
+
+import java.util.List;
+
+/** A shift refused because it breaks planning rules; carries every conflict found. */
+public class ShiftConflictException extends BusinessRuleException {
+
+    private final transient List<ShiftConflict> conflicts;
+
+    public ShiftConflictException(List<ShiftConflict> conflicts) {
+        super(conflicts.get(0).message());
+        this.conflicts = List.copyOf(conflicts);
+    }
+
+    public List<ShiftConflict> getConflicts() { return conflicts; }
+}
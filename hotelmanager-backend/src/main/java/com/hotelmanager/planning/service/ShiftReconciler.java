@@ -0,0 +1,100 @@
+package com.hotelmanager.planning.service;
+
+import com.hotelmanager.planning.entity.ShiftReconciliation.Outcome;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Matches shifts to attendances, in memory, employee by employee.
+ *
+ * Both lists are sorted by start; each shift takes the unused attendance that overlaps it
+ * the most, an attendance being allowed to start up to earlyWindow before the shift.
+ * Lateness and early departure below the grace period count as zero.
+ */
+final class ShiftReconciler {
+
+    record ShiftSlot(Long shiftId, Long employeeId, LocalDate date, LocalDateTime start, LocalDateTime end) {}
+
+    /** out is null while the attendance is still open. */
+    record Punch(Long attendanceId, Long employeeId, LocalDateTime in, LocalDateTime out, boolean absent) {}
+
+    record Match(ShiftSlot shift, Long attendanceId, Outcome outcome, int lateMinutes, int earlyMinutes, int workedMinutes) {}
+
+    private ShiftReconciler() {}
+
+    static List<Match> reconcile(List<ShiftSlot> shifts, List<Punch> punches, Duration earlyWindow, Duration grace) {
+        Map<Long, List<Punch>> punchesByEmployee = punches.stream()
+                .sorted(Comparator.comparing(Punch::in))
+                .collect(Collectors.groupingBy(Punch::employeeId));
+        Map<Long, List<ShiftSlot>> shiftsByEmployee = shifts.stream()
+                .sorted(Comparator.comparing(ShiftSlot::start))
+                .collect(Collectors.groupingBy(ShiftSlot::employeeId));
+
+        List<Match> matches = new ArrayList<>(shifts.size());
+        shiftsByEmployee.forEach((employeeId, employeeShifts) -> {
+            List<Punch> own = punchesByEmployee.getOrDefault(employeeId, List.of());
+            Set<Long> used = new HashSet<>();
+            int first = 0;
+            for (ShiftSlot s : employeeShifts) {
+                LocalDateTime windowStart = s.start().minus(earlyWindow);
+                // Attendances over before this window are also over for the later shifts.
+                while (first < own.size() && end(own.get(first)).isBefore(windowStart)) first++;
+
+                Punch best = null;
+                long bestOverlap = -1;
+                for (int i = first; i < own.size() && own.get(i).in().isBefore(s.end()); i++) {
+                    Punch p = own.get(i);
+                    if (used.contains(p.attendanceId()) || !end(p).isAfter(windowStart)) continue;
+                    long overlap = overlapMinutes(p.in(), end(p), s.start(), s.end());
+                    if (overlap > bestOverlap) {
+                        best = p;
+                        bestOverlap = overlap;
+                    }
+                }
+                if (best != null) used.add(best.attendanceId());
+                matches.add(match(s, best, grace));
+            }
+        });
+        return matches;
+    }
+
+    private static Match match(ShiftSlot s, Punch p, Duration grace) {
+        if (p == null) return new Match(s, null, Outcome.NO_SHOW, 0, 0, 0);
+        if (p.absent()) return new Match(s, p.attendanceId(), Outcome.NO_SHOW, 0, 0, 0);
+
+        int late = beyondGrace(Duration.between(s.start(), p.in()), grace);
+        if (p.out() == null) return new Match(s, p.attendanceId(), Outcome.OPEN, late, 0, 0);
+
+        int early = beyondGrace(Duration.between(p.out(), s.end()), grace);
+        int worked = (int) overlapMinutes(p.in(), p.out(), s.start(), s.end());
+        Outcome outcome = late > 0 && early > 0 ? Outcome.LATE_AND_EARLY
+                : late > 0 ? Outcome.LATE
+                : early > 0 ? Outcome.EARLY_DEPARTURE
+                : Outcome.ON_TIME;
+        return new Match(s, p.attendanceId(), outcome, late, early, worked);
+    }
+
+    private static int beyondGrace(Duration d, Duration grace) {
+        return d.compareTo(grace) > 0 ? (int) d.toMinutes() : 0;
+    }
+
+    /** An open attendance counts as a one-minute presence at check-in. */
+    private static LocalDateTime end(Punch p) {
+        return p.out() != null ? p.out() : p.in().plusMinutes(1);
+    }
+
+    private static long overlapMinutes(LocalDateTime aStart, LocalDateTime aEnd, LocalDateTime bStart, LocalDateTime bEnd) {
+        LocalDateTime start = aStart.isAfter(bStart) ? aStart : bStart;
+        LocalDateTime end = aEnd.isBefore(bEnd) ? aEnd : bEnd;
+        return end.isAfter(start) ? Duration.between(start, end).toMinutes() : 0;
+    }
+}
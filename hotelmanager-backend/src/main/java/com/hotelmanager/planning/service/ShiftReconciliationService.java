@@ -0,0 +1,242 @@
+package com.hotelmanager.planning.service;
+
+import com.hotelmanager.attendance.entity.Attendance;
+import com.hotelmanager.attendance.event.AttendanceChangedEvent;
+import com.hotelmanager.attendance.event.AttendanceStatusesUpdatedEvent;
+import com.hotelmanager.hotel.entity.Hotel;
+import com.hotelmanager.hotel.repository.HotelRepository;
+import com.hotelmanager.planning.dto.ReconciliationReport;
+import com.hotelmanager.planning.dto.ShiftReconciliationRow;
+import com.hotelmanager.planning.entity.ShiftReconciliation.Outcome;
+import com.hotelmanager.planning.event.ShiftsChangedEvent;
+import com.hotelmanager.planning.repository.ShiftReconciliationStore;
+import com.hotelmanager.planning.repository.ShiftReconciliationStore.ResultRow;
+import com.hotelmanager.planning.repository.ShiftReconciliationStore.ShiftRow;
+import com.hotelmanager.planning.service.ShiftReconciler.Match;
+import com.hotelmanager.planning.service.ShiftReconciler.Punch;
+import com.hotelmanager.planning.service.ShiftReconciler.ShiftSlot;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Shift vs attendance reconciliation.
+ *
+ * The batch walks each hotel's days from its watermark to yesterday; a day is only
+ * reconciled once its last shift has ended (plus finalize-after), so night shifts are
+ * complete. Hotels run in parallel, each in its own transaction under an advisory lock.
+ * Results replace the day's rows in shift_reconciliations, and late check-ins flag the
+ * attendance as RETARD.
+ *
+ * Changing an attendance of a reconciled day moves the watermark back to that day.
+ */
+@Slf4j
+@Service
+public class ShiftReconciliationService {
+
+    private static final int MAX_QUERY_DAYS = 93;
+
+    private final HotelRepository hotelRepository;
+    private final ShiftReconciliationStore store;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate tx;
+    private final ForkJoinPool hotelPool;
+    private final boolean enabled;
+    private final int initialDays;
+    private final int maxDaysPerRun;
+    private final Duration earlyWindow;
+    private final Duration grace;
+    private final Duration finalizeAfter;
+
+    public ShiftReconciliationService(
+            HotelRepository hotelRepository,
+            ShiftReconciliationStore store,
+            ApplicationEventPublisher events,
+            PlatformTransactionManager transactionManager,
+            @Value("${hotel.reconciliation.enabled:true}") boolean enabled,
+            @Value("${hotel.reconciliation.parallelism:4}") int parallelism,
+            @Value("${hotel.reconciliation.initial-days:7}") int initialDays,
+            @Value("${hotel.reconciliation.max-days-per-run:31}") int maxDaysPerRun,
+            @Value("${hotel.reconciliation.early-window:PT2H}") Duration earlyWindow,
+            @Value("${hotel.reconciliation.grace:PT5M}") Duration grace,
+            @Value("${hotel.reconciliation.finalize-after:PT1H}") Duration finalizeAfter
+    ) {
+        this.hotelRepository = hotelRepository;
+        this.store = store;
+        this.events = events;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.hotelPool = new ForkJoinPool(parallelism);
+        this.enabled = enabled;
+        this.initialDays = initialDays;
+        this.maxDaysPerRun = maxDaysPerRun;
+        this.earlyWindow = earlyWindow;
+        this.grace = grace;
+        this.finalizeAfter = finalizeAfter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hotelPool.shutdown();
+    }
+
+    /* =================== Batch =================== */
+
+    @Scheduled(cron = "${hotel.reconciliation.cron:0 10 * * * *}")
+    public void reconcileAll() {
+        if (!enabled) return;
+        List<Long> hotelIds = hotelRepository.findAllByActiveTrue().stream().map(Hotel::getId).toList();
+        List<ReconciliationReport> reports = hotelPool.submit(() -> hotelIds.parallelStream()
+                .map(this::reconcileSafely)
+                .toList()).join();
+        reports.stream()
+                .filter(r -> r.shifts() > 0)
+                .forEach(r -> log.info("Hotel {}: {} shift(s) reconciled from {} to {} ({} late, {} early, {} no-show) in {} ms",
+                        r.hotelId(), r.shifts(), r.from(), r.to(), r.late(), r.earlyDepartures(), r.noShows(), r.elapsedMillis()));
+    }
+
+    private ReconciliationReport reconcileSafely(Long hotelId) {
+        try {
+            return reconcile(hotelId);
+        } catch (RuntimeException e) {
+            log.error("Shift reconciliation failed for hotel {}: {}", hotelId, e.getMessage());
+            return new ReconciliationReport(hotelId, null, null, 0, 0, 0, 0, 0);
+        }
+    }
+
+    /** Reconciles the hotel's due days; returns an empty report when another instance holds the hotel. */
+    public ReconciliationReport reconcile(Long hotelId) {
+        long started = System.nanoTime();
+        ReconciliationReport report = tx.execute(status -> {
+            if (!store.tryLock(hotelId)) return null;
+
+            LocalDateTime now = LocalDateTime.now();
+            LocalDate today = now.toLocalDate();
+            LocalDate from = store.watermark(hotelId).map(d -> d.plusDays(1)).orElse(today.minusDays(initialDays));
+            LocalDate to = min(today.minusDays(1), from.plusDays(maxDaysPerRun - 1L));
+            if (from.isAfter(to)) return null;
+
+            List<ShiftSlot> shifts = toSlots(store.findShifts(hotelId, from, to));
+            LocalDate through = lastFinalDay(shifts, from, to, now);
+            if (through == null) return null;
+            shifts.removeIf(s -> s.date().isAfter(through));
+
+            // Night shifts: attendances of the day before/after can belong to a shift of the range.
+            List<Punch> punches = store.findAttendances(hotelId, from.minusDays(1), through.plusDays(1)).stream()
+                    .map(a -> new Punch(a.id(), a.employeeId(), a.checkInAt(), a.checkOutAt(),
+                            Attendance.Status.ABSENT.name().equals(a.status())))
+                    .toList();
+
+            List<Match> matches = ShiftReconciler.reconcile(shifts, punches, earlyWindow, grace);
+            List<ResultRow> rows = new ArrayList<>(matches.size());
+            Set<Long> lateAttendances = new LinkedHashSet<>();
+            int late = 0, early = 0, noShows = 0;
+            for (Match m : matches) {
+                rows.add(new ResultRow(m.shift().shiftId(), m.shift().employeeId(), m.shift().date(), m.attendanceId(),
+                        m.outcome(), m.lateMinutes(), m.earlyMinutes(), m.workedMinutes()));
+                if (m.lateMinutes() > 0) {
+                    late++;
+                    lateAttendances.add(m.attendanceId());
+                }
+                if (m.earlyMinutes() > 0) early++;
+                if (m.outcome() == Outcome.NO_SHOW) noShows++;
+            }
+
+            store.replaceRange(hotelId, from, through, rows);
+            store.markLate(lateAttendances);
+            int restored = store.restoreNoLongerLate(hotelId, from.minusDays(1), through.plusDays(1));
+            if (!lateAttendances.isEmpty() || restored > 0) {
+                // Not an AttendanceChangedEvent: that one would rewind the watermark we are setting.
+                events.publishEvent(new AttendanceStatusesUpdatedEvent(hotelId, from.minusDays(1), through.plusDays(1)));
+            }
+            store.setWatermark(hotelId, through);
+            return new ReconciliationReport(hotelId, from, through, rows.size(), late, early, noShows,
+                    (System.nanoTime() - started) / 1_000_000);
+        });
+        return report != null ? report : new ReconciliationReport(hotelId, null, null, 0, 0, 0, 0, 0);
+    }
+
+    /** Redo [from, yesterday] now (manager correction of past planning). */
+    public ReconciliationReport reconcileFrom(Long hotelId, LocalDate from) {
+        if (from == null || from.isAfter(LocalDate.now())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date de reprise invalide");
+        }
+        tx.executeWithoutResult(status -> store.rewind(hotelId, from));
+        return reconcile(hotelId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        if (event.hotelId() == null || event.date() == null) return;
+        store.rewind(event.hotelId(), event.date());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onShiftsChanged(ShiftsChangedEvent event) {
+        if (event.hotelId() == null || event.from() == null) return;
+        store.rewind(event.hotelId(), event.from());
+    }
+
+    /* =================== Queries =================== */
+
+    public List<ShiftReconciliationRow> results(Long hotelId, LocalDate start, LocalDate end, Outcome outcome) {
+        if (start == null || end == null || end.isBefore(start)
+                || ChronoUnit.DAYS.between(start, end) >= MAX_QUERY_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Période invalide (max " + MAX_QUERY_DAYS + " jours)");
+        }
+        return store.findRange(hotelId, start, end, outcome);
+    }
+
+    /* =================== Helpers =================== */
+
+    /** A shift ending at or before its start time ends the next day. */
+    private static List<ShiftSlot> toSlots(List<ShiftRow> rows) {
+        List<ShiftSlot> slots = new ArrayList<>(rows.size());
+        for (ShiftRow r : rows) {
+            LocalDateTime start = r.date().atTime(r.startTime());
+            LocalDateTime end = r.date().atTime(r.endTime());
+            if (!end.isAfter(start)) end = end.plusDays(1);
+            slots.add(new ShiftSlot(r.id(), r.employeeId(), r.date(), start, end));
+        }
+        return slots;
+    }
+
+    /** Last day of [from, to] such that it and every day before it have no shift still running. */
+    private LocalDate lastFinalDay(List<ShiftSlot> shifts, LocalDate from, LocalDate to, LocalDateTime now) {
+        Map<LocalDate, LocalDateTime> lastEnd = new HashMap<>();
+        for (ShiftSlot s : shifts) lastEnd.merge(s.date(), s.end(), (a, b) -> a.isAfter(b) ? a : b);
+
+        LocalDate through = null;
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            LocalDateTime end = lastEnd.get(d);
+            if (end != null && end.plus(finalizeAfter).isAfter(now)) break;
+            through = d;
+        }
+        return through;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -1,24 +1,89 @@
 package com.hotelmanager.planning.service;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.hotelmanager.planning.dto.ShiftCheckRequest;
+import com.hotelmanager.planning.dto.ShiftConflict;
+import com.hotelmanager.planning.dto.ShiftInterval;
 import com.hotelmanager.planning.entity.Shift;
+import com.hotelmanager.planning.event.ShiftsChangedEvent;
+import com.hotelmanager.planning.repository.ShiftBatchWriter;
 import com.hotelmanager.planning.repository.ShiftRepository;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 public class ShiftService {
 
+    private static final int MAX_CHECK_DAYS = 93;
+
     private final ShiftRepository shiftRepository;
+    private final ShiftConflictEngine conflictEngine;
+    private final ShiftBatchWriter shiftWriter;
+    private final ApplicationEventPublisher events;
 
-    public ShiftService(ShiftRepository shiftRepository) {
+    public ShiftService(ShiftRepository shiftRepository, ShiftConflictEngine conflictEngine,
+                        ShiftBatchWriter shiftWriter, ApplicationEventPublisher events) {
         this.shiftRepository = shiftRepository;
+        this.conflictEngine = conflictEngine;
+        this.shiftWriter = shiftWriter;
+        this.events = events;
     }
 
+    /** Refuses the shift with every conflict found (overlap, rest, duration). */
+    @Transactional
     public Shift createShift(Shift shift) {
-        return shiftRepository.save(shift);
+        if (shift.getEmployee() == null || shift.getEmployee().getId() == null
+                || shift.getDate() == null || shift.getStartTime() == null || shift.getEndTime() == null) {
+            throw new IllegalArgumentException("Employé, date et horaires requis");
+        }
+        Long hotelId = shift.getCreatedBy().getHotel().getId();
+        Long employeeId = shift.getEmployee().getId();
+
+        // A concurrent create or generation for this employee waits until this one commits.
+        shiftWriter.lockEmployees(List.of(employeeId));
+        ShiftInterval candidate = new ShiftInterval(null, employeeId, shift.getDate(), shift.getStartTime(), shift.getEndTime());
+        List<ShiftConflict> conflicts = conflictEngine
+                .load(hotelId, List.of(employeeId), shift.getDate(), shift.getDate())
+                .check(candidate);
+        if (!conflicts.isEmpty()) throw new ShiftConflictException(conflicts);
+
+        Shift saved = shiftRepository.save(shift);
+        events.publishEvent(new ShiftsChangedEvent(hotelId, saved.getDate()));
+        return saved;
+    }
+
+    /**
+     * Conflicts of a set of new or moved shifts, checked against the stored planning and
+     * against each other, without saving anything (planning preview, drag and drop).
+     */
+    @Transactional(readOnly = true)
+    public List<ShiftConflict> checkShifts(Long hotelId, List<ShiftCheckRequest> shifts) {
+        if (shifts.isEmpty()) return List.of();
+        LocalDate from = shifts.stream().map(ShiftCheckRequest::date).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate to = shifts.stream().map(ShiftCheckRequest::date).max(Comparator.naturalOrder()).orElseThrow();
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_CHECK_DAYS) {
+            throw new IllegalArgumentException("Période invalide (max " + MAX_CHECK_DAYS + " jours)");
+        }
+
+        List<Long> employeeIds = shifts.stream().map(ShiftCheckRequest::employeeId).distinct().toList();
+        ShiftConflictEngine.Schedule schedule = conflictEngine.load(hotelId, employeeIds, from, to);
+
+        // Moved shifts leave their old position before any is placed: swaps are not conflicts.
+        shifts.stream().map(ShiftCheckRequest::shiftId).filter(Objects::nonNull).forEach(schedule::remove);
+
+        List<ShiftConflict> conflicts = new ArrayList<>();
+        for (ShiftCheckRequest s : shifts) {
+            conflicts.addAll(schedule.place(s.toInterval()));
+        }
+        return conflicts;
     }
 
     public List<Shift> getShiftsForHotel(Long hotelId, LocalDate start, LocalDate end) {
@@ -30,7 +95,13 @@ public class ShiftService {
     }
 
 
+    @Transactional
     public void deleteShift(Long id) {
-        shiftRepository.deleteById(id);
+        shiftRepository.findById(id).ifPresent(shift -> {
+            shiftRepository.delete(shift);
+            if (shift.getEmployee() != null && shift.getEmployee().getHotel() != null) {
+                events.publishEvent(new ShiftsChangedEvent(shift.getEmployee().getHotel().getId(), shift.getDate()));
+            }
+        });
     }
 }
@@ -0,0 +1,180 @@
+package com.hotelmanager.planning.service;
+
+import com.hotelmanager.crew.entity.Crew;
+import com.hotelmanager.crew.repository.CrewRepository;
+import com.hotelmanager.planning.dto.ShiftGenerationReport;
+import com.hotelmanager.planning.dto.ShiftGenerationReport.Draft;
+import com.hotelmanager.planning.dto.ShiftGenerationReport.Skipped;
+import com.hotelmanager.planning.dto.ShiftConflict;
+import com.hotelmanager.planning.dto.ShiftInterval;
+import com.hotelmanager.planning.dto.ShiftTemplateRequest;
+import com.hotelmanager.planning.entity.ShiftTemplate;
+import com.hotelmanager.planning.event.ShiftsChangedEvent;
+import com.hotelmanager.planning.repository.ShiftBatchWriter;
+import com.hotelmanager.planning.repository.ShiftTemplateRepository;
+import com.hotelmanager.user.entity.User;
+import com.hotelmanager.user.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Weekly rotation templates and their expansion into shifts.
+ *
+ * A generation loads the existing shifts of the concerned employees once, checks every
+ * generated shift against them (and against each other) with the {@link ShiftConflictEngine},
+ * then inserts the accepted ones in JDBC batches. Conflicting shifts are skipped and reported.
+ */
+@Service
+@RequiredArgsConstructor
+public class ShiftTemplateService {
+
+    private static final int MAX_DAYS = 93;
+
+    private final ShiftTemplateRepository templateRepository;
+    private final ShiftConflictEngine conflictEngine;
+    private final ShiftBatchWriter batchWriter;
+    private final UserRepository userRepository;
+    private final CrewRepository crewRepository;
+    private final ApplicationEventPublisher events;
+
+    /* =================== Templates =================== */
+
+    @Transactional
+    public ShiftTemplate create(User manager, ShiftTemplateRequest req) {
+        Long hotelId = hotelIdOf(manager);
+        if ((req.employeeId() == null) == (req.crewId() == null)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Indiquer un employé ou une équipe");
+        }
+        // Vérifie l'appartenance à l'hôtel.
+        targetEmployees(hotelId, req.employeeId(), req.crewId());
+
+        List<ShiftTemplate.Slot> slots = new ArrayList<>();
+        for (ShiftTemplateRequest.Slot s : req.slots()) {
+            if (s.week() >= req.rotationWeeks()) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Semaine " + s.week() + " hors de la rotation de " + req.rotationWeeks() + " semaine(s)");
+            }
+            if (s.startTime().equals(s.endTime())) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Service de durée nulle");
+            }
+            slots.add(new ShiftTemplate.Slot(s.week(), s.dayOfWeek(), s.startTime(), s.endTime(), s.service()));
+        }
+
+        ShiftTemplate template = ShiftTemplate.builder()
+                .hotel(manager.getHotel())
+                .name(req.name().trim())
+                .employeeId(req.employeeId())
+                .crewId(req.crewId())
+                .rotationWeeks(req.rotationWeeks())
+                .anchorDate(req.anchorDate())
+                .slots(slots)
+                .createdBy(manager)
+                .build();
+        return templateRepository.save(template);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ShiftTemplate> list(User manager) {
+        List<ShiftTemplate> templates = templateRepository.findByHotelIdOrderByNameAsc(hotelIdOf(manager));
+        templates.forEach(t -> t.getSlots().size());
+        return templates;
+    }
+
+    @Transactional
+    public void delete(User manager, Long templateId) {
+        templateRepository.delete(find(manager, templateId));
+    }
+
+    /* =================== Generation =================== */
+
+    @Transactional
+    public ShiftGenerationReport generate(User manager, Long templateId, LocalDate from, LocalDate to, boolean dryRun) {
+        if (from == null || to == null || to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Période invalide (max " + MAX_DAYS + " jours)");
+        }
+        Long hotelId = hotelIdOf(manager);
+        ShiftTemplate template = find(manager, templateId);
+        List<Long> employees = targetEmployees(hotelId, template.getEmployeeId(), template.getCrewId());
+
+        List<Draft> drafts = expand(template, employees, from, to);
+
+        if (!dryRun) batchWriter.lockEmployees(employees);
+        ShiftConflictEngine.Schedule schedule = conflictEngine.load(hotelId, employees, from, to);
+
+        List<Draft> accepted = new ArrayList<>(drafts.size());
+        List<Skipped> skipped = new ArrayList<>();
+        for (Draft d : drafts) {
+            ShiftInterval candidate = new ShiftInterval(null, d.employeeId(), d.date(), d.startTime(), d.endTime());
+            List<ShiftConflict> conflicts = schedule.check(candidate);
+            if (!conflicts.isEmpty()) {
+                ShiftConflict first = conflicts.get(0);
+                skipped.add(new Skipped(d.employeeId(), d.date(), d.startTime(), d.endTime(),
+                        first.message(), first.conflictingShiftId()));
+                continue;
+            }
+            schedule.place(candidate);
+            accepted.add(d);
+        }
+
+        int created = dryRun ? 0 : batchWriter.insert(accepted, manager.getId());
+        if (created > 0) events.publishEvent(new ShiftsChangedEvent(hotelId, accepted.get(0).date()));
+        return new ShiftGenerationReport(templateId, from, to, dryRun, created, accepted, skipped);
+    }
+
+    /** Shifts of the template over [from, to], for each employee, ordered by day. */
+    private static List<Draft> expand(ShiftTemplate t, List<Long> employees, LocalDate from, LocalDate to) {
+        LocalDate anchorMonday = t.getAnchorDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        List<Draft> drafts = new ArrayList<>();
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            LocalDate monday = d.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            int week = (int) Math.floorMod(ChronoUnit.WEEKS.between(anchorMonday, monday), (long) t.getRotationWeeks());
+            for (ShiftTemplate.Slot s : t.getSlots()) {
+                if (s.getWeek() != week || s.getDayOfWeek() != d.getDayOfWeek()) continue;
+                for (Long employeeId : employees) {
+                    drafts.add(new Draft(employeeId, d, s.getStartTime(), s.getEndTime(), s.getService()));
+                }
+            }
+        }
+        return drafts;
+    }
+
+    /* =================== Helpers =================== */
+
+    private ShiftTemplate find(User manager, Long templateId) {
+        return templateRepository.findByIdAndHotelId(templateId, hotelIdOf(manager))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Modèle introuvable"));
+    }
+
+    private List<Long> targetEmployees(Long hotelId, Long employeeId, Long crewId) {
+        if (employeeId != null) {
+            User employee = userRepository.findById(employeeId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Employé introuvable"));
+            if (employee.getHotel() == null || !hotelId.equals(employee.getHotel().getId())) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Employé d’un autre hôtel");
+            }
+            return List.of(employeeId);
+        }
+        Crew crew = crewRepository.findByIdAndHotelId(crewId, hotelId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Équipe introuvable"));
+        return crew.getMembers().stream().map(User::getId).sorted().toList();
+    }
+
+    private static Long hotelIdOf(User manager) {
+        if (manager.getHotel() == null || manager.getHotel().getId() == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Utilisateur sans hôtel");
+        }
+        return manager.getHotel().getId();
+    }
+}
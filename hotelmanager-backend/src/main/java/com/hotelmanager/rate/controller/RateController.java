@@ -0,0 +1,81 @@
+package com.hotelmanager.rate.controller;
+
+import com.hotelmanager.rate.dto.DailyRateRequest;
+import com.hotelmanager.rate.dto.DailyRateResponse;
+import com.hotelmanager.rate.dto.RateQuote;
+import com.hotelmanager.rate.dto.RoomTypeRateRequest;
+import com.hotelmanager.rate.dto.RoomTypeRateResponse;
+import com.hotelmanager.rate.service.RateService;
+import com.hotelmanager.user.entity.User;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/rates")
+@PreAuthorize("hasRole('MANAGER')")
+@RequiredArgsConstructor
+public class RateController {
+
+    private final RateService rateService;
+
+    @GetMapping
+    public List<RoomTypeRateResponse> list(@AuthenticationPrincipal User currentUser) {
+        return rateService.list(hotelId(currentUser));
+    }
+
+    @PutMapping("/{roomType}")
+    public RoomTypeRateResponse upsert(@PathVariable String roomType,
+                                       @Valid @RequestBody RoomTypeRateRequest req,
+                                       @AuthenticationPrincipal User currentUser) {
+        return rateService.upsert(hotelId(currentUser), roomType, req);
+    }
+
+    @DeleteMapping("/{roomType}")
+    public ResponseEntity<Void> delete(@PathVariable String roomType, @AuthenticationPrincipal User currentUser) {
+        rateService.delete(hotelId(currentUser), roomType);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{roomType}/days")
+    public List<DailyRateResponse> dailyRates(@PathVariable String roomType,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                              @AuthenticationPrincipal User currentUser) {
+        return rateService.dailyRates(hotelId(currentUser), roomType, from, to);
+    }
+
+    @PutMapping("/{roomType}/days")
+    public Map<String, Integer> setDailyRates(@PathVariable String roomType,
+                                              @Valid @RequestBody DailyRateRequest req,
+                                              @AuthenticationPrincipal User currentUser) {
+        return Map.of("days", rateService.setDailyRates(hotelId(currentUser), roomType, req));
+    }
+
+    @GetMapping("/quote")
+    public RateQuote quote(@RequestParam String roomType,
+                           @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime startAt,
+                           @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime endAt,
+                           @AuthenticationPrincipal User currentUser) {
+        return rateService.quote(hotelId(currentUser), roomType, startAt, endAt);
+    }
+
+    private static Long hotelId(User currentUser) {
+        if (currentUser.getHotel() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Aucun hôtel associé");
+        }
+        return currentUser.getHotel().getId();
+    }
+}
@@ -0,0 +1,16 @@
+package com.hotelmanager.rate.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Prix imposé pour chaque nuit de [from, to] ; amount absent = retour au tarif de base.
+ */
+public record DailyRateRequest(
+        @NotNull LocalDate from,
+        @NotNull LocalDate to,
+        @DecimalMin("0.00") BigDecimal amount
+) {}
@@ -0,0 +1,6 @@
+package com.hotelmanager.rate.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailyRateResponse(LocalDate day, BigDecimal amount) {}
@@ -0,0 +1,12 @@
+package com.hotelmanager.rate.dto;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/** total est null quand le type n'a pas de tarif ou que le séjour dépasse l'horizon tarifé. */
+public record RateQuote(
+        String roomType,
+        OffsetDateTime startAt,
+        OffsetDateTime endAt,
+        BigDecimal total
+) {}
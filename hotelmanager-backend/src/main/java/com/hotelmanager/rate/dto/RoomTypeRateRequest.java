@@ -0,0 +1,19 @@
+package com.hotelmanager.rate.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * weekdayPercents : 7 modulations du lundi au dimanche (ex. 15 = +15 %), absentes = aucune.
+ */
+public record RoomTypeRateRequest(
+        @NotNull @DecimalMin("0.00") BigDecimal baseAmount,
+        @Min(-100) @Max(500) int highSeasonPercent,
+        @Size(min = 7, max = 7) List<@NotNull @Min(-100) @Max(500) Integer> weekdayPercents
+) {}
@@ -0,0 +1,16 @@
+package com.hotelmanager.rate.dto;
+
+import com.hotelmanager.rate.entity.RoomTypeRate;
+
+import java.math.BigDecimal;
+
+public record RoomTypeRateResponse(
+        String roomType,
+        BigDecimal baseAmount,
+        int highSeasonPercent,
+        int[] weekdayPercents
+) {
+    public static RoomTypeRateResponse from(RoomTypeRate r) {
+        return new RoomTypeRateResponse(r.getRoomType(), r.getBaseAmount(), r.getHighSeasonPercent(), r.getWeekdayPercents());
+    }
+}
@@ -0,0 +1,36 @@
+package com.hotelmanager.rate.entity;
+
+import com.hotelmanager.hotel.entity.Hotel;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Prix imposé pour la nuit {@code day} d'un type de chambre (événement, promotion...).
+ * Il remplace le tarif de base et n'est pas modulé par la saison ni le jour de la semaine.
+ */
+@Entity
+@Table(name = "daily_rates",
+        uniqueConstraints = @UniqueConstraint(name = "uk_daily_rates_hotel_type_day", columnNames = {"hotel_id", "room_type", "day"}),
+        indexes = @Index(name = "idx_daily_rates_hotel_day", columnList = "hotel_id,day"))
+@Getter @Setter @NoArgsConstructor
+public class DailyRate {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "hotel_id", nullable = false)
+    private Hotel hotel;
+
+    @Column(name = "room_type", nullable = false, length = 64)
+    private String roomType;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+}
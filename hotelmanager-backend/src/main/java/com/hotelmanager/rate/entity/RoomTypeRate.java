@@ -0,0 +1,37 @@
+package com.hotelmanager.rate.entity;
+
+import com.hotelmanager.hotel.entity.Hotel;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Tarif de base d'un type de chambre, par nuit, et ses modulations en pourcentage :
+ * haute saison (Hotel.highSeason) et jour de la semaine de la nuit (lundi = index 0).
+ */
+@Entity
+@Table(name = "room_type_rates",
+        uniqueConstraints = @UniqueConstraint(name = "uk_room_type_rates_hotel_type", columnNames = {"hotel_id", "room_type"}))
+@Getter @Setter @NoArgsConstructor
+public class RoomTypeRate {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "hotel_id", nullable = false)
+    private Hotel hotel;
+
+    @Column(name = "room_type", nullable = false, length = 64)
+    private String roomType;
+
+    @Column(name = "base_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal baseAmount;
+
+    @Column(name = "high_season_percent", nullable = false)
+    private int highSeasonPercent;
+
+    @Column(name = "weekday_percents", nullable = false)
+    private int[] weekdayPercents = new int[7];
+}
@@ -0,0 +1,7 @@
+package com.hotelmanager.rate.event;
+
+/**
+ * Les tarifs d'un hôtel (ou sa haute saison) ont changé : les grilles compilées et
+ * les réponses de disponibilité en cache de cet hôtel doivent être reconstruites.
+ */
+public record RatesChangedEvent(Long hotelId) {}
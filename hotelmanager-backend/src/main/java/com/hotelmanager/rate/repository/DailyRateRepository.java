@@ -0,0 +1,29 @@
+package com.hotelmanager.rate.repository;
+
+import com.hotelmanager.rate.entity.DailyRate;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyRateRepository extends JpaRepository<DailyRate, Long> {
+
+    List<DailyRate> findByHotelIdAndDayBetween(Long hotelId, LocalDate from, LocalDate to);
+
+    List<DailyRate> findByHotelIdAndRoomTypeIgnoreCaseAndDayBetweenOrderByDayAsc(
+            Long hotelId, String roomType, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("""
+        delete from DailyRate d
+         where d.hotel.id = :hotelId
+           and lower(d.roomType) = lower(:roomType)
+           and d.day between :from and :to
+    """)
+    int deleteRange(@Param("hotelId") Long hotelId, @Param("roomType") String roomType,
+                    @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,15 @@
+package com.hotelmanager.rate.repository;
+
+import com.hotelmanager.rate.entity.RoomTypeRate;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface RoomTypeRateRepository extends JpaRepository<RoomTypeRate, Long> {
+
+    List<RoomTypeRate> findByHotelIdOrderByRoomTypeAsc(Long hotelId);
+
+    Optional<RoomTypeRate> findByHotelIdAndRoomTypeIgnoreCase(Long hotelId, String roomType);
+}
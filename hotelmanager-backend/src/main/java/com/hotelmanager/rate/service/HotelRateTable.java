@@ -0,0 +1,64 @@
+package com.hotelmanager.rate.service;
+
+import com.hotelmanager.reservation.service.HotelNights;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Grille tarifaire compilée d'un hôtel, immuable : pour chaque type de chambre, les prix des nuits
+ * [origin, origin + days) en centimes, rangés en sommes cumulées dans un seul tableau dense.
+ *
+ * prefix[t * (days + 1) + i] = somme des nuits origin .. origin + i - 1 du type t,
+ * donc le total d'un séjour est une soustraction, quelle que soit sa durée.
+ */
+public final class HotelRateTable {
+
+    private final LocalDate origin;
+    private final int days;
+    private final HotelNights nights;
+    private final Map<String, Integer> typeIndex;
+    private final long[] prefix;
+
+    HotelRateTable(LocalDate origin, int days, HotelNights nights, Map<String, Integer> typeIndex, long[] prefix) {
+        this.origin = origin;
+        this.days = days;
+        this.nights = nights;
+        this.typeIndex = typeIndex;
+        this.prefix = prefix;
+    }
+
+    public LocalDate origin() { return origin; }
+
+    /** Total en centimes des nuits [firstNight, firstNight + count), ou -1 si non tarifé / hors grille. */
+    public long totalCents(String roomType, LocalDate firstNight, int count) {
+        Integer t = roomType == null ? null : typeIndex.get(key(roomType));
+        if (t == null || count < 0) return -1;
+        long from = ChronoUnit.DAYS.between(origin, firstNight);
+        long to = from + count;
+        if (from < 0 || to > days) return -1;
+        int base = t * (days + 1);
+        return prefix[base + (int) to] - prefix[base + (int) from];
+    }
+
+    /** Prix des nuitées du séjour [startAt, endAt) ({@link HotelNights#stayNights}), ou null si non tarifé. */
+    public BigDecimal quote(String roomType, OffsetDateTime startAt, OffsetDateTime endAt) {
+        Long cents = quoteCents(roomType, startAt, endAt);
+        return cents == null ? null : BigDecimal.valueOf(cents, 2);
+    }
+
+    /** Même prix que {@link #quote} en centimes, tel qu'enregistré sur la réservation. */
+    public Long quoteCents(String roomType, OffsetDateTime startAt, OffsetDateTime endAt) {
+        HotelNights.StayNights stay = nights.stayNights(startAt, endAt);
+        long cents = totalCents(roomType, stay.first(), stay.count());
+        return cents < 0 ? null : cents;
+    }
+
+    static String key(String roomType) {
+        return roomType.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,128 @@
+package com.hotelmanager.rate.service;
+
+import com.hotelmanager.hotel.entity.Hotel;
+import com.hotelmanager.hotel.repository.HotelRepository;
+import com.hotelmanager.rate.entity.DailyRate;
+import com.hotelmanager.rate.entity.RoomTypeRate;
+import com.hotelmanager.rate.event.RatesChangedEvent;
+import com.hotelmanager.rate.repository.DailyRateRepository;
+import com.hotelmanager.rate.repository.RoomTypeRateRepository;
+import com.hotelmanager.reservation.service.HotelNights;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compile et garde en mémoire la grille tarifaire de chaque hôtel (voir {@link HotelRateTable}),
+ * de la veille à {@code hotel.rates.horizon-days} jours. La grille est recompilée au changement
+ * de jour et après toute modification de tarif ou de haute saison.
+ */
+@Component
+public class RateEngine {
+
+    private final HotelRepository hotelRepository;
+    private final RoomTypeRateRepository rateRepository;
+    private final DailyRateRepository dailyRateRepository;
+    private final int horizonDays;
+
+    private final Map<Long, HotelRateTable> tables = new ConcurrentHashMap<>();
+    /** Incrémenté à chaque invalidation : une compilation commencée avant n'est pas publiée. */
+    private final AtomicLong generation = new AtomicLong();
+
+    public RateEngine(HotelRepository hotelRepository,
+                      RoomTypeRateRepository rateRepository,
+                      DailyRateRepository dailyRateRepository,
+                      @Value("${hotel.rates.horizon-days:730}") int horizonDays) {
+        this.hotelRepository = hotelRepository;
+        this.rateRepository = rateRepository;
+        this.dailyRateRepository = dailyRateRepository;
+        this.horizonDays = horizonDays;
+    }
+
+    @Transactional(readOnly = true)
+    public HotelRateTable table(Long hotelId) {
+        LocalDate origin = LocalDate.now().minusDays(1);
+        HotelRateTable current = tables.get(hotelId);
+        if (current != null && current.origin().equals(origin)) return current;
+
+        long gen = generation.get();
+        HotelRateTable compiled = compile(hotelId, origin);
+        if (generation.get() == gen) tables.put(hotelId, compiled);
+        return compiled;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatesChanged(RatesChangedEvent event) {
+        generation.incrementAndGet();
+        tables.remove(event.hotelId());
+    }
+
+    private HotelRateTable compile(Long hotelId, LocalDate origin) {
+        Hotel hotel = hotelRepository.findById(hotelId).orElse(null);
+        HotelNights nights = HotelNights.of(hotel);
+        int days = horizonDays + 1;
+
+        List<RoomTypeRate> rates = rateRepository.findByHotelIdOrderByRoomTypeAsc(hotelId);
+        Map<String, Integer> typeIndex = new HashMap<>();
+        for (RoomTypeRate r : rates) typeIndex.putIfAbsent(HotelRateTable.key(r.getRoomType()), typeIndex.size());
+
+        // Prix nuit par nuit, type par type, puis cumul en place.
+        long[] prefix = new long[typeIndex.size() * (days + 1)];
+        boolean[] highSeason = highSeasonMask(hotel, origin, days);
+        int[] weekday = new int[days];
+        for (int i = 0; i < days; i++) weekday[i] = origin.plusDays(i).getDayOfWeek().getValue() - 1;
+
+        for (RoomTypeRate r : rates) {
+            int base = typeIndex.get(HotelRateTable.key(r.getRoomType())) * (days + 1);
+            long cents = r.getBaseAmount().movePointRight(2).longValue();
+            int season = 100 + r.getHighSeasonPercent();
+            int[] dow = r.getWeekdayPercents();
+            for (int i = 0; i < days; i++) {
+                long pct = (long) (highSeason[i] ? season : 100) * (100 + (dow != null && dow.length == 7 ? dow[weekday[i]] : 0));
+                prefix[base + i + 1] = Math.max(0, (cents * pct + 5_000) / 10_000);
+            }
+        }
+
+        for (DailyRate d : dailyRateRepository.findByHotelIdAndDayBetween(hotelId, origin, origin.plusDays(days - 1))) {
+            Integer t = typeIndex.get(HotelRateTable.key(d.getRoomType()));
+            if (t == null) continue;
+            int i = (int) ChronoUnit.DAYS.between(origin, d.getDay());
+            prefix[t * (days + 1) + i + 1] = d.getAmount().movePointRight(2).longValue();
+        }
+
+        for (int t = 0; t < typeIndex.size(); t++) {
+            int base = t * (days + 1);
+            for (int i = 1; i <= days; i++) prefix[base + i] += prefix[base + i - 1];
+        }
+
+        return new HotelRateTable(origin, days, nights, Map.copyOf(typeIndex), prefix);
+    }
+
+    /** Nuits comprises dans la haute saison [fromDate, toDate] de l'hôtel (dates ISO). */
+    private static boolean[] highSeasonMask(Hotel hotel, LocalDate origin, int days) {
+        boolean[] mask = new boolean[days];
+        Hotel.Season season = hotel == null ? null : hotel.getHighSeason();
+        if (season == null || season.getFromDate() == null || season.getToDate() == null) return mask;
+        try {
+            LocalDate from = LocalDate.parse(season.getFromDate());
+            LocalDate to = LocalDate.parse(season.getToDate());
+            long start = Math.max(0, ChronoUnit.DAYS.between(origin, from));
+            long end = Math.min(days - 1L, ChronoUnit.DAYS.between(origin, to));
+            for (long i = start; i <= end; i++) mask[(int) i] = true;
+        } catch (DateTimeParseException e) {
+            // saison mal saisie : aucune majoration
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,136 @@
+package com.hotelmanager.rate.service;
+
+import com.hotelmanager.common.exception.BusinessRuleException;
+import com.hotelmanager.common.exception.NotFoundException;
+import com.hotelmanager.hotel.repository.HotelRepository;
+import com.hotelmanager.rate.dto.DailyRateRequest;
+import com.hotelmanager.rate.dto.DailyRateResponse;
+import com.hotelmanager.rate.dto.RateQuote;
+import com.hotelmanager.rate.dto.RoomTypeRateRequest;
+import com.hotelmanager.rate.dto.RoomTypeRateResponse;
+import com.hotelmanager.rate.entity.DailyRate;
+import com.hotelmanager.rate.entity.RoomTypeRate;
+import com.hotelmanager.rate.event.RatesChangedEvent;
+import com.hotelmanager.rate.repository.DailyRateRepository;
+import com.hotelmanager.rate.repository.RoomTypeRateRepository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class RateService {
+
+    private static final int MAX_DAILY_RANGE_DAYS = 366;
+
+    private final RoomTypeRateRepository rateRepository;
+    private final DailyRateRepository dailyRateRepository;
+    private final HotelRepository hotelRepository;
+    private final RateEngine engine;
+    private final ApplicationEventPublisher events;
+
+    @Transactional(readOnly = true)
+    public List<RoomTypeRateResponse> list(Long hotelId) {
+        return rateRepository.findByHotelIdOrderByRoomTypeAsc(hotelId).stream()
+                .map(RoomTypeRateResponse::from)
+                .toList();
+    }
+
+    public RoomTypeRateResponse upsert(Long hotelId, String roomType, RoomTypeRateRequest req) {
+        String type = normalizeType(roomType);
+        RoomTypeRate rate = rateRepository.findByHotelIdAndRoomTypeIgnoreCase(hotelId, type).orElseGet(() -> {
+            RoomTypeRate r = new RoomTypeRate();
+            r.setHotel(hotelRepository.getReferenceById(hotelId));
+            r.setRoomType(type);
+            return r;
+        });
+
+        rate.setBaseAmount(req.baseAmount().setScale(2, RoundingMode.HALF_UP));
+        rate.setHighSeasonPercent(req.highSeasonPercent());
+        int[] weekday = new int[7];
+        if (req.weekdayPercents() != null) {
+            for (int i = 0; i < 7; i++) weekday[i] = req.weekdayPercents().get(i);
+        }
+        rate.setWeekdayPercents(weekday);
+
+        rate = rateRepository.save(rate);
+        events.publishEvent(new RatesChangedEvent(hotelId));
+        return RoomTypeRateResponse.from(rate);
+    }
+
+    public void delete(Long hotelId, String roomType) {
+        RoomTypeRate rate = rateRepository.findByHotelIdAndRoomTypeIgnoreCase(hotelId, normalizeType(roomType))
+                .orElseThrow(() -> new NotFoundException("Aucun tarif pour ce type de chambre."));
+        rateRepository.delete(rate);
+        events.publishEvent(new RatesChangedEvent(hotelId));
+    }
+
+    /** Remplace les prix imposés de [from, to] ; amount null les supprime. */
+    public int setDailyRates(Long hotelId, String roomType, DailyRateRequest req) {
+        checkRange(req.from(), req.to());
+        RoomTypeRate rate = rateRepository.findByHotelIdAndRoomTypeIgnoreCase(hotelId, normalizeType(roomType))
+                .orElseThrow(() -> new BusinessRuleException("Définir d'abord le tarif de base de ce type de chambre."));
+
+        dailyRateRepository.deleteRange(hotelId, rate.getRoomType(), req.from(), req.to());
+
+        int written = 0;
+        if (req.amount() != null) {
+            List<DailyRate> rows = new ArrayList<>();
+            for (LocalDate d = req.from(); !d.isAfter(req.to()); d = d.plusDays(1)) {
+                DailyRate row = new DailyRate();
+                row.setHotel(rate.getHotel());
+                row.setRoomType(rate.getRoomType());
+                row.setDay(d);
+                row.setAmount(req.amount().setScale(2, RoundingMode.HALF_UP));
+                rows.add(row);
+            }
+            written = dailyRateRepository.saveAll(rows).size();
+        }
+        events.publishEvent(new RatesChangedEvent(hotelId));
+        return written;
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailyRateResponse> dailyRates(Long hotelId, String roomType, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return dailyRateRepository
+                .findByHotelIdAndRoomTypeIgnoreCaseAndDayBetweenOrderByDayAsc(hotelId, normalizeType(roomType), from, to)
+                .stream()
+                .map(d -> new DailyRateResponse(d.getDay(), d.getAmount()))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public RateQuote quote(Long hotelId, String roomType, OffsetDateTime startAt, OffsetDateTime endAt) {
+        if (startAt == null || endAt == null || !startAt.isBefore(endAt)) {
+            throw new BusinessRuleException("Intervalle de dates invalide.");
+        }
+        return new RateQuote(roomType, startAt, endAt, engine.table(hotelId).quote(roomType, startAt, endAt));
+    }
+
+    private static String normalizeType(String roomType) {
+        if (roomType == null || roomType.isBlank() || roomType.trim().length() > 64) {
+            throw new BusinessRuleException("Type de chambre invalide.");
+        }
+        return roomType.trim();
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new BusinessRuleException("Période invalide.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAILY_RANGE_DAYS) {
+            throw new BusinessRuleException("Période limitée à " + MAX_DAILY_RANGE_DAYS + " jours.");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.hotelmanager.report.controller;
+
+import com.hotelmanager.report.dto.OccupancyReport;
+import com.hotelmanager.report.dto.OccupancyReport.Granularity;
+import com.hotelmanager.report.service.DailyStatsService;
+import com.hotelmanager.user.entity.User;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reports")
+@PreAuthorize("hasRole('MANAGER')")
+@RequiredArgsConstructor
+public class ReportController {
+
+    private final DailyStatsService statsService;
+
+    /**
+     * Occupation, arrivées, départs, no-shows et annulations sur [from, to], lus depuis les agrégats journaliers.
+     */
+    @GetMapping("/occupancy")
+    public OccupancyReport occupancy(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                     @RequestParam(defaultValue = "DAY") Granularity granularity,
+                                     @AuthenticationPrincipal User currentUser) {
+        return statsService.occupancy(hotelId(currentUser), from, to, granularity);
+    }
+
+    /**
+     * Recalcule les agrégats de [from, to] depuis les réservations (reprise d'historique, correction).
+     */
+    @PostMapping("/occupancy/backfill")
+    public Map<String, Integer> backfill(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                         @AuthenticationPrincipal User currentUser) {
+        return Map.of("days", statsService.backfill(hotelId(currentUser), from, to));
+    }
+
+    private static Long hotelId(User currentUser) {
+        if (currentUser.getHotel() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Aucun hôtel associé");
+        }
+        return currentUser.getHotel().getId();
+    }
+}
@@ -0,0 +1,14 @@
+package com.hotelmanager.report.dto;
+
+import java.time.LocalDate;
+
+public record DailyStatsRow(
+        LocalDate day,
+        int roomsSold,
+        int arrivals,
+        int departures,
+        int noShows,
+        int cancellations,
+        int pricedRoomsSold,
+        long roomRevenueCents
+) {}
@@ -0,0 +1,35 @@
+package com.hotelmanager.report.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Série d'occupation sur [from, to] (bornes incluses), une entrée par période.
+ * occupancy = roomsSold / (sellableRooms × nights), sur l'inventaire actuel.
+ * averageDailyRate = roomRevenue / nuitées tarifées ; null si aucune nuitée de la période n'a de prix.
+ */
+public record OccupancyReport(
+        Long hotelId,
+        LocalDate from,
+        LocalDate to,
+        Granularity granularity,
+        int sellableRooms,
+        List<Point> points
+) {
+    public enum Granularity { DAY, WEEK, MONTH }
+
+    /** period = premier jour de la période (tronqué à from). */
+    public record Point(
+            LocalDate period,
+            int nights,
+            int roomsSold,
+            double occupancy,
+            int arrivals,
+            int departures,
+            int noShows,
+            int cancellations,
+            BigDecimal roomRevenue,
+            BigDecimal averageDailyRate
+    ) {}
+}
@@ -0,0 +1,40 @@
+package com.hotelmanager.report.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Agrégats journaliers d'un hôtel, tenus à jour à chaque création / changement de statut de réservation.
+ * Une ligne n'existe que pour les jours ayant eu au moins un mouvement.
+ */
+@Entity
+@Table(name = "hotel_daily_stats")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class HotelDailyStats {
+    @EmbeddedId
+    private HotelDayId id;
+
+    /** Nuitées vendues (PENDING, CONFIRMED, CHECKED_IN, COMPLETED). */
+    @Column(name = "rooms_sold", nullable = false)
+    private int roomsSold;
+
+    @Column(nullable = false)
+    private int arrivals;
+
+    @Column(nullable = false)
+    private int departures;
+
+    @Column(name = "no_shows", nullable = false)
+    private int noShows;
+
+    @Column(nullable = false)
+    private int cancellations;
+
+    /** Nuitées vendues dont le séjour porte un prix (dénominateur du prix moyen). */
+    @Column(name = "priced_rooms_sold", nullable = false, columnDefinition = "integer not null default 0")
+    private int pricedRoomsSold;
+
+    /** Chiffre d'affaires hébergement du jour, en centimes. */
+    @Column(name = "room_revenue_cents", nullable = false, columnDefinition = "bigint not null default 0")
+    private long roomRevenueCents;
+}
@@ -0,0 +1,30 @@
+package com.hotelmanager.report.repository;
+
+import com.hotelmanager.report.dto.DailyStatsRow;
+import com.hotelmanager.report.entity.HotelDailyStats;
+import com.hotelmanager.report.entity.HotelDayId;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface HotelDailyStatsRepository extends JpaRepository<HotelDailyStats, HotelDayId> {
+
+    @Query("""
+        select new com.hotelmanager.report.dto.DailyStatsRow(
+               s.id.day, s.roomsSold, s.arrivals, s.departures, s.noShows, s.cancellations,
+               s.pricedRoomsSold, s.roomRevenueCents)
+          from HotelDailyStats s
+         where s.id.hotelId = :hotelId
+           and s.id.day between :from and :to
+         order by s.id.day
+    """)
+    List<DailyStatsRow> findRange(
+        @Param("hotelId") Long hotelId,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to
+    );
+}
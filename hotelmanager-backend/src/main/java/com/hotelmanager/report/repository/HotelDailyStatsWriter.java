@@ -0,0 +1,76 @@
+package com.hotelmanager.report.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Écritures sur hotel_daily_stats par lots JDBC.
+ * Les valeurs sont indexées comme
+ * {@code [roomsSold, arrivals, departures, noShows, cancellations, pricedRoomsSold, roomRevenueCents]}.
+ *
+ * Verrou consultatif par hôtel : partagé pour les deltas (pas de contention entre réservations),
+ * exclusif pour un recalcul, qui ne peut donc pas perdre un delta concurrent.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HotelDailyStatsWriter {
+
+    private static final int LOCK_CLASS = 7141;
+
+    private final JdbcTemplate jdbc;
+
+    /** Ajoute des deltas, jour par jour, dans la transaction courante. */
+    public void addDeltas(Long hotelId, SortedMap<LocalDate, long[]> deltas) {
+        if (deltas.isEmpty()) return;
+        jdbc.execute("SELECT pg_advisory_xact_lock_shared(" + LOCK_CLASS + ", " + hotelId.intValue() + ")");
+
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((day, v) -> args.add(row(hotelId, day, v)));
+        jdbc.batchUpdate("""
+            INSERT INTO hotel_daily_stats (hotel_id, day, rooms_sold, arrivals, departures, no_shows, cancellations,
+                                           priced_rooms_sold, room_revenue_cents)
+            VALUES (?,?,?,?,?,?,?,?,?)
+            ON CONFLICT (hotel_id, day) DO UPDATE SET
+              rooms_sold    = hotel_daily_stats.rooms_sold    + EXCLUDED.rooms_sold,
+              arrivals      = hotel_daily_stats.arrivals      + EXCLUDED.arrivals,
+              departures    = hotel_daily_stats.departures    + EXCLUDED.departures,
+              no_shows      = hotel_daily_stats.no_shows      + EXCLUDED.no_shows,
+              cancellations = hotel_daily_stats.cancellations + EXCLUDED.cancellations,
+              priced_rooms_sold  = hotel_daily_stats.priced_rooms_sold  + EXCLUDED.priced_rooms_sold,
+              room_revenue_cents = hotel_daily_stats.room_revenue_cents + EXCLUDED.room_revenue_cents
+            """, args);
+    }
+
+    /** Verrou exclusif à prendre avant de relire les réservations d'une partition à recalculer. */
+    public void lockForRecompute(Long hotelId) {
+        jdbc.execute("SELECT pg_advisory_xact_lock(" + LOCK_CLASS + ", " + hotelId.intValue() + ")");
+    }
+
+    /** Remplace les agrégats de [from, to] par {@code values}, dans la transaction courante. */
+    public void replaceRange(Long hotelId, LocalDate from, LocalDate to, Map<LocalDate, long[]> values) {
+        jdbc.update("DELETE FROM hotel_daily_stats WHERE hotel_id = ? AND day BETWEEN ? AND ?",
+                hotelId, Date.valueOf(from), Date.valueOf(to));
+        if (values.isEmpty()) return;
+
+        List<Object[]> args = new ArrayList<>(values.size());
+        values.forEach((day, v) -> args.add(row(hotelId, day, v)));
+        jdbc.batchUpdate("""
+            INSERT INTO hotel_daily_stats (hotel_id, day, rooms_sold, arrivals, departures, no_shows, cancellations,
+                                           priced_rooms_sold, room_revenue_cents)
+            VALUES (?,?,?,?,?,?,?,?,?)
+            """, args);
+    }
+
+    private static Object[] row(Long hotelId, LocalDate day, long[] v) {
+        return new Object[]{hotelId, Date.valueOf(day),
+                (int) v[0], (int) v[1], (int) v[2], (int) v[3], (int) v[4], (int) v[5], v[6]};
+    }
+}
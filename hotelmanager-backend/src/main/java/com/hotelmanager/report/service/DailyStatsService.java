@@ -0,0 +1,225 @@
+package com.hotelmanager.report.service;
+
+import com.hotelmanager.common.exception.BusinessRuleException;
+import com.hotelmanager.common.exception.NotFoundException;
+import com.hotelmanager.hotel.entity.Hotel;
+import com.hotelmanager.hotel.repository.HotelRepository;
+import com.hotelmanager.report.dto.DailyStatsRow;
+import com.hotelmanager.report.dto.OccupancyReport;
+import com.hotelmanager.report.dto.OccupancyReport.Granularity;
+import com.hotelmanager.report.repository.HotelDailyStatsRepository;
+import com.hotelmanager.report.repository.HotelDailyStatsWriter;
+import com.hotelmanager.reservation.dto.StayStatus;
+import com.hotelmanager.reservation.event.ReservationChangedEvent;
+import com.hotelmanager.reservation.repository.ReservationRepository;
+import com.hotelmanager.reservation.service.HotelNights;
+import com.hotelmanager.room.entity.RoomState;
+import com.hotelmanager.room.repository.RoomRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Agrégats journaliers par hôtel (table hotel_daily_stats).
+ *
+ * - incrémental : chaque ReservationChangedEvent retire la contribution de l'ancien statut
+ *   et ajoute celle du nouveau, dans la transaction de la réservation
+ * - recalcul : partitions de dates traitées en parallèle (fork-join), une transaction par partition
+ * - lecture : uniquement les agrégats, jamais la table reservations
+ */
+@Slf4j
+@Service
+public class DailyStatsService {
+
+    private static final int PARTITION_DAYS = 31;
+    private static final int MAX_REPORT_DAYS = 3660;
+    private static final List<RoomState> UNSELLABLE = List.of(RoomState.INACTIVE, RoomState.MAINTENANCE);
+
+    private final HotelRepository hotelRepository;
+    private final RoomRepository roomRepository;
+    private final ReservationRepository reservationRepository;
+    private final HotelDailyStatsRepository statsRepository;
+    private final HotelDailyStatsWriter writer;
+    private final TransactionTemplate tx;
+    private final ForkJoinPool backfillPool;
+
+    public DailyStatsService(
+            HotelRepository hotelRepository,
+            RoomRepository roomRepository,
+            ReservationRepository reservationRepository,
+            HotelDailyStatsRepository statsRepository,
+            HotelDailyStatsWriter writer,
+            PlatformTransactionManager transactionManager,
+            @Value("${hotel.stats.backfill-parallelism:4}") int backfillParallelism
+    ) {
+        this.hotelRepository = hotelRepository;
+        this.roomRepository = roomRepository;
+        this.reservationRepository = reservationRepository;
+        this.statsRepository = statsRepository;
+        this.writer = writer;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.backfillPool = new ForkJoinPool(backfillParallelism);
+    }
+
+    /* =================== Incrémental =================== */
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (event.hotelId() == null || event.previousStatus() == event.status()) return;
+
+        HotelNights nights = HotelNights.of(hotelRepository.findById(event.hotelId()).orElse(null));
+        TreeMap<LocalDate, long[]> deltas = new TreeMap<>();
+        StayContributions.add(deltas, nights, event.startAt(), event.endAt(), event.previousStatus(), event.priceCents(),
+                -1, null, null);
+        StayContributions.add(deltas, nights, event.startAt(), event.endAt(), event.status(), event.priceCents(),
+                +1, null, null);
+        deltas.values().removeIf(StayContributions::isZero);
+
+        writer.addDeltas(event.hotelId(), deltas);
+    }
+
+    /* =================== Recalcul =================== */
+
+    /**
+     * Recalcule [from, to] depuis la table reservations, par partitions de {@value #PARTITION_DAYS} jours en parallèle.
+     *
+     * @return nombre de jours recalculés
+     */
+    public int backfill(Long hotelId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        Hotel hotel = hotelRepository.findById(hotelId)
+                .orElseThrow(() -> new NotFoundException("Hôtel introuvable."));
+        HotelNights nights = HotelNights.of(hotel);
+
+        long started = System.nanoTime();
+        int days = backfillPool.invoke(new Partition(hotelId, nights, from, to));
+        log.info("Agrégats recalculés pour l'hôtel {} : {} jour(s) en {} ms",
+                hotelId, days, (System.nanoTime() - started) / 1_000_000);
+        return days;
+    }
+
+    private int recomputePartition(Long hotelId, HotelNights nights, LocalDate from, LocalDate to) {
+        tx.executeWithoutResult(status -> {
+            writer.lockForRecompute(hotelId);
+
+            // Fenêtre élargie d'un jour de chaque côté : les contributions sont ensuite coupées à [from, to].
+            OffsetDateTime windowStart = from.minusDays(1).atStartOfDay(nights.zone()).toOffsetDateTime();
+            OffsetDateTime windowEnd = to.plusDays(2).atStartOfDay(nights.zone()).toOffsetDateTime();
+
+            Map<LocalDate, long[]> values = new HashMap<>();
+            for (StayStatus s : reservationRepository.findStayStatusesInWindow(hotelId, windowStart, windowEnd)) {
+                StayContributions.add(values, nights, s.startAt(), s.endAt(), s.status(), s.priceCents(), +1, from, to);
+            }
+            values.values().removeIf(StayContributions::isZero);
+            writer.replaceRange(hotelId, from, to, values);
+        });
+        return (int) ChronoUnit.DAYS.between(from, to) + 1;
+    }
+
+    private final class Partition extends RecursiveTask<Integer> {
+        private final Long hotelId;
+        private final HotelNights nights;
+        private final LocalDate from;
+        private final LocalDate to;
+
+        Partition(Long hotelId, HotelNights nights, LocalDate from, LocalDate to) {
+            this.hotelId = hotelId;
+            this.nights = nights;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            long days = ChronoUnit.DAYS.between(from, to) + 1;
+            if (days <= PARTITION_DAYS) {
+                return recomputePartition(hotelId, nights, from, to);
+            }
+            LocalDate mid = from.plusDays(days / 2 - 1);
+            Partition left = new Partition(hotelId, nights, from, mid);
+            Partition right = new Partition(hotelId, nights, mid.plusDays(1), to);
+            left.fork();
+            return right.compute() + left.join();
+        }
+    }
+
+    /* =================== Lecture =================== */
+
+    @Transactional(readOnly = true)
+    public OccupancyReport occupancy(Long hotelId, LocalDate from, LocalDate to, Granularity granularity) {
+        checkRange(from, to);
+        Granularity g = granularity == null ? Granularity.DAY : granularity;
+        int sellable = roomRepository.findSellableRoomTypes(hotelId, UNSELLABLE).size();
+
+        Map<LocalDate, DailyStatsRow> byDay = new HashMap<>();
+        for (DailyStatsRow r : statsRepository.findRange(hotelId, from, to)) byDay.put(r.day(), r);
+
+        List<OccupancyReport.Point> points = new ArrayList<>();
+        LocalDate periodStart = from;
+        while (!periodStart.isAfter(to)) {
+            LocalDate next = nextPeriod(periodStart, g);
+            LocalDate periodEnd = next.isAfter(to) ? to : next.minusDays(1);
+
+            int nights = 0, sold = 0, arrivals = 0, departures = 0, noShows = 0, cancellations = 0, pricedSold = 0;
+            long revenueCents = 0;
+            for (LocalDate d = periodStart; !d.isAfter(periodEnd); d = d.plusDays(1)) {
+                nights++;
+                DailyStatsRow r = byDay.get(d);
+                if (r == null) continue;
+                sold += r.roomsSold();
+                arrivals += r.arrivals();
+                departures += r.departures();
+                noShows += r.noShows();
+                cancellations += r.cancellations();
+                pricedSold += r.pricedRoomsSold();
+                revenueCents += r.roomRevenueCents();
+            }
+            double occupancy = sellable == 0 ? 0d : (double) sold / ((long) sellable * nights);
+            BigDecimal adr = pricedSold == 0 ? null
+                    : BigDecimal.valueOf(revenueCents, 2).divide(BigDecimal.valueOf(pricedSold), 2, RoundingMode.HALF_UP);
+            points.add(new OccupancyReport.Point(
+                    periodStart, nights, sold, occupancy, arrivals, departures, noShows, cancellations,
+                    BigDecimal.valueOf(revenueCents, 2), adr));
+            periodStart = periodEnd.plusDays(1);
+        }
+
+        return new OccupancyReport(hotelId, from, to, g, sellable, points);
+    }
+
+    private static LocalDate nextPeriod(LocalDate d, Granularity g) {
+        return switch (g) {
+            case DAY -> d.plusDays(1);
+            case WEEK -> d.with(DayOfWeek.MONDAY).plusWeeks(1);
+            case MONTH -> d.withDayOfMonth(1).plusMonths(1);
+        };
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new BusinessRuleException("Intervalle de dates invalide.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_REPORT_DAYS) {
+            throw new BusinessRuleException("Intervalle trop large (max " + MAX_REPORT_DAYS + " jours).");
+        }
+    }
+}
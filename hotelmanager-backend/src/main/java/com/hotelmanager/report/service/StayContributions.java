@@ -0,0 +1,93 @@
+package com.hotelmanager.report.service;
+
+import com.hotelmanager.reservation.entity.ReservationStatus;
+import com.hotelmanager.reservation.service.HotelNights;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Contribution d'une réservation aux agrégats journaliers, selon son statut :
+ *
+ * - nuitées vendues sur chaque nuit du séjour, arrivée et départ : statuts "vendus"
+ * - no-show et annulation : comptés au jour d'arrivée prévu
+ * - chiffre d'affaires : prix du séjour réparti au centime près sur ses nuitées, pour les séjours tarifés ;
+ *   PRICED_SOLD compte ces nuitées, dénominateur du prix moyen (les séjours sans prix en sont exclus)
+ *
+ * Le même calcul sert aux deltas incrémentaux (ancien statut retiré, nouveau ajouté) et au recalcul complet.
+ */
+final class StayContributions {
+
+    static final int SOLD = 0, ARRIVALS = 1, DEPARTURES = 2, NO_SHOWS = 3, CANCELLATIONS = 4,
+            PRICED_SOLD = 5, REVENUE_CENTS = 6;
+    static final int WIDTH = 7;
+
+    private static final Set<ReservationStatus> SOLD_STATUSES = EnumSet.of(
+            ReservationStatus.PENDING, ReservationStatus.CONFIRMED,
+            ReservationStatus.CHECKED_IN, ReservationStatus.COMPLETED);
+
+    private StayContributions() {}
+
+    /**
+     * Ajoute {@code sign} × contribution dans {@code acc}, en ne gardant que les jours de [clipFrom, clipTo].
+     */
+    static void add(Map<LocalDate, long[]> acc, HotelNights nights,
+                    OffsetDateTime startAt, OffsetDateTime endAt, ReservationStatus status, Long priceCents,
+                    int sign, LocalDate clipFrom, LocalDate clipTo) {
+        if (status == null || startAt == null || endAt == null) return;
+
+        LocalDate arrival = startAt.atZoneSameInstant(nights.zone()).toLocalDate();
+
+        if (status == ReservationStatus.NO_SHOW) {
+            bump(acc, arrival, NO_SHOWS, sign, clipFrom, clipTo);
+            return;
+        }
+        if (status == ReservationStatus.CANCELED) {
+            bump(acc, arrival, CANCELLATIONS, sign, clipFrom, clipTo);
+            return;
+        }
+        if (!SOLD_STATUSES.contains(status)) return;
+
+        bump(acc, arrival, ARRIVALS, sign, clipFrom, clipTo);
+        bump(acc, endAt.atZoneSameInstant(nights.zone()).toLocalDate(), DEPARTURES, sign, clipFrom, clipTo);
+
+        LocalDate stayFirst = nights.firstNight(startAt);
+        LocalDate stayLast = nights.lastNight(endAt);
+        long count = ChronoUnit.DAYS.between(stayFirst, stayLast) + 1;
+
+        // Répartition sur le séjour entier (avant découpe) : le reste va aux premières nuits.
+        long share = 0, remainder = 0;
+        if (priceCents != null && count > 0) {
+            share = priceCents / count;
+            remainder = priceCents % count;
+        }
+
+        LocalDate first = clipFrom != null && stayFirst.isBefore(clipFrom) ? clipFrom : stayFirst;
+        LocalDate last = clipTo != null && stayLast.isAfter(clipTo) ? clipTo : stayLast;
+        for (LocalDate d = first; !d.isAfter(last); d = d.plusDays(1)) {
+            long[] v = acc.computeIfAbsent(d, k -> new long[WIDTH]);
+            v[SOLD] += sign;
+            if (priceCents != null) {
+                long index = ChronoUnit.DAYS.between(stayFirst, d);
+                v[PRICED_SOLD] += sign;
+                v[REVENUE_CENTS] += sign * (share + (index < remainder ? 1 : 0));
+            }
+        }
+    }
+
+    static boolean isZero(long[] v) {
+        for (long x : v) if (x != 0) return false;
+        return true;
+    }
+
+    private static void bump(Map<LocalDate, long[]> acc, LocalDate day, int index, int sign,
+                             LocalDate clipFrom, LocalDate clipTo) {
+        if (clipFrom != null && day.isBefore(clipFrom)) return;
+        if (clipTo != null && day.isAfter(clipTo)) return;
+        acc.computeIfAbsent(day, k -> new long[WIDTH])[index] += sign;
+    }
+}
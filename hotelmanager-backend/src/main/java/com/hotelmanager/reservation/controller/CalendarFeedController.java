@@ -0,0 +1,65 @@
+package com.hotelmanager.reservation.controller;
+
+import com.hotelmanager.reservation.service.CalendarFeedService;
+import com.hotelmanager.user.entity.User;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Flux iCalendar (.ics) pour tablettes d'étage et agendas externes, avec GET conditionnel
+ * (If-None-Match / If-Modified-Since) : un sondage sans changement renvoie 304 sans construire le corps.
+ */
+@RestController
+@RequestMapping("/api/calendar")
+@PreAuthorize("hasAnyRole('MANAGER','EMPLOYE')")
+@RequiredArgsConstructor
+public class CalendarFeedController {
+
+    private static final MediaType TEXT_CALENDAR = new MediaType("text", "calendar", StandardCharsets.UTF_8);
+
+    private final CalendarFeedService feedService;
+
+    @GetMapping("/hotel.ics")
+    public ResponseEntity<String> hotelFeed(@AuthenticationPrincipal User currentUser, WebRequest request) {
+        return feed(hotelId(currentUser), null, "Réservations", request);
+    }
+
+    @GetMapping("/rooms/{roomId}.ics")
+    public ResponseEntity<String> roomFeed(@PathVariable Long roomId,
+                                           @AuthenticationPrincipal User currentUser,
+                                           WebRequest request) {
+        return feed(hotelId(currentUser), roomId, "Réservations chambre " + roomId, request);
+    }
+
+    private ResponseEntity<String> feed(Long hotelId, Long roomId, String name, WebRequest request) {
+        var state = feedService.state(hotelId, roomId);
+        if (request.checkNotModified(state.etag(), state.lastModifiedMillis())) {
+            return null;
+        }
+
+        var response = ResponseEntity.ok()
+                .contentType(TEXT_CALENDAR)
+                .cacheControl(CacheControl.noCache())
+                .eTag(state.etag());
+        if (state.lastModified() != null) response.lastModified(state.lastModified().toInstant());
+        return response.body(feedService.render(state, name));
+    }
+
+    private static Long hotelId(User currentUser) {
+        if (currentUser.getHotel() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Aucun hôtel associé");
+        }
+        return currentUser.getHotel().getId();
+    }
+}
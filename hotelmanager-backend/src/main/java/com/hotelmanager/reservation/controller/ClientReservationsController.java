@@ -1,7 +1,7 @@
 
 package com.hotelmanager.reservation.controller;
 
-import com.hotelmanager.reservation.controller.ManagerReservationsController.ReservationDto;
+import com.hotelmanager.reservation.dto.ReservationDto;
 import com.hotelmanager.reservation.entity.Reservation;
 import com.hotelmanager.reservation.entity.ReservationStatus;
 import com.hotelmanager.reservation.repository.ReservationRepository;
@@ -42,7 +42,7 @@ public class ClientReservationsController {
      * Liste les réservations du client connecté
      */
     @GetMapping
-    public ResponseEntity<List<ManagerReservationsController.ReservationDto>> myReservations(
+    public ResponseEntity<List<ReservationDto>> myReservations(
             @AuthenticationPrincipal User principal
     ) {
         // Sécurise un user "fresh"
@@ -52,7 +52,7 @@ public class ClientReservationsController {
         var rows = reservationRepository.findByClientId(me.getId());
 
         var dto = rows.stream()
-                .map(ManagerReservationsController.ReservationDto::fromEntity)
+                .map(ReservationDto::fromEntity)
                 .toList();
 
         return ResponseEntity.ok(dto);
@@ -92,11 +92,12 @@ public class ClientReservationsController {
             return ResponseEntity.badRequest().build();
         }
 
+        var previous = res.getStatus();
         res.setStatus(ReservationStatus.CANCELED);
         reservationRepository.save(res);
 
         // Sync état room
-        sync.applyStatusToRoom(res);
+        sync.applyStatusToRoom(res, previous);
 
         return ResponseEntity.noContent().build();
     }
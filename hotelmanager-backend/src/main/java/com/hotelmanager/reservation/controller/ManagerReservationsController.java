@@ -1,20 +1,32 @@
 package com.hotelmanager.reservation.controller;
 
+import com.hotelmanager.common.export.ExportFormat;
+import com.hotelmanager.common.export.StreamingExporter;
+import com.hotelmanager.reservation.dto.AssignmentReport;
+import com.hotelmanager.reservation.dto.ReservationDto;
+import com.hotelmanager.reservation.dto.ReservationFilter;
+import com.hotelmanager.reservation.dto.ReservationPage;
 import com.hotelmanager.reservation.entity.Reservation;
 import com.hotelmanager.reservation.entity.ReservationStatus;
 import com.hotelmanager.reservation.repository.ReservationRepository;
 import com.hotelmanager.reservation.service.PublicReservationService;
+import com.hotelmanager.reservation.service.ReservationExportService;
+import com.hotelmanager.reservation.service.RoomAssignmentService;
 import com.hotelmanager.reservation.service.RoomReservationSync;
 import com.hotelmanager.user.entity.User;
 import com.hotelmanager.user.repository.UserRepository;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -29,17 +41,26 @@ public class ManagerReservationsController {
     private final ReservationRepository reservationRepository;
     private final RoomReservationSync sync;
     private final UserRepository userRepository;
+    private final ReservationExportService exportService;
+    private final RoomAssignmentService assignmentService;
+    private final StreamingExporter exporter;
 
     public ManagerReservationsController(
             PublicReservationService service,
             ReservationRepository reservationRepository,
             RoomReservationSync sync,
-            UserRepository userRepository
+            UserRepository userRepository,
+            ReservationExportService exportService,
+            RoomAssignmentService assignmentService,
+            StreamingExporter exporter
     ) {
         this.service = service;
         this.reservationRepository = reservationRepository;
         this.sync = sync;
         this.userRepository = userRepository;
+        this.exportService = exportService;
+        this.assignmentService = assignmentService;
+        this.exporter = exporter;
     }
 
     private Long currentHotelId() {
@@ -51,11 +72,72 @@ public class ManagerReservationsController {
         return u.getHotel().getId();
     }
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int LEGACY_LIST_LIMIT = 1000;
+
+    /**
+     * Ancien listing non paginé, conservé pour les clients existants : limité aux
+     * {@value #LEGACY_LIST_LIMIT} réservations les plus récentes. Utiliser /search.
+     * Une liste coupée est signalée par l'en-tête X-Truncated: true.
+     */
+    @Deprecated
     @GetMapping
     public ResponseEntity<List<ReservationDto>> listReservations() {
         var hotelId = currentHotelId();
-        var all = reservationRepository.findByHotelId(hotelId);
-        return ResponseEntity.ok(all.stream().map(ReservationDto::fromEntity).toList());
+        var rows = reservationRepository.search(hotelId, ReservationFilter.none(), LEGACY_LIST_LIMIT + 1);
+        boolean truncated = rows.size() > LEGACY_LIST_LIMIT;
+        if (truncated) rows = rows.subList(0, LEGACY_LIST_LIMIT);
+        return ResponseEntity.ok()
+                .header("Deprecation", "true")
+                .header(HttpHeaders.LINK, "</api/reservations/search>; rel=\"successor-version\"")
+                .header("X-Truncated", String.valueOf(truncated))
+                .body(rows.stream().map(ReservationDto::fromRow).toList());
+    }
+
+    /**
+     * Listing paginé par curseur (startAt desc, id desc) avec filtres optionnels.
+     * Coût constant quel que soit l'historique : index (hotel_id, start_at, id).
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ReservationPage> searchReservations(
+            @RequestParam(required = false) ReservationStatus status,
+            @RequestParam(required = false) Long roomId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(required = false) String guest,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime afterStartAt,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        var filter = new ReservationFilter(status, roomId, from, to, guest, afterStartAt, afterId);
+        var rows = reservationRepository.search(currentHotelId(), filter, size + 1);
+
+        boolean hasNext = rows.size() > size;
+        var page = hasNext ? rows.subList(0, size) : rows;
+        var last = hasNext ? page.get(page.size() - 1) : null;
+
+        return ResponseEntity.ok(new ReservationPage(
+                page.stream().map(ReservationDto::fromRow).toList(),
+                last == null ? null : last.startAt(),
+                last == null ? null : last.id()));
+    }
+
+    /**
+     * Export complet (CSV ou NDJSON) écrit au fil de l'eau. Reprise : afterId = dernier id reçu,
+     * untilId = valeur de l'en-tête X-Export-Until-Id de la première réponse.
+     */
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportReservations(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(required = false) Long untilId,
+            HttpServletResponse response
+    ) {
+        var hotelId = currentHotelId();
+        long until = untilId != null ? untilId : exportService.currentMaxId(hotelId);
+        return exporter.attachment(response, "reservations-" + hotelId, format, until,
+                out -> exportService.export(hotelId, format, afterId, until, out));
     }
 
     @GetMapping("/{id}/allowed-status")
@@ -83,13 +165,23 @@ public class ManagerReservationsController {
             return ResponseEntity.badRequest().build();
         }
 
+        var previous = res.getStatus();
         res.setStatus(req.status());
         reservationRepository.save(res);
-        sync.applyStatusToRoom(res);
+        sync.applyStatusToRoom(res, previous);
 
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Réattribue tout de suite (sans attendre la passe nocturne) les chambres des réservations
+     * par type pas encore arrivées, et indique les nuits orphelines récupérées.
+     */
+    @PostMapping("/assignment/optimize")
+    public ResponseEntity<AssignmentReport> optimizeAssignment() {
+        return ResponseEntity.ok(assignmentService.optimize(currentHotelId()));
+    }
+
     private List<ReservationStatus> getAllowedTransitions(ReservationStatus current) {
         return switch (current) {
             case PENDING   -> List.of(ReservationStatus.CONFIRMED, ReservationStatus.CANCELED);
@@ -100,46 +192,5 @@ public class ManagerReservationsController {
         };
     }
 
-    public record ReservationDto(
-            Long id,
-            RoomLite room,
-            UserLite client,
-            String guestFirstName,
-            String guestLastName,
-            String guestPhone,
-            OffsetDateTime startAt,
-            OffsetDateTime endAt,
-            ReservationStatus status,
-            Long version
-    ) {
-        public static ReservationDto fromEntity(Reservation r) {
-            return new ReservationDto(
-                    r.getId(),
-                    r.getRoom() == null ? null : new RoomLite(
-                            r.getRoom().getId(),
-                            r.getRoom().getRoomNumber(),
-                            r.getRoom().getRoomType(),
-                            r.getRoom().getFloor()
-                    ),
-                    r.getClient() == null ? null : new UserLite(
-                            r.getClient().getId(),
-                            r.getClient().getFirstName(),
-                            r.getClient().getLastName(),
-                            r.getClient().getEmail(),
-                            null
-                    ),
-                    r.getGuestFirstName(),
-                    r.getGuestLastName(),
-                    r.getGuestPhone(),  
-                    r.getStartAt(),
-                    r.getEndAt(),
-                    r.getStatus(),
-                    r.getVersion()
-            );
-        }
-    }
-
-    public record RoomLite(Long id, Integer roomNumber, String roomType, Integer floor) {}
-    public record UserLite(Long id, String firstName, String lastName, String email, String phone) {}
     public record UpdateStatusRequest(ReservationStatus status) {}
 }
@@ -0,0 +1,51 @@
+package com.hotelmanager.reservation.controller;
+
+import com.hotelmanager.common.idempotency.IdempotencyService;
+import com.hotelmanager.reservation.dto.HoldConfirmRequest;
+import com.hotelmanager.reservation.dto.HoldRequest;
+import com.hotelmanager.reservation.dto.HoldResponse;
+import com.hotelmanager.reservation.dto.PublicReservationResponse;
+import com.hotelmanager.reservation.service.HoldService;
+
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Options temporaires : poser une option pendant la saisie, puis la confirmer (ou la relâcher).
+ */
+@RestController
+@RequestMapping("/public/holds")
+@CrossOrigin(origins = "http://localhost:3000")
+public class PublicHoldsController {
+
+    private final HoldService holdService;
+    private final IdempotencyService idempotency;
+
+    public PublicHoldsController(HoldService holdService, IdempotencyService idempotency) {
+        this.holdService = holdService;
+        this.idempotency = idempotency;
+    }
+
+    @PostMapping
+    public ResponseEntity<HoldResponse> hold(@Valid @RequestBody HoldRequest req) {
+        return ResponseEntity.status(201).body(holdService.hold(req));
+    }
+
+    @PostMapping("/{holdId}/confirm")
+    public ResponseEntity<PublicReservationResponse> confirm(
+            @PathVariable Long holdId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody HoldConfirmRequest req) {
+        PublicReservationResponse resp = idempotency.execute(
+                "public-hold-confirm:" + holdId, idempotencyKey, req, PublicReservationResponse.class,
+                () -> holdService.confirm(holdId, req));
+        return ResponseEntity.status(201).body(resp);
+    }
+
+    @DeleteMapping("/{holdId}")
+    public ResponseEntity<Void> release(@PathVariable Long holdId, @RequestParam String token) {
+        holdService.release(holdId, token);
+        return ResponseEntity.noContent().build();
+    }
+}
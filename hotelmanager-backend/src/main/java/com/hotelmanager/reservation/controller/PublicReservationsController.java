@@ -1,53 +1,142 @@
 package com.hotelmanager.reservation.controller;
 
+import com.hotelmanager.common.idempotency.IdempotencyService;
+import com.hotelmanager.reservation.dto.GroupReservationRequest;
+import com.hotelmanager.reservation.dto.GroupReservationResponse;
 import com.hotelmanager.reservation.dto.PublicReservationRequest;
 import com.hotelmanager.reservation.dto.PublicReservationResponse;
+import com.hotelmanager.reservation.dto.TypeReservationRequest;
+import com.hotelmanager.reservation.service.AvailabilityMatrixService;
+import com.hotelmanager.reservation.service.AvailabilityResponseCache;
+import com.hotelmanager.reservation.service.GroupReservationService;
 import com.hotelmanager.reservation.service.PublicReservationService;
-import com.hotelmanager.room.entity.Room;
+import com.hotelmanager.reservation.service.RoomAssignmentService;
 
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
-import java.util.List;
+import java.time.ZoneId;
 
 @RestController
 @RequestMapping("/public")
 @CrossOrigin(origins = "http://localhost:3000")
 public class PublicReservationsController {
 
+    private static final CacheControl AVAILABILITY_CACHE = CacheControl.maxAge(Duration.ofSeconds(10)).cachePublic();
+    private static final CacheControl MATRIX_CACHE = CacheControl.maxAge(Duration.ofSeconds(30)).cachePublic();
+
     private final PublicReservationService service;
+    private final AvailabilityMatrixService matrixService;
+    private final AvailabilityResponseCache cache;
+    private final GroupReservationService groupService;
+    private final IdempotencyService idempotency;
+    private final RoomAssignmentService assignmentService;
 
-    public PublicReservationsController(PublicReservationService service) {
+    public PublicReservationsController(PublicReservationService service,
+                                        AvailabilityMatrixService matrixService,
+                                        AvailabilityResponseCache cache,
+                                        GroupReservationService groupService,
+                                        IdempotencyService idempotency,
+                                        RoomAssignmentService assignmentService) {
         this.service = service;
+        this.matrixService = matrixService;
+        this.cache = cache;
+        this.groupService = groupService;
+        this.idempotency = idempotency;
+        this.assignmentService = assignmentService;
     }
 
     @GetMapping("/hotels/{hotelId}/rooms/available")
-    public ResponseEntity<List<Room>> available(
+    public ResponseEntity<byte[]> available(
             @PathVariable Long hotelId,
             @RequestParam("start")
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime startAt,
             @RequestParam("end")
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime endAt
     ) {
-        return ResponseEntity.ok(service.listAvailableRooms(hotelId, startAt, endAt));
+        byte[] body = cache.get("rooms", hotelId, startAt, endAt,
+                () -> service.listAvailableRooms(hotelId, startAt, endAt));
+        return json(body, AVAILABILITY_CACHE);
     }
 
+    /**
+     * Disponibilités par nuit et par type de chambre sur [from, to) : une requête par vue calendrier.
+     * Un If-None-Match correspondant à l'ETag renvoie 304.
+     */
+    @GetMapping("/hotels/{hotelId}/availability")
+    public ResponseEntity<byte[]> availabilityMatrix(
+            @PathVariable Long hotelId,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        // Clé d'invalidation volontairement large : de minuit "from" à minuit "to + 1".
+        ZoneId zone = ZoneId.systemDefault();
+        OffsetDateTime start = from.atStartOfDay(zone).toOffsetDateTime();
+        OffsetDateTime end = to.plusDays(1).atStartOfDay(zone).toOffsetDateTime();
+
+        byte[] body = cache.get("matrix", hotelId, start, end,
+                () -> matrixService.compute(hotelId, from, to));
+        return json(body, MATRIX_CACHE);
+    }
+
+    /**
+     * Un en-tête Idempotency-Key facultatif rend la requête rejouable : un renvoi
+     * avec la même clé retourne la réservation déjà créée.
+     */
     @PostMapping("/reservations")
     public ResponseEntity<PublicReservationResponse> reserve(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody PublicReservationRequest req) {
-        PublicReservationResponse resp = service.reserve(
-                req.hotelId(),
-                req.roomId(),
-                req.startAt(),
-                req.endAt(),
-                req.firstName(),
-                req.lastName(),
-                req.guestPhone() 
-        );
+        PublicReservationResponse resp = idempotency.execute(
+                "public-reservation", idempotencyKey, req, PublicReservationResponse.class,
+                () -> service.reserve(
+                        req.hotelId(),
+                        req.roomId(),
+                        req.startAt(),
+                        req.endAt(),
+                        req.firstName(),
+                        req.lastName(),
+                        req.guestPhone()
+                ));
         return ResponseEntity.status(201).body(resp);
     }
 
+    @PostMapping("/reservations/group")
+    public ResponseEntity<GroupReservationResponse> reserveGroup(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody GroupReservationRequest req) {
+        GroupReservationResponse resp = idempotency.execute(
+                "public-group-reservation", idempotencyKey, req, GroupReservationResponse.class,
+                () -> groupService.reserve(req));
+        return ResponseEntity.status(201).body(resp);
+    }
+
+    /**
+     * Réservation d'un type de chambre : l'hôtel choisit la chambre qui fragmente le moins son planning.
+     */
+    @PostMapping("/reservations/by-type")
+    public ResponseEntity<PublicReservationResponse> reserveByType(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody TypeReservationRequest req) {
+        PublicReservationResponse resp = idempotency.execute(
+                "public-type-reservation", idempotencyKey, req, PublicReservationResponse.class,
+                () -> assignmentService.reserveByType(req));
+        return ResponseEntity.status(201).body(resp);
+    }
+
+    private static ResponseEntity<byte[]> json(byte[] body, CacheControl cacheControl) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(cacheControl)
+                .eTag("W/\"" + DigestUtils.md5DigestAsHex(body) + "\"")
+                .body(body);
+    }
 }
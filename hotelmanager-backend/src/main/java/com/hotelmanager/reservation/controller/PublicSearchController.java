@@ -0,0 +1,42 @@
+package com.hotelmanager.reservation.controller;
+
+import com.hotelmanager.reservation.service.MultiHotelSearchService;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/public/search")
+@CrossOrigin(origins = "http://localhost:3000")
+@RequiredArgsConstructor
+public class PublicSearchController {
+
+    private final MultiHotelSearchService searchService;
+
+    /**
+     * Disponibilités de tous les hôtels actifs (ou de hotelIds) sur [start, end), en NDJSON :
+     * une ligne par hôtel dès qu'il a répondu, puis une ligne de synthèse {"done":true,...}.
+     */
+    @GetMapping(value = "/availability", produces = "application/x-ndjson")
+    public ResponseEntity<ResponseBodyEmitter> availability(
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime startAt,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime endAt,
+            @RequestParam(required = false) String roomType,
+            @RequestParam(defaultValue = "1") int rooms,
+            @RequestParam(required = false) List<Long> hotelIds,
+            @RequestParam(required = false) String q
+    ) {
+        ResponseBodyEmitter emitter = searchService.search(startAt, endAt, roomType, rooms, hotelIds, q);
+        return ResponseEntity.ok()
+                .contentType(MultiHotelSearchService.NDJSON)
+                .cacheControl(CacheControl.noStore())
+                .body(emitter);
+    }
+}
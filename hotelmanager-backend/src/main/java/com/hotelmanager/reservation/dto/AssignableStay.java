@@ -0,0 +1,18 @@
+package com.hotelmanager.reservation.dto;
+
+import com.hotelmanager.reservation.entity.ReservationStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Projection d'un séjour actif pour le placement et la réattribution des chambres.
+ */
+public record AssignableStay(
+        Long id,
+        Long roomId,
+        OffsetDateTime startAt,
+        OffsetDateTime endAt,
+        ReservationStatus status,
+        boolean roomFlexible,
+        Long version
+) {}
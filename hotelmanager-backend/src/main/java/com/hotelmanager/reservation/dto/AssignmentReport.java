@@ -0,0 +1,15 @@
+package com.hotelmanager.reservation.dto;
+
+/**
+ * Résultat d'une réattribution des chambres d'un hôtel.
+ * recoveredRoomNights : nuits orphelines (invendables) redevenues vendables.
+ */
+public record AssignmentReport(
+        Long hotelId,
+        int roomTypes,
+        int movedReservations,
+        int orphanNightsBefore,
+        int orphanNightsAfter,
+        int recoveredRoomNights,
+        long elapsedMillis
+) {}
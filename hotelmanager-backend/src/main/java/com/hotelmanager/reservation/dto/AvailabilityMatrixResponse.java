@@ -0,0 +1,17 @@
+package com.hotelmanager.reservation.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Disponibilités par nuit et par type de chambre sur une fenêtre [from, to).
+ * available[i] correspond à la nuit from + i.
+ */
+public record AvailabilityMatrixResponse(
+        Long hotelId,
+        LocalDate from,
+        LocalDate to,
+        List<RoomTypeAvailability> roomTypes
+) {
+    public record RoomTypeAvailability(String roomType, int total, int[] available) {}
+}
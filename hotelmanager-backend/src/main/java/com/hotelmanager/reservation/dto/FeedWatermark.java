@@ -0,0 +1,8 @@
+package com.hotelmanager.reservation.dto;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Dernière modification et nombre de réservations d'un flux : suffit à décider d'un 304.
+ */
+public record FeedWatermark(OffsetDateTime lastModified, Long count) {}
@@ -0,0 +1,35 @@
+package com.hotelmanager.reservation.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Réservation de groupe : chambres explicites (roomIds) et/ou quantités par type (roomTypes),
+ * toutes sur le même intervalle, pour un seul compte client.
+ */
+public record GroupReservationRequest(
+        @NotNull Long hotelId,
+        @NotNull OffsetDateTime startAt,
+        @NotNull OffsetDateTime endAt,
+        @NotBlank String firstName,
+        @NotBlank String lastName,
+        @NotBlank String guestPhone,
+        List<Long> roomIds,
+        List<@Valid RoomTypeQuantity> roomTypes,
+        FillStrategy strategy,
+        boolean allowPartial
+) {
+    public record RoomTypeQuantity(@NotBlank String roomType, @Min(1) int quantity) {}
+
+    /**
+     * Remplacement d'une chambre demandée indisponible :
+     * NONE = aucun, SAME_TYPE = même type à l'étage le plus proche,
+     * NEAREST_FLOOR = même type en priorité, sinon n'importe quel type à l'étage le plus proche.
+     */
+    public enum FillStrategy { NONE, SAME_TYPE, NEAREST_FLOOR }
+}
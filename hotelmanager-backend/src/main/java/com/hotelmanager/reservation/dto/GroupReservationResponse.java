@@ -0,0 +1,39 @@
+package com.hotelmanager.reservation.dto;
+
+import com.hotelmanager.common.idempotency.ReplaySafe;
+
+import java.util.List;
+
+/**
+ * accountExisted, replayed : voir {@link PublicReservationResponse}.
+ */
+public record GroupReservationResponse(
+        List<Line> reservations,
+        List<String> unfilled,
+        String email,
+        String generatedPassword,
+        boolean accountExisted,
+        boolean replayed
+) implements ReplaySafe<GroupReservationResponse> {
+
+    public GroupReservationResponse(List<Line> reservations, List<String> unfilled,
+                                    String email, String generatedPassword, boolean accountExisted) {
+        this(reservations, unfilled, email, generatedPassword, accountExisted, false);
+    }
+
+    /** Le mot de passe généré n'est rendu qu'à la première réponse. */
+    @Override
+    public GroupReservationResponse forReplay() {
+        return new GroupReservationResponse(reservations, unfilled, email, null, accountExisted, true);
+    }
+
+    /** requestedRoomId est null pour une chambre attribuée sur demande par type. */
+    public record Line(
+            Long reservationId,
+            Long roomId,
+            int roomNumber,
+            String roomType,
+            int floor,
+            Long requestedRoomId
+    ) {}
+}
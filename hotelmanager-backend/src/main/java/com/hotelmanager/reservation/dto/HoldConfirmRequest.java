@@ -0,0 +1,10 @@
+package com.hotelmanager.reservation.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record HoldConfirmRequest(
+        @NotBlank String token,
+        @NotBlank String firstName,
+        @NotBlank String lastName,
+        @NotBlank String guestPhone
+) {}
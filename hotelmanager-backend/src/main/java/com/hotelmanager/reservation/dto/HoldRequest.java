@@ -0,0 +1,12 @@
+package com.hotelmanager.reservation.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.OffsetDateTime;
+
+public record HoldRequest(
+        @NotNull Long hotelId,
+        @NotNull Long roomId,
+        @NotNull OffsetDateTime startAt,
+        @NotNull OffsetDateTime endAt
+) {}
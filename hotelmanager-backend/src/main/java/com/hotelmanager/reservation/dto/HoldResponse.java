@@ -0,0 +1,6 @@
+package com.hotelmanager.reservation.dto;
+
+import java.time.OffsetDateTime;
+
+/** token est à renvoyer pour confirmer ou relâcher l'option. */
+public record HoldResponse(Long holdId, String token, OffsetDateTime expiresAt) {}
@@ -0,0 +1,28 @@
+package com.hotelmanager.reservation.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Une ligne du flux de recherche multi-hôtels, émise dès que l'hôtel a répondu.
+ * lowestTotal : prix du séjour le plus bas parmi les chambres tarifées, sinon null.
+ */
+public record HotelSearchResult(
+        Long hotelId,
+        String name,
+        String address,
+        Status status,
+        int availableRooms,
+        BigDecimal lowestTotal,
+        Map<String, Integer> roomsByType
+) {
+    /**
+     * AVAILABLE / FULL : réponse obtenue ; TIMEOUT : délai par hôtel dépassé ;
+     * SKIPPED : pool de recherche saturé ; ERROR : échec de l'évaluation.
+     */
+    public enum Status { AVAILABLE, FULL, TIMEOUT, SKIPPED, ERROR }
+
+    public static HotelSearchResult failed(Long hotelId, String name, String address, Status status) {
+        return new HotelSearchResult(hotelId, name, address, status, 0, null, Map.of());
+    }
+}
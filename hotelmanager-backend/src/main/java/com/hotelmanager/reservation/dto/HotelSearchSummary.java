@@ -0,0 +1,12 @@
+package com.hotelmanager.reservation.dto;
+
+/**
+ * Dernière ligne du flux de recherche multi-hôtels.
+ */
+public record HotelSearchSummary(
+        boolean done,
+        int hotels,
+        int available,
+        int timedOut,
+        long elapsedMillis
+) {}
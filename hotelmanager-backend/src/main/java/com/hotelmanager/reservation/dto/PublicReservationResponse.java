@@ -1,8 +1,30 @@
 package com.hotelmanager.reservation.dto;
 
+import com.hotelmanager.common.idempotency.ReplaySafe;
+
+/**
+ * accountExisted : le client a été reconnu (nom + téléphone) ; email et generatedPassword
+ * sont alors null, le client se connecte avec ses identifiants ou s'adresse à la réception.
+ *
+ * replayed : réponse rejouée pour une Idempotency-Key déjà servie. Le mot de passe créé par
+ * la première tentative n'est jamais rejoué (il n'est pas stocké) : un client qui a perdu la
+ * première réponse le fait réinitialiser par la réception.
+ */
 public record PublicReservationResponse(
         Long reservationId,
         String email,
-        String generatedPassword
-        
-) {}
+        String generatedPassword,
+        boolean accountExisted,
+        boolean replayed
+) implements ReplaySafe<PublicReservationResponse> {
+
+    public PublicReservationResponse(Long reservationId, String email, String generatedPassword, boolean accountExisted) {
+        this(reservationId, email, generatedPassword, accountExisted, false);
+    }
+
+    /** Le mot de passe généré n'est rendu qu'à la première réponse. */
+    @Override
+    public PublicReservationResponse forReplay() {
+        return new PublicReservationResponse(reservationId, email, null, accountExisted, true);
+    }
+}
@@ -0,0 +1,70 @@
+package com.hotelmanager.reservation.dto;
+
+import com.hotelmanager.reservation.entity.Reservation;
+import com.hotelmanager.reservation.entity.ReservationStatus;
+
+import java.time.OffsetDateTime;
+
+public record ReservationDto(
+        Long id,
+        RoomLite room,
+        UserLite client,
+        String guestFirstName,
+        String guestLastName,
+        String guestPhone,
+        OffsetDateTime startAt,
+        OffsetDateTime endAt,
+        ReservationStatus status,
+        Long version
+) {
+    public static ReservationDto fromEntity(Reservation r) {
+        return new ReservationDto(
+                r.getId(),
+                r.getRoom() == null ? null : new RoomLite(
+                        r.getRoom().getId(),
+                        r.getRoom().getRoomNumber(),
+                        r.getRoom().getRoomType(),
+                        r.getRoom().getFloor()
+                ),
+                r.getClient() == null ? null : new UserLite(
+                        r.getClient().getId(),
+                        r.getClient().getFirstName(),
+                        r.getClient().getLastName(),
+                        r.getClient().getEmail(),
+                        null
+                ),
+                r.getGuestFirstName(),
+                r.getGuestLastName(),
+                r.getGuestPhone(),
+                r.getStartAt(),
+                r.getEndAt(),
+                r.getStatus(),
+                r.getVersion()
+        );
+    }
+
+    public static ReservationDto fromRow(ReservationRow r) {
+        return new ReservationDto(
+                r.id(),
+                new RoomLite(r.roomId(), r.roomNumber(), r.roomType(), r.floor()),
+                r.clientId() == null ? null : new UserLite(
+                        r.clientId(),
+                        r.clientFirstName(),
+                        r.clientLastName(),
+                        r.clientEmail(),
+                        null
+                ),
+                r.guestFirstName(),
+                r.guestLastName(),
+                r.guestPhone(),
+                r.startAt(),
+                r.endAt(),
+                r.status(),
+                r.version()
+        );
+    }
+
+    public record RoomLite(Long id, Integer roomNumber, String roomType, Integer floor) {}
+
+    public record UserLite(Long id, String firstName, String lastName, String email, String phone) {}
+}
@@ -0,0 +1,23 @@
+package com.hotelmanager.reservation.dto;
+
+import com.hotelmanager.reservation.entity.ReservationStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Filtres du listing manager. Tous les champs sont optionnels.
+ * (afterStartAt, afterId) est le curseur keyset : dernière ligne de la page précédente.
+ */
+public record ReservationFilter(
+        ReservationStatus status,
+        Long roomId,
+        OffsetDateTime from,
+        OffsetDateTime to,
+        String guest,
+        OffsetDateTime afterStartAt,
+        Long afterId
+) {
+    public static ReservationFilter none() {
+        return new ReservationFilter(null, null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,14 @@
+package com.hotelmanager.reservation.dto;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Page keyset : passer (nextStartAt, nextId) en afterStartAt/afterId pour la page suivante.
+ * Les deux valent null sur la dernière page.
+ */
+public record ReservationPage(
+        List<ReservationDto> items,
+        OffsetDateTime nextStartAt,
+        Long nextId
+) {}
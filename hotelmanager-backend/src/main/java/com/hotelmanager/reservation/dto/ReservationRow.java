@@ -0,0 +1,28 @@
+package com.hotelmanager.reservation.dto;
+
+import com.hotelmanager.reservation.entity.ReservationStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Ligne de listing manager, construite directement par JPQL (constructor expression) :
+ * chambre et client sont joints dans la même requête, sans chargement paresseux.
+ */
+public record ReservationRow(
+        Long id,
+        Long roomId,
+        int roomNumber,
+        String roomType,
+        int floor,
+        Long clientId,
+        String clientFirstName,
+        String clientLastName,
+        String clientEmail,
+        String guestFirstName,
+        String guestLastName,
+        String guestPhone,
+        OffsetDateTime startAt,
+        OffsetDateTime endAt,
+        ReservationStatus status,
+        Long version
+) {}
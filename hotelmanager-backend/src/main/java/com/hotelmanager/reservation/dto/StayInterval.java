@@ -0,0 +1,8 @@
+package com.hotelmanager.reservation.dto;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Projection minimale d'une réservation active : chambre + intervalle occupé.
+ */
+public record StayInterval(Long roomId, OffsetDateTime startAt, OffsetDateTime endAt) {}
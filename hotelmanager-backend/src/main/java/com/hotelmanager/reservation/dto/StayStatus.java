@@ -0,0 +1,10 @@
+package com.hotelmanager.reservation.dto;
+
+import com.hotelmanager.reservation.entity.ReservationStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Projection minimale d'une réservation pour le recalcul des agrégats.
+ */
+public record StayStatus(OffsetDateTime startAt, OffsetDateTime endAt, ReservationStatus status, Long priceCents) {}
@@ -0,0 +1,20 @@
+package com.hotelmanager.reservation.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Réservation d'un type de chambre : la chambre est choisie par l'hôtel
+ * et peut être réattribuée jusqu'à la veille de l'arrivée.
+ */
+public record TypeReservationRequest(
+        @NotNull Long hotelId,
+        @NotBlank String roomType,
+        @NotNull OffsetDateTime startAt,
+        @NotNull OffsetDateTime endAt,
+        @NotBlank String firstName,
+        @NotBlank String lastName,
+        @NotBlank String guestPhone
+) {}
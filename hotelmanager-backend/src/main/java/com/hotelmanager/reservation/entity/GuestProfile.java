@@ -0,0 +1,46 @@
+package com.hotelmanager.reservation.entity;
+
+import com.hotelmanager.hotel.entity.Hotel;
+import com.hotelmanager.user.entity.User;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Client déjà connu d'un hôtel, reconnu à son nom et son téléphone normalisés :
+ * ses réservations suivantes réutilisent le même compte au lieu d'en créer un nouveau.
+ */
+@Getter
+@Setter
+@Entity
+@Table(
+    name = "guest_profiles",
+    uniqueConstraints = @UniqueConstraint(name = "uk_guest_profiles_hotel_key", columnNames = {"hotel_id", "match_key"})
+)
+public class GuestProfile {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "hotel_id", nullable = false)
+    private Hotel hotel;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    /** prénom|nom|téléphone normalisés, voir GuestAccountService#matchKey. */
+    @Column(name = "match_key", nullable = false, length = 160)
+    private String matchKey;
+
+    @Column(name = "bookings", nullable = false)
+    private int bookings;
+
+    @Column(name = "last_seen_at", nullable = false)
+    private OffsetDateTime lastSeenAt;
+}
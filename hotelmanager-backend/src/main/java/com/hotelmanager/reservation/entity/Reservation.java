@@ -19,7 +19,8 @@ import java.time.OffsetDateTime;
     indexes = {
         @Index(name = "idx_reservations_hotel", columnList = "hotel_id"),
         @Index(name = "idx_reservations_room", columnList = "room_id"),
-        @Index(name = "idx_reservations_start_end", columnList = "start_at,end_at")
+        @Index(name = "idx_reservations_start_end", columnList = "start_at,end_at"),
+        @Index(name = "idx_reservations_hotel_start_id", columnList = "hotel_id,start_at,id")
     }
 )
 public class Reservation {
@@ -62,6 +63,21 @@ public class Reservation {
     @Column(name = "status", nullable = false, length = 32)
     private ReservationStatus status = ReservationStatus.CONFIRMED;
 
+    /** Secret remis au porteur d'une option (HOLD), exigé pour la confirmer ou la relâcher. */
+    @Column(name = "hold_token", length = 64)
+    private String holdToken;
+
+    @Column(name = "hold_expires_at")
+    private OffsetDateTime holdExpiresAt;
+
+    /** Réservée par type de chambre : la chambre peut être réattribuée avant l'arrivée. */
+    @Column(name = "room_flexible", nullable = false, columnDefinition = "boolean not null default false")
+    private boolean roomFlexible;
+
+    /** Prix des nuitées en centimes, figé à la réservation (grille du jour) ; null si non tarifé. */
+    @Column(name = "price_cents")
+    private Long priceCents;
+
     @Version
     private Long version; // Optimistic locking
 
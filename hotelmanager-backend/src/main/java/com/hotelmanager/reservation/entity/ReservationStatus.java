@@ -1,10 +1,19 @@
 package com.hotelmanager.reservation.entity;
 
+import java.util.List;
+
 public enum ReservationStatus {
     PENDING,
     CONFIRMED,
     CHECKED_IN,
     NO_SHOW,
     CANCELED,
-    COMPLETED
+    COMPLETED,
+    /** Option temporaire sur (chambre, intervalle), posée avant la saisie du client. */
+    HOLD,
+    /** Option expirée ou relâchée sans confirmation. */
+    EXPIRED;
+
+    /** Statuts qui bloquent la chambre sur leur intervalle. */
+    public static final List<ReservationStatus> ACTIVE = List.of(HOLD, PENDING, CONFIRMED, CHECKED_IN);
 }
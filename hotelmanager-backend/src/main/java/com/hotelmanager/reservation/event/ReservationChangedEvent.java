@@ -0,0 +1,20 @@
+package com.hotelmanager.reservation.event;
+
+import com.hotelmanager.reservation.entity.ReservationStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Publié à chaque création ou changement de statut d'une réservation.
+ * previousStatus est null pour une création ; priceCents est null si le séjour n'est pas tarifé.
+ */
+public record ReservationChangedEvent(
+        Long reservationId,
+        Long hotelId,
+        Long roomId,
+        OffsetDateTime startAt,
+        OffsetDateTime endAt,
+        ReservationStatus previousStatus,
+        ReservationStatus status,
+        Long priceCents
+) {}
@@ -0,0 +1,20 @@
+package com.hotelmanager.reservation.repository;
+
+import com.hotelmanager.reservation.entity.GuestProfile;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface GuestProfileRepository extends JpaRepository<GuestProfile, Long> {
+
+    @Query("""
+        select p from GuestProfile p
+        join fetch p.user
+        where p.hotel.id = :hotelId
+          and p.matchKey = :matchKey
+    """)
+    Optional<GuestProfile> findByHotelIdAndMatchKey(@Param("hotelId") Long hotelId, @Param("matchKey") String matchKey);
+}
@@ -0,0 +1,211 @@
+package com.hotelmanager.reservation.repository;
+
+import com.hotelmanager.reservation.entity.ReservationStatus;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Écritures ensemblistes sur les réservations, en une instruction SQL par lot.
+ * L'identifiant IDENTITY empêche le batching JDBC d'Hibernate : on passe par un
+ * INSERT multi-lignes ... RETURNING, qui reste soumis à la contrainte d'exclusion.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReservationBatchWriter {
+
+    private final JdbcTemplate jdbc;
+
+    /** priceCents : null si non tarifé. */
+    public record NewStay(Long roomId, OffsetDateTime startAt, OffsetDateTime endAt, Long priceCents) {}
+
+    public record ExpiredHold(Long reservationId, Long hotelId, Long roomId, OffsetDateTime startAt, OffsetDateTime endAt) {}
+
+    public record RoomMove(Long reservationId, Long fromRoomId, Long toRoomId, Long version) {}
+
+    public record Transitioned(Long reservationId, Long roomId, OffsetDateTime startAt, OffsetDateTime endAt,
+                               ReservationStatus previousStatus, Long priceCents) {}
+
+    /**
+     * @return reservationId par roomId
+     */
+    public Map<Long, Long> insertAll(Long hotelId, List<NewStay> stays,
+                                     String guestFirstName, String guestLastName, String guestPhone,
+                                     ReservationStatus status) {
+        if (stays.isEmpty()) return Map.of();
+
+        String sql = """
+            INSERT INTO reservations
+              (hotel_id, room_id, guest_first_name, guest_last_name, guest_phone,
+               start_at, end_at, status, price_cents, version, created_at, updated_at)
+            VALUES
+            """
+                + String.join(",", Collections.nCopies(stays.size(), "(?,?,?,?,?,?,?,?,?,0,?,?)"))
+                + " RETURNING id, room_id";
+
+        OffsetDateTime now = OffsetDateTime.now();
+        Map<Long, Long> ids = new HashMap<>();
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            int i = 1;
+            for (NewStay s : stays) {
+                ps.setLong(i++, hotelId);
+                ps.setLong(i++, s.roomId());
+                ps.setString(i++, guestFirstName);
+                ps.setString(i++, guestLastName);
+                ps.setString(i++, guestPhone);
+                ps.setObject(i++, s.startAt());
+                ps.setObject(i++, s.endAt());
+                ps.setString(i++, status.name());
+                if (s.priceCents() == null) ps.setNull(i++, Types.BIGINT);
+                else ps.setLong(i++, s.priceCents());
+                ps.setObject(i++, now);
+                ps.setObject(i++, now);
+            }
+            return ps;
+        }, rs -> {
+            ids.put(rs.getLong("room_id"), rs.getLong("id"));
+        });
+        return ids;
+    }
+
+    /**
+     * Passe au plus {@code limit} réservations arrivées avant {@code startBefore} de {@code from} à {@code to}.
+     * SKIP LOCKED : plusieurs instances traitent des lots disjoints sans s'attendre.
+     */
+    public List<Transitioned> transitionByStart(Long hotelId, Collection<ReservationStatus> from, ReservationStatus to,
+                                                OffsetDateTime startBefore, int limit) {
+        return transition(hotelId, from, to, "start_at < ?", startBefore, limit);
+    }
+
+    /**
+     * Passe au plus {@code limit} réservations terminées avant {@code endBefore} de {@code from} à {@code to}.
+     */
+    public List<Transitioned> transitionByEnd(Long hotelId, Collection<ReservationStatus> from, ReservationStatus to,
+                                              OffsetDateTime endBefore, int limit) {
+        return transition(hotelId, from, to, "end_at < ?", endBefore, limit);
+    }
+
+    private List<Transitioned> transition(Long hotelId, Collection<ReservationStatus> from, ReservationStatus to,
+                                          String timePredicate, OffsetDateTime bound, int limit) {
+        String sql = """
+            WITH due AS (
+              SELECT id, status AS previous_status FROM reservations
+               WHERE hotel_id = ?
+                 AND status IN (%s)
+                 AND %s
+               ORDER BY id
+               LIMIT ?
+               FOR UPDATE SKIP LOCKED
+            )
+            UPDATE reservations r
+               SET status = ?, version = r.version + 1, updated_at = ?
+              FROM due
+             WHERE r.id = due.id
+            RETURNING r.id, r.room_id, r.start_at, r.end_at, due.previous_status, r.price_cents
+            """.formatted(String.join(",", Collections.nCopies(from.size(), "?")), timePredicate);
+
+        return jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            int i = 1;
+            ps.setLong(i++, hotelId);
+            for (ReservationStatus s : from) ps.setString(i++, s.name());
+            ps.setObject(i++, bound);
+            ps.setInt(i++, limit);
+            ps.setString(i++, to.name());
+            ps.setObject(i++, OffsetDateTime.now());
+            return ps;
+        }, (rs, rowNum) -> new Transitioned(
+                rs.getLong("id"),
+                rs.getLong("room_id"),
+                rs.getObject("start_at", OffsetDateTime.class),
+                rs.getObject("end_at", OffsetDateTime.class),
+                ReservationStatus.valueOf(rs.getString("previous_status")),
+                rs.getObject("price_cents", Long.class)));
+    }
+
+    /**
+     * Passe en EXPIRED les options échues : celles de {@code ids}, ou au plus {@code limit} quelconques si ids est null.
+     * Une option déjà confirmée ou relâchée est ignorée.
+     */
+    public List<ExpiredHold> expireHolds(Collection<Long> ids, OffsetDateTime now, int limit) {
+        if (ids != null && ids.isEmpty()) return List.of();
+
+        String idFilter = ids == null ? "" : "AND id IN (" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")";
+        String sql = """
+            WITH due AS (
+              SELECT id FROM reservations
+               WHERE status = 'HOLD'
+                 AND hold_expires_at <= ?
+                 %s
+               ORDER BY id
+               LIMIT ?
+               FOR UPDATE SKIP LOCKED
+            )
+            UPDATE reservations r
+               SET status = 'EXPIRED', hold_token = NULL, version = r.version + 1, updated_at = ?
+              FROM due
+             WHERE r.id = due.id
+            RETURNING r.id, r.hotel_id, r.room_id, r.start_at, r.end_at
+            """.formatted(idFilter);
+
+        return jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            int i = 1;
+            ps.setObject(i++, now);
+            if (ids != null) for (Long id : ids) ps.setLong(i++, id);
+            ps.setInt(i++, ids == null ? limit : ids.size());
+            ps.setObject(i++, now);
+            return ps;
+        }, (rs, rowNum) -> new ExpiredHold(
+                rs.getLong("id"),
+                rs.getLong("hotel_id"),
+                rs.getLong("room_id"),
+                rs.getObject("start_at", OffsetDateTime.class),
+                rs.getObject("end_at", OffsetDateTime.class)));
+    }
+
+    /**
+     * Déplace des réservations en attente d'arrivée vers d'autres chambres, en une instruction.
+     * La contrainte d'exclusion est différée au commit : un échange de chambres entre deux
+     * séjours est valide même si l'état intermédiaire ne l'est pas.
+     *
+     * @return nombre de réservations déplacées ; inférieur à moves.size() si l'une a changé entre-temps
+     */
+    public int moveRooms(List<RoomMove> moves) {
+        if (moves.isEmpty()) return 0;
+        jdbc.execute("SET CONSTRAINTS ex_reservations_room_stay DEFERRED");
+
+        String sql = """
+            UPDATE reservations r
+               SET room_id = v.room_id, version = r.version + 1, updated_at = ?
+              FROM (VALUES %s) AS v(id, room_id, version)
+             WHERE r.id = v.id
+               AND r.version = v.version
+               AND r.status IN ('PENDING','CONFIRMED')
+            """.formatted(String.join(",", Collections.nCopies(moves.size(),
+                "(CAST(? AS bigint), CAST(? AS bigint), CAST(? AS bigint))")));
+
+        return jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            int i = 1;
+            ps.setObject(i++, OffsetDateTime.now());
+            for (RoomMove m : moves) {
+                ps.setLong(i++, m.reservationId());
+                ps.setLong(i++, m.toRoomId());
+                ps.setLong(i++, m.version());
+            }
+            return ps;
+        });
+    }
+}
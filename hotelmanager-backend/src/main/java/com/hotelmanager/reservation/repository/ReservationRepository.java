@@ -1,15 +1,28 @@
 package com.hotelmanager.reservation.repository;
 
+import com.hotelmanager.reservation.dto.FeedWatermark;
+import com.hotelmanager.reservation.dto.ReservationRow;
+import com.hotelmanager.reservation.dto.AssignableStay;
+import com.hotelmanager.reservation.dto.StayInterval;
+import com.hotelmanager.reservation.dto.StayStatus;
 import com.hotelmanager.reservation.entity.Reservation;
 import com.hotelmanager.reservation.entity.ReservationStatus;
+import com.hotelmanager.user.entity.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, ReservationSearchRepository {
 
     /* ================= OVERLAPPING ================= */
 
@@ -32,16 +45,7 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
         OffsetDateTime startAt,
         OffsetDateTime endAt
     ) {
-        return existsOverlapping(
-            roomId,
-            startAt,
-            endAt,
-            List.of(
-                ReservationStatus.PENDING,
-                ReservationStatus.CONFIRMED,
-                ReservationStatus.CHECKED_IN
-            )
-        );
+        return existsOverlapping(roomId, startAt, endAt, ReservationStatus.ACTIVE);
     }
 
     /* ================= ACTIVE FUTURE ================= */
@@ -61,17 +65,214 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     );
 
     default List<Reservation> findActiveFutureByRoom(Long roomId, OffsetDateTime ref) {
-        return findActiveFutureByRoom(
-            roomId,
-            ref,
-            List.of(
-                ReservationStatus.PENDING,
-                ReservationStatus.CONFIRMED,
-                ReservationStatus.CHECKED_IN
-            )
-        );
+        return findActiveFutureByRoom(roomId, ref, ReservationStatus.ACTIVE);
     }
 
+    /* ================= AVAILABILITY WINDOW ================= */
+
+    @Query("""
+        select new com.hotelmanager.reservation.dto.StayInterval(r.room.id, r.startAt, r.endAt)
+        from Reservation r
+        where r.hotel.id = :hotelId
+          and r.status in :activeStatuses
+          and r.startAt < :endAt
+          and r.endAt > :startAt
+        order by r.room.id asc, r.startAt asc
+    """)
+    List<StayInterval> findActiveStaysInWindow(
+        @Param("hotelId") Long hotelId,
+        @Param("startAt") OffsetDateTime startAt,
+        @Param("endAt") OffsetDateTime endAt,
+        @Param("activeStatuses") List<ReservationStatus> activeStatuses
+    );
+
+    default List<StayInterval> findActiveStaysInWindow(Long hotelId, OffsetDateTime startAt, OffsetDateTime endAt) {
+        return findActiveStaysInWindow(hotelId, startAt, endAt, ReservationStatus.ACTIVE);
+    }
+
+    /** Séjours actifs des chambres {@code roomIds} chevauchant [startAt, endAt) : attribution des chambres. */
+    @Query("""
+        select new com.hotelmanager.reservation.dto.AssignableStay(
+                 r.id, r.room.id, r.startAt, r.endAt, r.status, r.roomFlexible, r.version)
+          from Reservation r
+         where r.room.id in :roomIds
+           and r.status in :activeStatuses
+           and r.startAt < :endAt
+           and r.endAt > :startAt
+    """)
+    List<AssignableStay> findAssignableStays(
+        @Param("roomIds") Collection<Long> roomIds,
+        @Param("startAt") OffsetDateTime startAt,
+        @Param("endAt") OffsetDateTime endAt,
+        @Param("activeStatuses") List<ReservationStatus> activeStatuses
+    );
+
+    default List<AssignableStay> findAssignableStays(Collection<Long> roomIds, OffsetDateTime startAt, OffsetDateTime endAt) {
+        return findAssignableStays(roomIds, startAt, endAt, ReservationStatus.ACTIVE);
+    }
+
+    /** Toutes les réservations (tous statuts) chevauchant [startAt, endAt) : recalcul des agrégats. */
+    @Query("""
+        select new com.hotelmanager.reservation.dto.StayStatus(r.startAt, r.endAt, r.status, r.priceCents)
+          from Reservation r
+         where r.hotel.id = :hotelId
+           and r.startAt < :endAt
+           and r.endAt > :startAt
+    """)
+    List<StayStatus> findStayStatusesInWindow(
+        @Param("hotelId") Long hotelId,
+        @Param("startAt") OffsetDateTime startAt,
+        @Param("endAt") OffsetDateTime endAt
+    );
+
+    /* ================= CALENDAR FEEDS ================= */
+
+    /**
+     * Flux de tout l'hôtel (roomId null) ou d'une chambre : deux requêtes distinctes plutôt
+     * qu'un "(:roomId is null or ...)", comme pour la recherche manager.
+     */
+    default FeedWatermark findFeedWatermark(Long hotelId, Long roomId, OffsetDateTime from, OffsetDateTime to) {
+        return roomId == null
+                ? findHotelFeedWatermark(hotelId, from, to)
+                : findRoomFeedWatermark(hotelId, roomId, from, to);
+    }
+
+    default List<ReservationRow> findFeedRows(Long hotelId, Long roomId, OffsetDateTime from, OffsetDateTime to) {
+        return roomId == null
+                ? findHotelFeedRows(hotelId, from, to)
+                : findRoomFeedRows(hotelId, roomId, from, to);
+    }
+
+    @Query("""
+        select new com.hotelmanager.reservation.dto.FeedWatermark(max(r.updatedAt), count(r))
+          from Reservation r
+         where r.hotel.id = :hotelId
+           and r.endAt > :from
+           and r.startAt < :to
+    """)
+    FeedWatermark findHotelFeedWatermark(
+        @Param("hotelId") Long hotelId,
+        @Param("from") OffsetDateTime from,
+        @Param("to") OffsetDateTime to
+    );
+
+    @Query("""
+        select new com.hotelmanager.reservation.dto.FeedWatermark(max(r.updatedAt), count(r))
+          from Reservation r
+         where r.hotel.id = :hotelId
+           and r.room.id = :roomId
+           and r.endAt > :from
+           and r.startAt < :to
+    """)
+    FeedWatermark findRoomFeedWatermark(
+        @Param("hotelId") Long hotelId,
+        @Param("roomId") Long roomId,
+        @Param("from") OffsetDateTime from,
+        @Param("to") OffsetDateTime to
+    );
+
+    @Query("""
+        select new com.hotelmanager.reservation.dto.ReservationRow(
+               r.id, ro.id, ro.roomNumber, ro.roomType, ro.floor,
+               c.id, c.firstName, c.lastName, c.email,
+               r.guestFirstName, r.guestLastName, r.guestPhone,
+               r.startAt, r.endAt, r.status, r.version)
+          from Reservation r
+          join r.room ro
+          left join r.client c
+         where r.hotel.id = :hotelId
+           and r.endAt > :from
+           and r.startAt < :to
+         order by r.startAt, r.id
+    """)
+    List<ReservationRow> findHotelFeedRows(
+        @Param("hotelId") Long hotelId,
+        @Param("from") OffsetDateTime from,
+        @Param("to") OffsetDateTime to
+    );
+
+    @Query("""
+        select new com.hotelmanager.reservation.dto.ReservationRow(
+               r.id, ro.id, ro.roomNumber, ro.roomType, ro.floor,
+               c.id, c.firstName, c.lastName, c.email,
+               r.guestFirstName, r.guestLastName, r.guestPhone,
+               r.startAt, r.endAt, r.status, r.version)
+          from Reservation r
+          join r.room ro
+          left join r.client c
+         where r.hotel.id = :hotelId
+           and ro.id = :roomId
+           and r.endAt > :from
+           and r.startAt < :to
+         order by r.startAt, r.id
+    """)
+    List<ReservationRow> findRoomFeedRows(
+        @Param("hotelId") Long hotelId,
+        @Param("roomId") Long roomId,
+        @Param("from") OffsetDateTime from,
+        @Param("to") OffsetDateTime to
+    );
+
+    /* ================= EXPORT ================= */
+
+    /**
+     * Curseur d'export sur ]afterId, untilId], par id croissant. À consommer dans une transaction, puis fermer.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        select new com.hotelmanager.reservation.dto.ReservationRow(
+               r.id, ro.id, ro.roomNumber, ro.roomType, ro.floor,
+               c.id, c.firstName, c.lastName, c.email,
+               r.guestFirstName, r.guestLastName, r.guestPhone,
+               r.startAt, r.endAt, r.status, r.version)
+          from Reservation r
+          join r.room ro
+          left join r.client c
+         where r.hotel.id = :hotelId
+           and r.id > :afterId
+           and r.id <= :untilId
+         order by r.id
+    """)
+    Stream<ReservationRow> streamForExport(
+        @Param("hotelId") Long hotelId,
+        @Param("afterId") Long afterId,
+        @Param("untilId") Long untilId
+    );
+
+    @Query("select coalesce(max(r.id), 0) from Reservation r where r.hotel.id = :hotelId")
+    Long findMaxIdByHotel(@Param("hotelId") Long hotelId);
+
+    /* ================= BULK ================= */
+
+    /**
+     * Libère une option si elle est toujours en HOLD avec ce jeton ; 0 si elle a été confirmée
+     * ou expirée entre-temps. Incrémente la version comme l'expiration ensembliste.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update versioned Reservation r
+           set r.status = com.hotelmanager.reservation.entity.ReservationStatus.EXPIRED,
+               r.holdToken = null, r.holdExpiresAt = null, r.updatedAt = :now
+         where r.id = :id
+           and r.status = com.hotelmanager.reservation.entity.ReservationStatus.HOLD
+           and r.holdToken = :token
+    """)
+    int releaseHold(@Param("id") Long id, @Param("token") String token, @Param("now") OffsetDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Reservation r set r.client = :client where r.id in :ids")
+    int assignClient(@Param("client") User client, @Param("ids") Collection<Long> ids);
+
+    @Query("""
+        select distinct r.room.id from Reservation r
+         where r.room.id in :roomIds
+           and r.status = :status
+    """)
+    List<Long> findRoomIdsWithStatus(
+        @Param("roomIds") Collection<Long> roomIds,
+        @Param("status") ReservationStatus status
+    );
+
     /* ================= SIMPLE QUERIES (OBLIGATOIRES) ================= */
 
     List<Reservation> findByHotelId(Long hotelId);
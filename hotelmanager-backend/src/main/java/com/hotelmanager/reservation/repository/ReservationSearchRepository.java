@@ -0,0 +1,15 @@
+package com.hotelmanager.reservation.repository;
+
+import com.hotelmanager.reservation.dto.ReservationFilter;
+import com.hotelmanager.reservation.dto.ReservationRow;
+
+import java.util.List;
+
+public interface ReservationSearchRepository {
+
+    /**
+     * Listing d'un hôtel trié par (startAt desc, id desc), filtré et paginé par curseur.
+     * limit <= 0 : pas de limite.
+     */
+    List<ReservationRow> search(Long hotelId, ReservationFilter filter, int limit);
+}
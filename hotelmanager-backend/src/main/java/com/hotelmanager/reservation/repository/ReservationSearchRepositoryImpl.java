@@ -0,0 +1,78 @@
+package com.hotelmanager.reservation.repository;
+
+import com.hotelmanager.reservation.dto.ReservationFilter;
+import com.hotelmanager.reservation.dto.ReservationRow;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Requête JPQL construite à la volée : seuls les filtres renseignés sont ajoutés, chaque
+ * combinaison de filtres a donc son propre plan, sans prédicat "(:p is null or ...)"
+ * qui empêcherait PostgreSQL d'utiliser l'index du filtre dans un plan générique.
+ */
+class ReservationSearchRepositoryImpl implements ReservationSearchRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<ReservationRow> search(Long hotelId, ReservationFilter f, int limit) {
+        StringBuilder jpql = new StringBuilder("""
+            select new com.hotelmanager.reservation.dto.ReservationRow(
+                r.id, ro.id, ro.roomNumber, ro.roomType, ro.floor,
+                c.id, c.firstName, c.lastName, c.email,
+                r.guestFirstName, r.guestLastName, r.guestPhone,
+                r.startAt, r.endAt, r.status, r.version)
+            from Reservation r
+            join r.room ro
+            left join r.client c
+            where r.hotel.id = :hotelId
+            """);
+        Map<String, Object> params = new HashMap<>();
+        params.put("hotelId", hotelId);
+
+        if (f.status() != null) {
+            jpql.append(" and r.status = :status");
+            params.put("status", f.status());
+        }
+        if (f.roomId() != null) {
+            jpql.append(" and ro.id = :roomId");
+            params.put("roomId", f.roomId());
+        }
+        if (f.from() != null) {
+            jpql.append(" and r.endAt > :from");
+            params.put("from", f.from());
+        }
+        if (f.to() != null) {
+            jpql.append(" and r.startAt < :to");
+            params.put("to", f.to());
+        }
+        if (f.guest() != null && !f.guest().isBlank()) {
+            jpql.append(" and (lower(r.guestLastName) like :guest escape '!' or lower(r.guestFirstName) like :guest escape '!')");
+            params.put("guest", "%" + escapeLike(f.guest().trim().toLowerCase(Locale.ROOT)) + "%");
+        }
+        if (f.afterStartAt() != null && f.afterId() != null) {
+            jpql.append(" and (r.startAt < :afterStartAt or (r.startAt = :afterStartAt and r.id < :afterId))");
+            params.put("afterStartAt", f.afterStartAt());
+            params.put("afterId", f.afterId());
+        }
+        jpql.append(" order by r.startAt desc, r.id desc");
+
+        TypedQuery<ReservationRow> q = em.createQuery(jpql.toString(), ReservationRow.class);
+        params.forEach(q::setParameter);
+        if (limit > 0) q.setMaxResults(limit);
+        return q.getResultList();
+    }
+
+    /** %, _ et le caractère d'échappement saisis sont cherchés littéralement. */
+    static String escapeLike(String s) {
+        return s.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
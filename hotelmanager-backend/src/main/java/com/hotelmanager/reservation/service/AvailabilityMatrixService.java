@@ -0,0 +1,109 @@
+package com.hotelmanager.reservation.service;
+
+import com.hotelmanager.common.exception.BusinessRuleException;
+import com.hotelmanager.common.exception.NotFoundException;
+import com.hotelmanager.hotel.entity.Hotel;
+import com.hotelmanager.hotel.repository.HotelRepository;
+import com.hotelmanager.reservation.dto.AvailabilityMatrixResponse;
+import com.hotelmanager.reservation.dto.AvailabilityMatrixResponse.RoomTypeAvailability;
+import com.hotelmanager.reservation.dto.StayInterval;
+import com.hotelmanager.reservation.repository.ReservationRepository;
+import com.hotelmanager.room.dto.RoomTypeRef;
+import com.hotelmanager.room.entity.RoomState;
+import com.hotelmanager.room.repository.RoomRepository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Calcule la matrice de disponibilités (nuit × type de chambre) d'un hôtel
+ * en une seule passe (sweep line) sur les réservations actives de la fenêtre.
+ */
+@Service
+@RequiredArgsConstructor
+public class AvailabilityMatrixService {
+
+    public static final int MAX_NIGHTS = 92;
+
+    private static final List<RoomState> UNSELLABLE = List.of(RoomState.INACTIVE, RoomState.MAINTENANCE);
+
+    private final HotelRepository hotelRepository;
+    private final RoomRepository roomRepository;
+    private final ReservationRepository reservationRepository;
+
+    @Transactional(readOnly = true)
+    public AvailabilityMatrixResponse compute(Long hotelId, LocalDate from, LocalDate to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new BusinessRuleException("Intervalle de dates invalide.");
+        }
+        int nights = (int) ChronoUnit.DAYS.between(from, to);
+        if (nights > MAX_NIGHTS) {
+            throw new BusinessRuleException("Fenêtre trop large (max " + MAX_NIGHTS + " nuits).");
+        }
+
+        Hotel hotel = hotelRepository.findById(hotelId)
+                .orElseThrow(() -> new NotFoundException("Hôtel introuvable."));
+        HotelNights cal = HotelNights.of(hotel);
+
+        // Inventaire : type de chambre par room id
+        Map<Long, String> typeByRoom = new HashMap<>();
+        Map<String, Integer> totals = new TreeMap<>();
+        for (RoomTypeRef r : roomRepository.findSellableRoomTypes(hotelId, UNSELLABLE)) {
+            typeByRoom.put(r.id(), r.roomType());
+            totals.merge(r.roomType(), 1, Integer::sum);
+        }
+
+        Map<String, int[]> diff = new HashMap<>();
+        totals.keySet().forEach(t -> diff.put(t, new int[nights + 1]));
+
+        // Sweep : réservations triées par chambre puis début ; on fusionne les
+        // nuits d'une même chambre pour ne jamais la compter deux fois.
+        List<StayInterval> stays = reservationRepository.findActiveStaysInWindow(
+                hotelId, cal.nightStart(from), cal.nightEnd(to.minusDays(1)));
+
+        Long currentRoom = null;
+        int lastMarked = -1;
+        for (StayInterval s : stays) {
+            String type = typeByRoom.get(s.roomId());
+            if (type == null) continue;
+
+            if (!s.roomId().equals(currentRoom)) {
+                currentRoom = s.roomId();
+                lastMarked = -1;
+            }
+
+            int first = Math.max(0, (int) ChronoUnit.DAYS.between(from, cal.firstNight(s.startAt())));
+            int last = Math.min(nights - 1, (int) ChronoUnit.DAYS.between(from, cal.lastNight(s.endAt())));
+            first = Math.max(first, lastMarked + 1);
+            if (first > last) continue;
+
+            int[] d = diff.get(type);
+            d[first]++;
+            d[last + 1]--;
+            lastMarked = last;
+        }
+
+        List<RoomTypeAvailability> out = new ArrayList<>(totals.size());
+        totals.forEach((type, total) -> {
+            int[] d = diff.get(type);
+            int[] available = new int[nights];
+            int occupied = 0;
+            for (int i = 0; i < nights; i++) {
+                occupied += d[i];
+                available[i] = Math.max(0, total - occupied);
+            }
+            out.add(new RoomTypeAvailability(type, total, available));
+        });
+
+        return new AvailabilityMatrixResponse(hotelId, from, to, out);
+    }
+}
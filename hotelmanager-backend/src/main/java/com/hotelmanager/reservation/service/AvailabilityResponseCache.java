@@ -0,0 +1,128 @@
+package com.hotelmanager.reservation.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelmanager.rate.event.RatesChangedEvent;
+import com.hotelmanager.reservation.event.ReservationChangedEvent;
+import com.hotelmanager.room.event.RoomStateChangedEvent;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache court (TTL) des réponses publiques de disponibilité, stockées en JSON compact.
+ *
+ * - clé : hôtel + type de réponse + intervalle [start, end)
+ * - chargement "single-flight" : un seul calcul par clé, les requêtes concurrentes attendent le même résultat
+ * - invalidation après commit : par intervalle chevauchant pour une réservation, par hôtel pour un état de chambre
+ *   ou un changement de tarifs
+ */
+@Component
+public class AvailabilityResponseCache {
+
+    private static final int MAX_ENTRIES_PER_HOTEL = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final long ttlNanos;
+
+    private final Map<Long, Map<Key, Entry>> hotels = new ConcurrentHashMap<>();
+
+    public AvailabilityResponseCache(
+            ObjectMapper objectMapper,
+            @Value("${hotel.availability-cache.ttl:15s}") Duration ttl
+    ) {
+        this.objectMapper = objectMapper;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public byte[] get(String kind, Long hotelId, OffsetDateTime start, OffsetDateTime end, Supplier<?> loader) {
+        Key key = new Key(kind, start.toInstant(), end.toInstant());
+        Map<Key, Entry> perHotel = hotels.computeIfAbsent(hotelId, id -> new ConcurrentHashMap<>());
+
+        long now = System.nanoTime();
+        Entry fresh = new Entry(new CompletableFuture<>(), now + ttlNanos);
+        Entry current = perHotel.compute(key, (k, cur) -> cur == null || cur.isExpired(now) ? fresh : cur);
+
+        if (current == fresh) {
+            if (perHotel.size() > MAX_ENTRIES_PER_HOTEL) evictExpired(perHotel, now);
+            try {
+                fresh.value().complete(serialize(loader.get()));
+            } catch (RuntimeException e) {
+                perHotel.remove(key, fresh);
+                fresh.value().completeExceptionally(e);
+            }
+        }
+
+        try {
+            return current.value().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    public void invalidate(Long hotelId, OffsetDateTime start, OffsetDateTime end) {
+        if (hotelId == null) return;
+        Map<Key, Entry> perHotel = hotels.get(hotelId);
+        if (perHotel == null) return;
+        if (start == null || end == null) {
+            perHotel.clear();
+            return;
+        }
+        Instant s = start.toInstant();
+        Instant e = end.toInstant();
+        perHotel.keySet().removeIf(k -> k.start().isBefore(e) && k.end().isAfter(s));
+    }
+
+    public void invalidateHotel(Long hotelId) {
+        if (hotelId == null) return;
+        Map<Key, Entry> perHotel = hotels.get(hotelId);
+        if (perHotel != null) perHotel.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        invalidate(event.hotelId(), event.startAt(), event.endAt());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomStateChanged(RoomStateChangedEvent event) {
+        invalidateHotel(event.hotelId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatesChanged(RatesChangedEvent event) {
+        invalidateHotel(event.hotelId());
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sérialisation impossible", e);
+        }
+    }
+
+    private static void evictExpired(Map<Key, Entry> perHotel, long now) {
+        perHotel.values().removeIf(e -> e.isExpired(now));
+        if (perHotel.size() > MAX_ENTRIES_PER_HOTEL) perHotel.clear();
+    }
+
+    private record Key(String kind, Instant start, Instant end) {}
+
+    private record Entry(CompletableFuture<byte[]> value, long expiresAt) {
+        boolean isExpired(long now) {
+            return now - expiresAt > 0;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.hotelmanager.reservation.service;
+
+import com.hotelmanager.common.exception.NotFoundException;
+import com.hotelmanager.reservation.dto.FeedWatermark;
+import com.hotelmanager.reservation.repository.ReservationRepository;
+import com.hotelmanager.room.entity.Room;
+import com.hotelmanager.room.repository.RoomRepository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+
+/**
+ * Flux iCalendar des réservations d'un hôtel ou d'une chambre.
+ *
+ * L'état du flux (dernier updatedAt + nombre de lignes sur la fenêtre) coûte une seule requête
+ * agrégée : un client à jour reçoit un 304 sans que le corps soit construit.
+ */
+@Service
+@RequiredArgsConstructor
+public class CalendarFeedService {
+
+    private static final int PAST_DAYS = 30;
+    private static final int FUTURE_DAYS = 366;
+
+    private final ReservationRepository reservationRepository;
+    private final RoomRepository roomRepository;
+
+    public record FeedState(Long hotelId, Long roomId, OffsetDateTime from, OffsetDateTime to,
+                            OffsetDateTime lastModified, String etag) {
+        /** -1 si le flux est vide : seul l'ETag sert alors à la validation. */
+        public long lastModifiedMillis() {
+            return lastModified == null ? -1 : lastModified.toInstant().toEpochMilli();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public FeedState state(Long hotelId, Long roomId) {
+        if (roomId != null) {
+            Room room = roomRepository.findById(roomId)
+                    .orElseThrow(() -> new NotFoundException("Chambre introuvable."));
+            if (room.getHotel() == null || !room.getHotel().getId().equals(hotelId)) {
+                throw new NotFoundException("Chambre introuvable.");
+            }
+        }
+
+        LocalDate today = LocalDate.now();
+        ZoneId zone = ZoneId.systemDefault();
+        OffsetDateTime from = today.minusDays(PAST_DAYS).atStartOfDay(zone).toOffsetDateTime();
+        OffsetDateTime to = today.plusDays(FUTURE_DAYS).atStartOfDay(zone).toOffsetDateTime();
+
+        FeedWatermark w = reservationRepository.findFeedWatermark(hotelId, roomId, from, to);
+        OffsetDateTime lastModified = w.lastModified();
+        String etag = "W/\"h" + hotelId + (roomId == null ? "" : "-r" + roomId)
+                + "-" + (lastModified == null ? 0 : lastModified.toInstant().toEpochMilli())
+                + "-" + w.count()
+                + "-" + today.minusDays(PAST_DAYS) + "\"";
+
+        return new FeedState(hotelId, roomId, from, to, lastModified, etag);
+    }
+
+    @Transactional(readOnly = true)
+    public String render(FeedState state, String calendarName) {
+        var rows = reservationRepository.findFeedRows(state.hotelId(), state.roomId(), state.from(), state.to());
+        OffsetDateTime stamp = state.lastModified() != null ? state.lastModified() : OffsetDateTime.now();
+        return ICalendarWriter.write(calendarName, rows, stamp);
+    }
+}
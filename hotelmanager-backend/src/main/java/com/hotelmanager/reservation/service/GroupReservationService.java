@@ -0,0 +1,135 @@
+package com.hotelmanager.reservation.service;
+
+import com.hotelmanager.common.exception.BusinessRuleException;
+import com.hotelmanager.common.exception.NotFoundException;
+import com.hotelmanager.hotel.entity.Hotel;
+import com.hotelmanager.hotel.repository.HotelRepository;
+import com.hotelmanager.rate.service.HotelRateTable;
+import com.hotelmanager.rate.service.RateEngine;
+import com.hotelmanager.reservation.dto.GroupReservationRequest;
+import com.hotelmanager.reservation.dto.GroupReservationRequest.FillStrategy;
+import com.hotelmanager.reservation.dto.GroupReservationResponse;
+import com.hotelmanager.reservation.entity.ReservationStatus;
+import com.hotelmanager.reservation.event.ReservationChangedEvent;
+import com.hotelmanager.reservation.repository.ReservationBatchWriter;
+import com.hotelmanager.reservation.repository.ReservationBatchWriter.NewStay;
+import com.hotelmanager.reservation.repository.ReservationRepository;
+import com.hotelmanager.room.entity.Room;
+import com.hotelmanager.room.repository.RoomRepository;
+import com.hotelmanager.room.service.RoomService;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Réservation de plusieurs chambres en une seule transaction : tout ou rien,
+ * sauf si le client accepte explicitement une réservation partielle.
+ */
+@Service
+@RequiredArgsConstructor
+public class GroupReservationService {
+
+    private static final int MAX_GROUP_ROOMS = 100;
+
+    private final HotelRepository hotelRepository;
+    private final RoomRepository roomRepository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationBatchWriter batchWriter;
+    private final GuestAccountService guestAccounts;
+    private final RoomService roomService;
+    private final RateEngine rateEngine;
+    private final ApplicationEventPublisher events;
+
+    @Transactional
+    public GroupReservationResponse reserve(GroupReservationRequest req) {
+        OffsetDateTime startAt = req.startAt();
+        OffsetDateTime endAt = req.endAt();
+        if (startAt == null || endAt == null || !startAt.isBefore(endAt)) {
+            throw new BusinessRuleException("Intervalle de dates invalide.");
+        }
+
+        List<Long> roomIds = req.roomIds() == null ? List.of() : List.copyOf(new LinkedHashSet<>(req.roomIds()));
+        var typeQuantities = req.roomTypes() == null ? List.<GroupReservationRequest.RoomTypeQuantity>of() : req.roomTypes();
+        int requestedCount = roomIds.size()
+                + typeQuantities.stream().mapToInt(GroupReservationRequest.RoomTypeQuantity::quantity).sum();
+        if (requestedCount == 0) {
+            throw new BusinessRuleException("Aucune chambre demandée.");
+        }
+        if (requestedCount > MAX_GROUP_ROOMS) {
+            throw new BusinessRuleException("Un groupe est limité à " + MAX_GROUP_ROOMS + " chambres.");
+        }
+
+        Hotel hotel = hotelRepository.findById(req.hotelId())
+                .orElseThrow(() -> new NotFoundException("Hôtel introuvable."));
+
+        List<Room> requested = roomRepository.findAllById(roomIds);
+        if (requested.size() != roomIds.size()) {
+            throw new NotFoundException("Chambre introuvable.");
+        }
+        for (Room r : requested) {
+            if (r.getHotel() == null || !r.getHotel().getId().equals(hotel.getId())) {
+                throw new BusinessRuleException("Cette chambre n’appartient pas à l’hôtel demandé.");
+            }
+        }
+
+        List<Room> available = roomRepository.findAvailableRoomsStrictlyLibre(hotel.getId(), startAt, endAt);
+        FillStrategy strategy = req.strategy() == null ? FillStrategy.NONE : req.strategy();
+        var allocation = GroupRoomAllocator.allocate(available, requested, typeQuantities, strategy);
+
+        if (!allocation.unfilled().isEmpty() && !req.allowPartial()) {
+            throw new BusinessRuleException("Chambres indisponibles : " + String.join(", ", allocation.unfilled()));
+        }
+        if (allocation.picks().isEmpty()) {
+            throw new BusinessRuleException("Aucune chambre disponible sur l’intervalle.");
+        }
+
+        HotelRateTable rates = rateEngine.table(hotel.getId());
+        List<NewStay> stays = allocation.picks().stream()
+                .map(p -> new NewStay(p.room().getId(), startAt, endAt,
+                        rates.quoteCents(p.room().getRoomType(), startAt, endAt)))
+                .toList();
+        Map<Long, Long> prices = new HashMap<>();
+        for (NewStay s : stays) prices.put(s.roomId(), s.priceCents());
+
+        // Un seul INSERT pour tout le groupe : un conflit sur une chambre annule l'ensemble.
+        Map<Long, Long> reservationIds;
+        try {
+            reservationIds = batchWriter.insertAll(
+                    hotel.getId(), stays,
+                    GuestAccountService.cap(req.firstName()),
+                    GuestAccountService.cap(req.lastName()),
+                    req.guestPhone(),
+                    ReservationStatus.CONFIRMED);
+        } catch (DataIntegrityViolationException e) {
+            throw new BusinessRuleException("Conflit : une des chambres vient d’être réservée.");
+        }
+
+        var guest = guestAccounts.findOrCreate(hotel, req.firstName(), req.lastName(), req.guestPhone());
+        reservationRepository.assignClient(guest.user(), reservationIds.values());
+        roomService.applyReservationStatus(hotel.getId(), reservationIds.keySet(), ReservationStatus.CONFIRMED, guest.user());
+
+        List<GroupReservationResponse.Line> lines = new ArrayList<>();
+        for (var pick : allocation.picks()) {
+            Room room = pick.room();
+            Long reservationId = reservationIds.get(room.getId());
+            lines.add(new GroupReservationResponse.Line(
+                    reservationId, room.getId(), room.getRoomNumber(),
+                    room.getRoomType(), room.getFloor(), pick.requestedRoomId()));
+            events.publishEvent(new ReservationChangedEvent(
+                    reservationId, hotel.getId(), room.getId(), startAt, endAt, null, ReservationStatus.CONFIRMED,
+                    prices.get(room.getId())));
+        }
+
+        return new GroupReservationResponse(lines, allocation.unfilled(), guest.disclosableEmail(), guest.rawPassword(), guest.existed());
+    }
+}
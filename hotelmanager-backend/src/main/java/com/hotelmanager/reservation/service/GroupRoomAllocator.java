@@ -0,0 +1,100 @@
+package com.hotelmanager.reservation.service;
+
+import com.hotelmanager.reservation.dto.GroupReservationRequest.FillStrategy;
+import com.hotelmanager.reservation.dto.GroupReservationRequest.RoomTypeQuantity;
+import com.hotelmanager.room.entity.Room;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Choix des chambres d'une réservation de groupe parmi les chambres libres, en mémoire :
+ * d'abord les chambres demandées, puis les remplacements selon la stratégie,
+ * puis les quantités par type regroupées autour de l'étage du groupe.
+ */
+final class GroupRoomAllocator {
+
+    record Pick(Room room, Long requestedRoomId) {}
+
+    record Allocation(List<Pick> picks, List<String> unfilled) {}
+
+    private GroupRoomAllocator() {}
+
+    static Allocation allocate(List<Room> available,
+                               List<Room> requested,
+                               List<RoomTypeQuantity> typeQuantities,
+                               FillStrategy strategy) {
+        Map<Long, Room> pool = new LinkedHashMap<>();
+        available.forEach(r -> pool.put(r.getId(), r));
+
+        List<Pick> picks = new ArrayList<>();
+        List<String> unfilled = new ArrayList<>();
+        List<Room> missing = new ArrayList<>();
+
+        for (Room r : requested) {
+            if (pool.remove(r.getId()) != null) picks.add(new Pick(r, r.getId()));
+            else missing.add(r);
+        }
+
+        for (Room r : missing) {
+            Room sub = switch (strategy) {
+                case NONE -> null;
+                case SAME_TYPE -> takeNearest(pool, r.getFloor(), sameType(r.getRoomType()));
+                case NEAREST_FLOOR -> {
+                    Room same = takeNearest(pool, r.getFloor(), sameType(r.getRoomType()));
+                    yield same != null ? same : takeNearest(pool, r.getFloor(), x -> true);
+                }
+            };
+            if (sub != null) picks.add(new Pick(sub, r.getId()));
+            else unfilled.add("Chambre " + r.getRoomNumber());
+        }
+
+        for (RoomTypeQuantity q : typeQuantities) {
+            for (int i = 0; i < q.quantity(); i++) {
+                int anchor = anchorFloor(picks, pool, q.roomType());
+                Room r = takeNearest(pool, anchor, sameType(q.roomType()));
+                if (r == null && strategy == FillStrategy.NEAREST_FLOOR) {
+                    r = takeNearest(pool, anchor, x -> true);
+                }
+                if (r != null) picks.add(new Pick(r, null));
+                else unfilled.add(q.roomType());
+            }
+        }
+
+        return new Allocation(picks, unfilled);
+    }
+
+    private static Predicate<Room> sameType(String type) {
+        return r -> r.getRoomType() != null && r.getRoomType().equalsIgnoreCase(type);
+    }
+
+    private static Room takeNearest(Map<Long, Room> pool, int floor, Predicate<Room> filter) {
+        Room best = pool.values().stream()
+                .filter(filter)
+                .min(Comparator.<Room>comparingInt(r -> Math.abs(r.getFloor() - floor))
+                        .thenComparingInt(Room::getRoomNumber))
+                .orElse(null);
+        if (best != null) pool.remove(best.getId());
+        return best;
+    }
+
+    /** Étage médian des chambres déjà prises, sinon l'étage le plus fourni pour ce type. */
+    private static int anchorFloor(List<Pick> picks, Map<Long, Room> pool, String type) {
+        if (!picks.isEmpty()) {
+            int[] floors = picks.stream().mapToInt(p -> p.room().getFloor()).sorted().toArray();
+            return floors[floors.length / 2];
+        }
+        Map<Integer, Integer> counts = new LinkedHashMap<>();
+        pool.values().stream()
+                .filter(sameType(type))
+                .forEach(r -> counts.merge(r.getFloor(), 1, Integer::sum));
+        return counts.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(0);
+    }
+}
@@ -0,0 +1,184 @@
+package com.hotelmanager.reservation.service;
+
+import com.hotelmanager.hotel.entity.Hotel;
+import com.hotelmanager.reservation.entity.GuestProfile;
+import com.hotelmanager.reservation.repository.GuestProfileRepository;
+import com.hotelmanager.user.entity.Role;
+import com.hotelmanager.user.entity.User;
+import com.hotelmanager.user.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.text.Normalizer;
+import java.time.OffsetDateTime;
+import java.util.Locale;
+
+/**
+ * Comptes CLIENT des réservations publiques : un client déjà connu de l'hôtel (même nom et
+ * même téléphone normalisés) retrouve son compte ; sinon un compte est créé
+ * (email dérivé du nom + slug de l'hôtel, mot de passe généré).
+ */
+@Service
+@RequiredArgsConstructor
+public class GuestAccountService {
+
+    private static final int LOCK_CLASS = 7142;
+
+    private final UserRepository userRepository;
+    private final GuestProfileRepository profileRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbc;
+
+    /** rawPassword est null quand le compte existait déjà (client reconnu). */
+    public record GuestAccount(User user, String email, String rawPassword) {
+
+        /**
+         * Email à renvoyer à l'appelant public : seulement pour un compte qu'il vient de créer.
+         * Un nom et un téléphone ne prouvent pas l'identité : l'email d'un compte reconnu n'est pas divulgué.
+         */
+        public String disclosableEmail() {
+            return existed() ? null : email;
+        }
+
+        /** Compte reconnu : ses identifiants ne sont pas renvoyés, la réception peut réinitialiser le mot de passe. */
+        public boolean existed() {
+            return rawPassword == null;
+        }
+    }
+
+    /**
+     * Sans téléphone, aucun rapprochement n'est tenté : le nom seul ne suffit pas
+     * à identifier un client.
+     */
+    @Transactional
+    public GuestAccount findOrCreate(Hotel hotel, String firstName, String lastName, String phone) {
+        String baseEmail = buildEmail(firstName, lastName, slugify(hotel.getName()));
+
+        // Un même client produit toujours la même base d'email : ce verrou sérialise à la fois
+        // le rapprochement et l'attribution du suffixe entre réservations concurrentes.
+        jdbc.queryForList("SELECT pg_advisory_xact_lock(?, hashtext(?))", LOCK_CLASS, baseEmail);
+
+        String key = matchKey(firstName, lastName, phone);
+        if (key == null) return create(hotel, firstName, lastName, baseEmail);
+
+        OffsetDateTime now = OffsetDateTime.now();
+        GuestProfile profile = profileRepository.findByHotelIdAndMatchKey(hotel.getId(), key).orElse(null);
+        if (profile != null && profile.getUser().isEnabled()) {
+            profile.setBookings(profile.getBookings() + 1);
+            profile.setLastSeenAt(now);
+            User user = profile.getUser();
+            return new GuestAccount(user, user.getEmail(), null);
+        }
+
+        GuestAccount created = create(hotel, firstName, lastName, baseEmail);
+        if (profile == null) {
+            profile = new GuestProfile();
+            profile.setHotel(hotel);
+            profile.setMatchKey(key);
+        }
+        profile.setUser(created.user());
+        profile.setBookings(profile.getBookings() + 1);
+        profile.setLastSeenAt(now);
+        profileRepository.save(profile);
+        return created;
+    }
+
+    private GuestAccount create(Hotel hotel, String firstName, String lastName, String baseEmail) {
+        String email = allocateEmail(baseEmail);
+        String rawPassword = generatePassword(firstName, lastName);
+        String encoded = passwordEncoder.encode(rawPassword);
+
+        User client = new User();
+        client.setFirstName(cap(firstName));
+        client.setLastName(cap(lastName));
+        client.setEmail(email);
+        client.setPassword(encoded);
+        client.setRole(Role.CLIENT);
+        client.setHotel(hotel);
+        client.setEnabled(true);
+        client = userRepository.save(client);
+
+        return new GuestAccount(client, email, rawPassword);
+    }
+
+    /* ========= Helpers ========= */
+
+    static String slugify(String s) {
+        if (s == null)
+            return "hotel";
+        String n = Normalizer.normalize(s, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return n.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+    }
+
+    static String cap(String s) {
+        if (s == null || s.isBlank())
+            return s;
+        String t = s.trim().toLowerCase(Locale.ROOT);
+        return Character.toUpperCase(t.charAt(0)) + t.substring(1);
+    }
+
+    /** prénom|nom|téléphone normalisés, ou null sans téléphone exploitable. */
+    static String matchKey(String firstName, String lastName, String phone) {
+        String digits = normalizePhone(phone);
+        if (digits == null) return null;
+        return slugify(firstName == null ? "" : firstName) + "|" + slugify(lastName == null ? "" : lastName) + "|" + digits;
+    }
+
+    /** Chiffres seuls, indicatif français ramené au format national (+33 6… / 0033 6… -> 06…). */
+    static String normalizePhone(String phone) {
+        if (phone == null) return null;
+        String d = phone.replaceAll("\\D", "");
+        if (d.startsWith("00")) d = d.substring(2);
+        if (d.startsWith("33") && d.length() == 11) d = "0" + d.substring(2);
+        return d.length() < 6 ? null : d;
+    }
+
+    /**
+     * Attribue base, base2, base3... en une seule requête : les emails déjà pris de la forme
+     * prefixe[chiffres]@domaine sont lus d'un coup et le suffixe suivant le plus grand est retenu.
+     */
+    private String allocateEmail(String base) {
+        int at = base.indexOf('@');
+        String local = base.substring(0, at);
+        String domain = base.substring(at);
+
+        int highest = 0;
+        for (String taken : userRepository.findEmailsLike(local + "%" + domain)) {
+            String suffix = taken.substring(local.length(), taken.length() - domain.length());
+            if (suffix.isEmpty()) highest = Math.max(highest, 1);
+            else if (suffix.length() < 10 && suffix.chars().allMatch(Character::isDigit))
+                highest = Math.max(highest, Integer.parseInt(suffix));
+        }
+        return highest == 0 ? base : local + (highest + 1) + domain;
+    }
+
+    private static String buildEmail(String firstName, String lastName, String hotelSlug) {
+        String fn = slugify(firstName == null ? "" : firstName).replace("-", "");
+        String ln = slugify(lastName == null ? "" : lastName).replace("-", "");
+        if (fn.isEmpty())
+            fn = "client";
+        if (ln.isEmpty())
+            ln = "x";
+        return fn + "." + ln + "@" + hotelSlug + ".hotel";
+    }
+
+    private static String generatePassword(String firstName, String lastName) {
+        SecureRandom r = new SecureRandom();
+        String base = (cap(firstName) + cap(lastName)).replaceAll("\\s+", "");
+        if (base.length() < 4)
+            base = "ClientHotel";
+        String alphabet = "ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz23456789";
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 8; i++)
+            sb.append(alphabet.charAt(r.nextInt(alphabet.length())));
+        String[] symbols = { "!", "#", "$", "%", "?" };
+        String sym = symbols[r.nextInt(symbols.length)];
+        String pw = base.substring(0, Math.min(4, base.length())) + sb + sym;
+        return pw.length() < 12 ? pw + "1234" : pw;
+    }
+}
@@ -0,0 +1,60 @@
+package com.hotelmanager.reservation.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Roue temporelle hachée : planifier une échéance coûte O(1), chaque tick ne parcourt qu'un seul seau.
+ *
+ * - un seau par tick, modulo la taille de la roue ; une échéance plus lointaine fait plusieurs tours
+ * - {@link #schedule} est thread-safe, {@link #advance} est appelé par un seul thread
+ * - pas d'annulation : l'appelant ignore les éléments devenus sans objet
+ */
+final class HoldExpiryWheel<T> {
+
+    private final long tickNanos;
+    private final int mask;
+    private final Queue<Slot<T>>[] buckets;
+    private final long origin = System.nanoTime();
+
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    HoldExpiryWheel(long tickNanos, int wheelSize) {
+        if (Integer.bitCount(wheelSize) != 1) throw new IllegalArgumentException("wheelSize must be a power of two");
+        this.tickNanos = tickNanos;
+        this.mask = wheelSize - 1;
+        this.buckets = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) buckets[i] = new ConcurrentLinkedQueue<>();
+    }
+
+    void schedule(T item, long delayNanos) {
+        long deadline = (System.nanoTime() - origin + Math.max(0, delayNanos) + tickNanos - 1) / tickNanos;
+        long tick = Math.max(deadline, currentTick + 1);
+        buckets[(int) (tick & mask)].add(new Slot<>(item, deadline));
+    }
+
+    /** Avance jusqu'à l'instant présent et renvoie les éléments échus. */
+    List<T> advance() {
+        long target = (System.nanoTime() - origin) / tickNanos;
+        List<T> due = new ArrayList<>();
+        // Un retard de plus d'un tour complet ne parcourt chaque seau qu'une fois.
+        long from = Math.max(currentTick + 1, target - mask);
+        for (long tick = from; tick <= target; tick++) {
+            Queue<Slot<T>> bucket = buckets[(int) (tick & mask)];
+            int n = bucket.size();
+            for (int i = 0; i < n; i++) {
+                Slot<T> s = bucket.poll();
+                if (s == null) break;
+                if (s.deadlineTick() <= target) due.add(s.item());
+                else bucket.add(s);
+            }
+        }
+        if (target > currentTick) currentTick = target;
+        return due;
+    }
+
+    private record Slot<T>(T item, long deadlineTick) {}
+}
@@ -0,0 +1,223 @@
+package com.hotelmanager.reservation.service;
+
+import com.hotelmanager.common.exception.BusinessRuleException;
+import com.hotelmanager.common.exception.NotFoundException;
+import com.hotelmanager.rate.service.RateEngine;
+import com.hotelmanager.reservation.dto.HoldConfirmRequest;
+import com.hotelmanager.reservation.dto.HoldRequest;
+import com.hotelmanager.reservation.dto.HoldResponse;
+import com.hotelmanager.reservation.dto.PublicReservationResponse;
+import com.hotelmanager.reservation.entity.Reservation;
+import com.hotelmanager.reservation.entity.ReservationStatus;
+import com.hotelmanager.reservation.event.ReservationChangedEvent;
+import com.hotelmanager.reservation.repository.ReservationBatchWriter;
+import com.hotelmanager.reservation.repository.ReservationBatchWriter.ExpiredHold;
+import com.hotelmanager.reservation.repository.ReservationRepository;
+import com.hotelmanager.room.entity.Room;
+import com.hotelmanager.room.entity.RoomState;
+import com.hotelmanager.room.repository.RoomRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Options (HOLD) sur une chambre et un intervalle pendant la saisie du client.
+ *
+ * - l'option est une réservation au statut HOLD : la contrainte d'exclusion et les contrôles de
+ *   chevauchement la voient, aucune autre réservation ne peut prendre le créneau
+ * - l'échéance est suivie en mémoire par une roue temporelle (tick d'une seconde) ;
+ *   un balayage périodique en base rattrape les options d'une instance arrêtée
+ * - la confirmation convertit la même ligne en CONFIRMED, sans nouveau contrôle de disponibilité
+ */
+@Slf4j
+@Service
+public class HoldService {
+
+    private static final int WHEEL_SIZE = 1024;
+    private static final int SWEEP_CHUNK = 500;
+
+    private final RoomRepository roomRepository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationBatchWriter batchWriter;
+    private final GuestAccountService guestAccounts;
+    private final RoomReservationSync sync;
+    private final RateEngine rateEngine;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate tx;
+    private final Duration ttl;
+    private final HoldExpiryWheel<Long> wheel;
+    private final SecureRandom random = new SecureRandom();
+
+    public HoldService(
+            RoomRepository roomRepository,
+            ReservationRepository reservationRepository,
+            ReservationBatchWriter batchWriter,
+            GuestAccountService guestAccounts,
+            RoomReservationSync sync,
+            RateEngine rateEngine,
+            ApplicationEventPublisher events,
+            PlatformTransactionManager transactionManager,
+            @Value("${hotel.holds.ttl:PT10M}") Duration ttl
+    ) {
+        this.roomRepository = roomRepository;
+        this.reservationRepository = reservationRepository;
+        this.batchWriter = batchWriter;
+        this.guestAccounts = guestAccounts;
+        this.sync = sync;
+        this.rateEngine = rateEngine;
+        this.events = events;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.wheel = new HoldExpiryWheel<>(Duration.ofSeconds(1).toNanos(), WHEEL_SIZE);
+    }
+
+    @Transactional
+    public HoldResponse hold(HoldRequest req) {
+        if (!req.startAt().isBefore(req.endAt())) {
+            throw new BusinessRuleException("Intervalle de dates invalide.");
+        }
+        Room room = roomRepository.findById(req.roomId())
+                .orElseThrow(() -> new NotFoundException("Chambre introuvable."));
+        if (room.getHotel() == null || !room.getHotel().getId().equals(req.hotelId())) {
+            throw new BusinessRuleException("Cette chambre n’appartient pas à l’hôtel demandé.");
+        }
+        if (!room.isActive() || room.getRoomState() == RoomState.INACTIVE) {
+            throw new BusinessRuleException("Chambre indisponible.");
+        }
+
+        OffsetDateTime expiresAt = OffsetDateTime.now().plus(ttl);
+        String token = newToken();
+
+        Reservation res = new Reservation();
+        res.setHotel(room.getHotel());
+        res.setRoom(room);
+        res.setGuestFirstName("");
+        res.setGuestLastName("");
+        res.setStartAt(req.startAt());
+        res.setEndAt(req.endAt());
+        res.setStatus(ReservationStatus.HOLD);
+        res.setHoldToken(token);
+        res.setHoldExpiresAt(expiresAt);
+        // Prix figé à la pose de l'option : la confirmation garde le tarif annoncé.
+        res.setPriceCents(rateEngine.table(req.hotelId()).quoteCents(room.getRoomType(), req.startAt(), req.endAt()));
+
+        try {
+            res = reservationRepository.saveAndFlush(res);
+        } catch (DataIntegrityViolationException e) {
+            throw new BusinessRuleException("Cette chambre est déjà réservée ou en option sur l’intervalle.");
+        }
+
+        sync.publishChanged(res, null);
+        wheel.schedule(res.getId(), ttl.toNanos());
+        return new HoldResponse(res.getId(), token, expiresAt);
+    }
+
+    @Transactional
+    public PublicReservationResponse confirm(Long holdId, HoldConfirmRequest req) {
+        Reservation res = findHold(holdId, req.token());
+        if (!res.getHoldExpiresAt().isAfter(OffsetDateTime.now())) {
+            throw new BusinessRuleException("Option expirée.");
+        }
+
+        res.setGuestFirstName(GuestAccountService.cap(req.firstName()));
+        res.setGuestLastName(GuestAccountService.cap(req.lastName()));
+        res.setGuestPhone(req.guestPhone());
+        res.setStatus(ReservationStatus.CONFIRMED);
+        res.setHoldToken(null);
+        res.setHoldExpiresAt(null);
+
+        // La version protège contre une expiration concurrente (UPDATE ensembliste qui l'incrémente).
+        try {
+            res = reservationRepository.saveAndFlush(res);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new BusinessRuleException("Option expirée.");
+        }
+
+        var guest = guestAccounts.findOrCreate(res.getHotel(), req.firstName(), req.lastName(), req.guestPhone());
+        res.setClient(guest.user());
+        sync.applyStatusToRoom(res, ReservationStatus.HOLD);
+
+        return new PublicReservationResponse(res.getId(), guest.disclosableEmail(), guest.rawPassword(), guest.existed());
+    }
+
+    @Transactional
+    public void release(Long holdId, String token) {
+        Reservation res = findHold(holdId, token);
+        // UPDATE conditionnel plutôt qu'un échec de verrou optimiste, qui marquerait la transaction rollback-only.
+        if (reservationRepository.releaseHold(res.getId(), token, OffsetDateTime.now()) == 0) {
+            return; // confirmée ou expirée entre-temps
+        }
+        res.setStatus(ReservationStatus.EXPIRED);
+        sync.publishChanged(res, ReservationStatus.HOLD);
+    }
+
+    /** Tick de la roue : expire en un seul UPDATE les options arrivées à échéance sur cette instance. */
+    @Scheduled(fixedRateString = "${hotel.holds.tick:PT1S}")
+    public void expireDue() {
+        List<Long> due = wheel.advance();
+        if (due.isEmpty()) return;
+        expire(due);
+    }
+
+    /** Rattrapage : options échues dont l'échéance n'est connue d'aucune roue (redémarrage, autre instance). */
+    @Scheduled(initialDelayString = "${hotel.holds.sweep-interval:PT1M}",
+               fixedDelayString = "${hotel.holds.sweep-interval:PT1M}")
+    public void sweep() {
+        int n;
+        do {
+            n = expire(null);
+        } while (n == SWEEP_CHUNK);
+    }
+
+    private int expire(List<Long> ids) {
+        try {
+            Integer n = tx.execute(status -> {
+                List<ExpiredHold> expired = batchWriter.expireHolds(ids, OffsetDateTime.now(), SWEEP_CHUNK);
+                for (ExpiredHold h : expired) {
+                    events.publishEvent(new ReservationChangedEvent(
+                            h.reservationId(), h.hotelId(), h.roomId(), h.startAt(), h.endAt(),
+                            ReservationStatus.HOLD, ReservationStatus.EXPIRED, null));
+                }
+                return expired.size();
+            });
+            return n == null ? 0 : n;
+        } catch (RuntimeException e) {
+            log.error("Expiration des options impossible : {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private Reservation findHold(Long holdId, String token) {
+        Reservation res = reservationRepository.findById(holdId)
+                .orElseThrow(() -> new NotFoundException("Option introuvable."));
+        if (res.getStatus() != ReservationStatus.HOLD || res.getHoldToken() == null
+                || !MessageDigest.isEqual(
+                        res.getHoldToken().getBytes(StandardCharsets.UTF_8),
+                        token.getBytes(StandardCharsets.UTF_8))) {
+            throw new NotFoundException("Option introuvable.");
+        }
+        return res;
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,85 @@
+package com.hotelmanager.reservation.service;
+
+import com.hotelmanager.hotel.entity.Hotel;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Découpage du temps en nuitées pour un hôtel.
+ * La nuit du jour d couvre [d à checkInHour, d+1 à checkOutHour) dans le fuseau du serveur.
+ *
+ * Occupation ({@link #firstNight}/{@link #lastNight}) : toute nuit chevauchée, même d'une heure,
+ * est bloquée. Nuitées d'un séjour ({@link #stayNights}) : une arrivée avant l'heure de départ
+ * ou un départ après l'heure d'arrivée ne compte pas de nuit en plus.
+ */
+public final class HotelNights {
+
+    private static final LocalTime DEFAULT_CHECK_IN = LocalTime.of(15, 0);
+    private static final LocalTime DEFAULT_CHECK_OUT = LocalTime.of(11, 0);
+
+    private final ZoneId zone;
+    private final LocalTime checkIn;
+    private final LocalTime checkOut;
+
+    private HotelNights(ZoneId zone, LocalTime checkIn, LocalTime checkOut) {
+        this.zone = zone;
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
+    }
+
+    public static HotelNights of(Hotel hotel) {
+        return new HotelNights(
+                ZoneId.systemDefault(),
+                parse(hotel == null ? null : hotel.getCheckInHour(), DEFAULT_CHECK_IN),
+                parse(hotel == null ? null : hotel.getCheckOutHour(), DEFAULT_CHECK_OUT));
+    }
+
+    public ZoneId zone() { return zone; }
+    public LocalTime checkIn() { return checkIn; }
+    public LocalTime checkOut() { return checkOut; }
+
+    public OffsetDateTime nightStart(LocalDate night) {
+        return night.atTime(checkIn).atZone(zone).toOffsetDateTime();
+    }
+
+    public OffsetDateTime nightEnd(LocalDate night) {
+        return night.plusDays(1).atTime(checkOut).atZone(zone).toOffsetDateTime();
+    }
+
+    /** Première nuit chevauchée par un séjour commençant à startAt. */
+    public LocalDate firstNight(OffsetDateTime startAt) {
+        LocalDate d = startAt.atZoneSameInstant(zone).toLocalDate().minusDays(1);
+        while (!nightEnd(d).isAfter(startAt)) d = d.plusDays(1);
+        return d;
+    }
+
+    /** Dernière nuit chevauchée par un séjour finissant à endAt (peut précéder firstNight). */
+    public LocalDate lastNight(OffsetDateTime endAt) {
+        LocalDate d = endAt.atZoneSameInstant(zone).toLocalDate();
+        while (!nightStart(d).isBefore(endAt)) d = d.minusDays(1);
+        return d;
+    }
+
+    /** Nuitées d'un séjour : de la nuit du jour d'arrivée à celle de la veille du départ, au moins une. */
+    public StayNights stayNights(OffsetDateTime startAt, OffsetDateTime endAt) {
+        LocalDate arrival = startAt.atZoneSameInstant(zone).toLocalDate();
+        LocalDate departure = endAt.atZoneSameInstant(zone).toLocalDate();
+        return new StayNights(arrival, (int) Math.max(1, ChronoUnit.DAYS.between(arrival, departure)));
+    }
+
+    public record StayNights(LocalDate first, int count) {}
+
+    private static LocalTime parse(String hhmm, LocalTime fallback) {
+        if (hhmm == null || hhmm.isBlank()) return fallback;
+        try {
+            return LocalTime.parse(hhmm.trim());
+        } catch (DateTimeParseException e) {
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.hotelmanager.reservation.service;
+
+import com.hotelmanager.reservation.dto.ReservationRow;
+import com.hotelmanager.reservation.entity.ReservationStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Sérialisation RFC 5545 minimale : un VEVENT par réservation, horaires en UTC,
+ * lignes repliées à 75 octets et terminées par CRLF.
+ */
+final class ICalendarWriter {
+
+    private static final DateTimeFormatter UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private ICalendarWriter() {}
+
+    static String write(String calendarName, List<ReservationRow> rows, OffsetDateTime stamp) {
+        StringBuilder sb = new StringBuilder(256 + rows.size() * 320);
+        line(sb, "BEGIN:VCALENDAR");
+        line(sb, "VERSION:2.0");
+        line(sb, "PRODID:-//HotelManager//Reservations//FR");
+        line(sb, "CALSCALE:GREGORIAN");
+        line(sb, "X-WR-CALNAME:" + escape(calendarName));
+
+        String dtStamp = format(stamp);
+        for (ReservationRow r : rows) {
+            line(sb, "BEGIN:VEVENT");
+            line(sb, "UID:reservation-" + r.id() + "@hotelmanager");
+            line(sb, "DTSTAMP:" + dtStamp);
+            line(sb, "DTSTART:" + format(r.startAt()));
+            line(sb, "DTEND:" + format(r.endAt()));
+            line(sb, "SEQUENCE:" + (r.version() == null ? 0 : r.version()));
+            line(sb, "STATUS:" + status(r.status()));
+            line(sb, "SUMMARY:" + escape("Chambre " + r.roomNumber() + " – " + r.guestLastName() + " " + r.guestFirstName()));
+            line(sb, "LOCATION:" + escape("Chambre " + r.roomNumber() + " (étage " + r.floor() + ")"));
+            line(sb, "DESCRIPTION:" + escape(r.roomType() + " – " + r.status().name()));
+            line(sb, "END:VEVENT");
+        }
+
+        line(sb, "END:VCALENDAR");
+        return sb.toString();
+    }
+
+    private static String status(ReservationStatus s) {
+        return switch (s) {
+            case PENDING, HOLD -> "TENTATIVE";
+            case CANCELED, NO_SHOW, EXPIRED -> "CANCELLED";
+            default -> "CONFIRMED";
+        };
+    }
+
+    private static String format(OffsetDateTime t) {
+        return t == null ? "" : t.withOffsetSameInstant(ZoneOffset.UTC).format(UTC);
+    }
+
+    private static String escape(String text) {
+        if (text == null) return "";
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n");
+    }
+
+    /** Repli à 75 octets UTF-8, sans couper un caractère multi-octets. */
+    private static void line(StringBuilder sb, String content) {
+        int octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int cp = content.codePointAt(i);
+            int len = new String(Character.toChars(cp)).getBytes(StandardCharsets.UTF_8).length;
+            if (octets + len > MAX_LINE_OCTETS) {
+                sb.append("\r\n ");
+                octets = 1;
+            }
+            sb.appendCodePoint(cp);
+            octets += len;
+            i += Character.charCount(cp);
+        }
+        sb.append("\r\n");
+    }
+}
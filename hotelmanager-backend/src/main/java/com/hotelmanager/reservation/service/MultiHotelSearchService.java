@@ -0,0 +1,251 @@
+package com.hotelmanager.reservation.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelmanager.common.exception.BusinessRuleException;
+import com.hotelmanager.hotel.entity.Hotel;
+import com.hotelmanager.hotel.repository.HotelRepository;
+import com.hotelmanager.reservation.dto.HotelSearchResult;
+import com.hotelmanager.reservation.dto.HotelSearchResult.Status;
+import com.hotelmanager.reservation.dto.HotelSearchSummary;
+import com.hotelmanager.room.dto.PublicRoomDto;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Recherche de disponibilité sur plusieurs hôtels à la fois.
+ *
+ * Chaque hôtel est évalué sur un pool borné (hotel.search.threads), qui protège aussi le pool
+ * de connexions JDBC ; un hôtel qui dépasse hotel.search.hotel-timeout (attente dans la file comprise)
+ * est rendu en TIMEOUT. Le délai s'applique aussi au travail lui-même : une tâche sortie de la file
+ * après son échéance n'est pas exécutée, et les requêtes SQL d'un hôtel reçoivent le temps restant
+ * comme délai de transaction (statement timeout JDBC), ce qui libère thread et connexion.
+ * Les résultats sont écrits en NDJSON au fil de l'eau, dans l'ordre où les hôtels répondent,
+ * puis une ligne de synthèse clôt le flux.
+ */
+@Slf4j
+@Service
+public class MultiHotelSearchService {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int MAX_NIGHTS = 30;
+
+    private final HotelRepository hotelRepository;
+    private final PublicReservationService reservationService;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final Duration hotelTimeout;
+    private final Duration deadline;
+    private final int maxHotels;
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    public MultiHotelSearchService(
+            HotelRepository hotelRepository,
+            PublicReservationService reservationService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${hotel.search.threads:8}") int threads,
+            @Value("${hotel.search.queue:1000}") int queue,
+            @Value("${hotel.search.hotel-timeout:PT2S}") Duration hotelTimeout,
+            @Value("${hotel.search.deadline:PT15S}") Duration deadline,
+            @Value("${hotel.search.max-hotels:500}") int maxHotels
+    ) {
+        this.hotelRepository = hotelRepository;
+        this.reservationService = reservationService;
+        this.objectMapper = objectMapper;
+        this.transactionManager = transactionManager;
+        this.hotelTimeout = hotelTimeout;
+        this.deadline = deadline;
+        this.maxHotels = maxHotels;
+
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queue);
+        executor.setThreadNamePrefix("hotel-search-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * @param roomType  type recherché (insensible à la casse), null = tous
+     * @param hotelIds  hôtels à interroger, null = tous les hôtels actifs
+     * @param text      filtre sur le nom ou l'adresse (ville...), null = aucun
+     */
+    public ResponseBodyEmitter search(OffsetDateTime startAt, OffsetDateTime endAt, String roomType, int minRooms,
+                                      Collection<Long> hotelIds, String text) {
+        if (startAt == null || endAt == null || !startAt.isBefore(endAt)) {
+            throw new BusinessRuleException("Intervalle de dates invalide.");
+        }
+        if (Duration.between(startAt, endAt).toDays() > MAX_NIGHTS) {
+            throw new BusinessRuleException("Séjour limité à " + MAX_NIGHTS + " nuits pour une recherche multi-hôtels.");
+        }
+
+        List<Hotel> hotels = selectHotels(hotelIds, text);
+        if (hotels.size() > maxHotels) {
+            throw new BusinessRuleException("Trop d'hôtels pour une seule recherche (max " + maxHotels + ").");
+        }
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(deadline.toMillis() + 1_000);
+        NdjsonStream stream = new NdjsonStream(emitter);
+        emitter.onTimeout(stream::close);
+        emitter.onError(e -> stream.close());
+        emitter.onCompletion(stream::close);
+
+        long started = System.nanoTime();
+        String type = roomType == null || roomType.isBlank() ? null : roomType.trim().toLowerCase(Locale.ROOT);
+        int wanted = Math.max(1, minRooms);
+
+        List<CompletableFuture<HotelSearchResult>> futures = hotels.stream()
+                .map(h -> submit(h, startAt, endAt, type, wanted, stream)
+                        .orTimeout(hotelTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                        .exceptionally(e -> HotelSearchResult.failed(h.getId(), h.getName(), h.getAddress(), statusOf(e)))
+                        .thenApply(r -> {
+                            stream.send(r);
+                            return r;
+                        }))
+                .toList();
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .orTimeout(deadline.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((v, e) -> {
+                    int available = 0, timedOut = 0;
+                    for (CompletableFuture<HotelSearchResult> f : futures) {
+                        HotelSearchResult r = f.getNow(null);
+                        if (r == null || r.status() == Status.TIMEOUT) timedOut++;
+                        else if (r.status() == Status.AVAILABLE) available++;
+                    }
+                    stream.send(new HotelSearchSummary(true, hotels.size(), available, timedOut,
+                            (System.nanoTime() - started) / 1_000_000));
+                    stream.complete();
+                });
+
+        return emitter;
+    }
+
+    private CompletableFuture<HotelSearchResult> submit(Hotel hotel, OffsetDateTime startAt, OffsetDateTime endAt,
+                                                        String type, int minRooms, NdjsonStream stream) {
+        long expiresAt = System.nanoTime() + hotelTimeout.toNanos();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long remainingMillis = (expiresAt - System.nanoTime()) / 1_000_000;
+                if (remainingMillis <= 0 || stream.isClosed()) {
+                    throw new CompletionException(new TimeoutException("Échéance dépassée dans la file"));
+                }
+                TransactionTemplate tx = new TransactionTemplate(transactionManager);
+                tx.setReadOnly(true);
+                tx.setTimeout((int) Math.max(1, (remainingMillis + 999) / 1000));
+                return tx.execute(status -> evaluate(hotel, startAt, endAt, type, minRooms));
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private HotelSearchResult evaluate(Hotel hotel, OffsetDateTime startAt, OffsetDateTime endAt, String type, int minRooms) {
+        Map<String, Integer> byType = new TreeMap<>();
+        BigDecimal lowest = null;
+        int count = 0;
+        for (PublicRoomDto room : reservationService.listAvailableRooms(hotel.getId(), startAt, endAt)) {
+            if (type != null && (room.roomType() == null || !room.roomType().toLowerCase(Locale.ROOT).equals(type))) continue;
+            count++;
+            byType.merge(room.roomType(), 1, Integer::sum);
+            if (room.stayTotal() != null && (lowest == null || room.stayTotal().compareTo(lowest) < 0)) lowest = room.stayTotal();
+        }
+        Status status = count >= minRooms ? Status.AVAILABLE : Status.FULL;
+        return new HotelSearchResult(hotel.getId(), hotel.getName(), hotel.getAddress(), status, count, lowest, byType);
+    }
+
+    private List<Hotel> selectHotels(Collection<Long> hotelIds, String text) {
+        List<Hotel> hotels = hotelIds == null || hotelIds.isEmpty()
+                ? hotelRepository.findAllByActiveTrue()
+                : hotelRepository.findAllById(hotelIds).stream().filter(h -> Boolean.TRUE.equals(h.getActive())).toList();
+        if (text == null || text.isBlank()) return hotels;
+
+        String needle = text.trim().toLowerCase(Locale.ROOT);
+        return hotels.stream()
+                .filter(h -> contains(h.getName(), needle) || contains(h.getAddress(), needle))
+                .toList();
+    }
+
+    private static boolean contains(String haystack, String needle) {
+        return haystack != null && haystack.toLowerCase(Locale.ROOT).contains(needle);
+    }
+
+    private static Status statusOf(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof TimeoutException || cause instanceof QueryTimeoutException
+                || cause instanceof TransactionTimedOutException) return Status.TIMEOUT;
+        if (cause instanceof RejectedExecutionException) return Status.SKIPPED;
+        log.warn("Recherche multi-hôtels : échec d'un hôtel : {}", cause.getMessage());
+        return Status.ERROR;
+    }
+
+    /**
+     * Écritures sérialisées sur l'emitter : les hôtels terminent sur des threads différents.
+     * Une fois le client parti, les résultats restants sont ignorés.
+     */
+    private final class NdjsonStream {
+        private final ResponseBodyEmitter emitter;
+        private boolean closed;
+
+        NdjsonStream(ResponseBodyEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized void send(Object line) {
+            if (closed) return;
+            try {
+                emitter.send(objectMapper.writeValueAsString(line) + "\n", MediaType.TEXT_PLAIN);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Sérialisation impossible", e);
+            } catch (IOException | IllegalStateException e) {
+                closed = true;
+            }
+        }
+
+        synchronized void complete() {
+            if (closed) return;
+            closed = true;
+            emitter.complete();
+        }
+
+        synchronized void close() {
+            closed = true;
+        }
+
+        synchronized boolean isClosed() {
+            return closed;
+        }
+    }
+}
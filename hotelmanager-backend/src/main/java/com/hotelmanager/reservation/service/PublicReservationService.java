@@ -3,27 +3,23 @@ package com.hotelmanager.reservation.service;
 import com.hotelmanager.common.exception.BusinessRuleException;
 import com.hotelmanager.common.exception.NotFoundException;
 import com.hotelmanager.hotel.entity.Hotel;
+import com.hotelmanager.rate.service.HotelRateTable;
+import com.hotelmanager.rate.service.RateEngine;
 import com.hotelmanager.reservation.repository.ReservationRepository;
+import com.hotelmanager.room.dto.PublicRoomDto;
 import com.hotelmanager.room.entity.Room;
 import com.hotelmanager.room.entity.RoomState;
 import com.hotelmanager.room.repository.RoomRepository;
-import com.hotelmanager.user.entity.Role;
-import com.hotelmanager.user.entity.User;
-import com.hotelmanager.user.repository.UserRepository;
 import com.hotelmanager.reservation.entity.Reservation;
 import com.hotelmanager.reservation.entity.ReservationStatus;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.security.SecureRandom;
-import java.text.Normalizer;
 import java.time.OffsetDateTime;
 import java.util.List;
-import java.util.Locale;
 
 @Service
 @RequiredArgsConstructor
@@ -31,35 +27,36 @@ public class PublicReservationService {
 
     private final RoomRepository roomRepository;
     private final ReservationRepository reservationRepository;
-    private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final GuestAccountService guestAccounts;
     private final RoomReservationSync sync;
+    private final RateEngine rateEngine;
 
     @Transactional(readOnly = true)
-    public List<Room> listAvailableRooms(Long hotelId, OffsetDateTime startAt, OffsetDateTime endAt) {
+    public List<PublicRoomDto> listAvailableRooms(Long hotelId, OffsetDateTime startAt, OffsetDateTime endAt) {
         if (startAt == null || endAt == null || !startAt.isBefore(endAt)) {
             throw new BusinessRuleException("Intervalle de dates invalide.");
         }
-        return roomRepository.findAvailableRoomsStrictlyLibre(hotelId, startAt, endAt);
+        HotelRateTable rates = rateEngine.table(hotelId);
+        return roomRepository.findAvailableRoomsStrictlyLibre(hotelId, startAt, endAt)
+                .stream()
+                .map(r -> PublicRoomDto.from(r, rates.quote(r.getRoomType(), startAt, endAt)))
+                .toList();
     }
 
     @Transactional
     public void cancelActiveByRoom(Long roomId) {
         var now = OffsetDateTime.now();
-        var actives = reservationRepository.findActiveFutureByRoom(
-                roomId,
-                now,
-                List.of(
-                        ReservationStatus.PENDING,
-                        ReservationStatus.CONFIRMED,
-                        ReservationStatus.CHECKED_IN));
+        var actives = reservationRepository.findActiveFutureByRoom(roomId, now);
 
         if (actives.isEmpty())
             return;
 
+        var previous = actives.stream().map(Reservation::getStatus).toList();
         for (var res : actives)
             res.setStatus(ReservationStatus.CANCELED);
         reservationRepository.saveAll(actives);
+        for (int i = 0; i < actives.size(); i++)
+            sync.publishChanged(actives.get(i), previous.get(i));
 
         var room = actives.get(0).getRoom();
         if (room != null && room.getRoomState() == RoomState.RESERVEE) {
@@ -73,6 +70,16 @@ public class PublicReservationService {
     public com.hotelmanager.reservation.dto.PublicReservationResponse reserve(
             Long hotelId, Long roomId, OffsetDateTime startAt, OffsetDateTime endAt,
             String firstName, String lastName, String guestPhone) {
+        return reserve(hotelId, roomId, startAt, endAt, firstName, lastName, guestPhone, false);
+    }
+
+    /**
+     * @param roomFlexible réservation par type : la chambre pourra être réattribuée avant l'arrivée
+     */
+    @Transactional
+    public com.hotelmanager.reservation.dto.PublicReservationResponse reserve(
+            Long hotelId, Long roomId, OffsetDateTime startAt, OffsetDateTime endAt,
+            String firstName, String lastName, String guestPhone, boolean roomFlexible) {
 
         if (startAt == null || endAt == null || !startAt.isBefore(endAt)) {
             throw new BusinessRuleException("Intervalle de dates invalide.");
@@ -91,96 +98,37 @@ public class PublicReservationService {
             throw new BusinessRuleException("Chambre indisponible.");
         }
 
+        // Pré-contrôle rapide uniquement : l'arbitre reste la contrainte d'exclusion
+        // ex_reservations_room_stay (voir SchemaPatchRunner).
         if (reservationRepository.existsOverlapping(roomId, startAt, endAt)) {
             throw new BusinessRuleException("Cette chambre est déjà réservée sur l’intervalle.");
         }
 
-        String hotelSlug = slugify(hotel.getName());
-        String email = ensureUniqueEmail(buildEmail(firstName, lastName, hotelSlug));
-        String rawPassword = generatePassword(firstName, lastName);
-        String encoded = passwordEncoder.encode(rawPassword);
-
-        User client = new User();
-        client.setFirstName(cap(firstName));
-        client.setLastName(cap(lastName));
-        client.setEmail(email);
-        client.setPassword(encoded);
-        client.setRole(Role.CLIENT);
-        client.setHotel(hotel);
-        client.setEnabled(true);
-        client = userRepository.save(client);
-
         Reservation res = new Reservation();
         res.setHotel(hotel);
         res.setRoom(room);
-        res.setClient(client);
-        res.setGuestFirstName(cap(firstName));
-        res.setGuestLastName(cap(lastName));
+        res.setGuestFirstName(GuestAccountService.cap(firstName));
+        res.setGuestLastName(GuestAccountService.cap(lastName));
         res.setGuestPhone(guestPhone);
         res.setStartAt(startAt);
         res.setEndAt(endAt);
         res.setStatus(ReservationStatus.CONFIRMED);
+        res.setRoomFlexible(roomFlexible);
+        res.setPriceCents(rateEngine.table(hotelId).quoteCents(room.getRoomType(), startAt, endAt));
 
+        // Insertion immédiate : un concurrent perdant échoue ici, avant le hash BCrypt.
         try {
-            res = reservationRepository.save(res);
-            sync.applyStatusToRoom(res);
+            res = reservationRepository.saveAndFlush(res);
         } catch (DataIntegrityViolationException e) {
             throw new BusinessRuleException("Conflit : créneau déjà pris pour cette chambre.");
         }
 
-        return new com.hotelmanager.reservation.dto.PublicReservationResponse(
-                res.getId(), email, rawPassword);
-    }
-
-    /* ========= Helpers ========= */
+        var guest = guestAccounts.findOrCreate(hotel, firstName, lastName, guestPhone);
 
-    private static String slugify(String s) {
-        if (s == null)
-            return "hotel";
-        String n = Normalizer.normalize(s, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
-        return n.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
-    }
-
-    private static String cap(String s) {
-        if (s == null || s.isBlank())
-            return s;
-        String t = s.trim().toLowerCase(Locale.ROOT);
-        return Character.toUpperCase(t.charAt(0)) + t.substring(1);
-    }
+        res.setClient(guest.user());
+        sync.applyStatusToRoom(res, null);
 
-    private String ensureUniqueEmail(String base) {
-        String email = base;
-        int i = 1;
-        while (userRepository.existsByEmail(email)) {
-            i++;
-            int at = base.indexOf('@');
-            email = base.substring(0, at) + i + base.substring(at);
-        }
-        return email;
-    }
-
-    private static String buildEmail(String firstName, String lastName, String hotelSlug) {
-        String fn = slugify(firstName == null ? "" : firstName).replace("-", "");
-        String ln = slugify(lastName == null ? "" : lastName).replace("-", "");
-        if (fn.isEmpty())
-            fn = "client";
-        if (ln.isEmpty())
-            ln = "x";
-        return fn + "." + ln + "@" + hotelSlug + ".hotel";
-    }
-
-    private static String generatePassword(String firstName, String lastName) {
-        SecureRandom r = new SecureRandom();
-        String base = (cap(firstName) + cap(lastName)).replaceAll("\\s+", "");
-        if (base.length() < 4)
-            base = "ClientHotel";
-        String alphabet = "ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz23456789";
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < 8; i++)
-            sb.append(alphabet.charAt(r.nextInt(alphabet.length())));
-        String[] symbols = { "!", "#", "$", "%", "?" };
-        String sym = symbols[r.nextInt(symbols.length)];
-        String pw = base.substring(0, Math.min(4, base.length())) + sb + sym;
-        return pw.length() < 12 ? pw + "1234" : pw;
+        return new com.hotelmanager.reservation.dto.PublicReservationResponse(
+                res.getId(), guest.disclosableEmail(), guest.rawPassword(), guest.existed());
     }
 }
@@ -0,0 +1,59 @@
+package com.hotelmanager.reservation.service;
+
+import com.hotelmanager.common.export.ExportColumn;
+import com.hotelmanager.common.export.ExportFormat;
+import com.hotelmanager.common.export.StreamingExporter;
+import com.hotelmanager.reservation.dto.ReservationRow;
+import com.hotelmanager.reservation.repository.ReservationRepository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class ReservationExportService {
+
+    private static final List<ExportColumn<ReservationRow>> COLUMNS = List.of(
+            new ExportColumn<>("id", ReservationRow::id),
+            new ExportColumn<>("roomId", ReservationRow::roomId),
+            new ExportColumn<>("roomNumber", ReservationRow::roomNumber),
+            new ExportColumn<>("roomType", ReservationRow::roomType),
+            new ExportColumn<>("floor", ReservationRow::floor),
+            new ExportColumn<>("clientId", ReservationRow::clientId),
+            new ExportColumn<>("clientFirstName", ReservationRow::clientFirstName),
+            new ExportColumn<>("clientLastName", ReservationRow::clientLastName),
+            new ExportColumn<>("clientEmail", ReservationRow::clientEmail),
+            new ExportColumn<>("guestFirstName", ReservationRow::guestFirstName),
+            new ExportColumn<>("guestLastName", ReservationRow::guestLastName),
+            new ExportColumn<>("guestPhone", ReservationRow::guestPhone),
+            new ExportColumn<>("startAt", ReservationRow::startAt),
+            new ExportColumn<>("endAt", ReservationRow::endAt),
+            new ExportColumn<>("status", ReservationRow::status),
+            new ExportColumn<>("version", ReservationRow::version)
+    );
+
+    private final ReservationRepository reservationRepository;
+    private final StreamingExporter exporter;
+
+    @Transactional(readOnly = true)
+    public Long currentMaxId(Long hotelId) {
+        return reservationRepository.findMaxIdByHotel(hotelId);
+    }
+
+    /**
+     * Écrit les réservations d'id dans ]afterId, untilId] via un curseur JDBC (fetchSize 500).
+     */
+    @Transactional(readOnly = true)
+    public long export(Long hotelId, ExportFormat format, long afterId, long untilId, OutputStream out)
+            throws IOException {
+        try (Stream<ReservationRow> rows = reservationRepository.streamForExport(hotelId, afterId, untilId)) {
+            return exporter.write(rows, format, COLUMNS, out);
+        }
+    }
+}
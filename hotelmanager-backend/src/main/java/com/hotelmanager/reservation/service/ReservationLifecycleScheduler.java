@@ -0,0 +1,136 @@
+package com.hotelmanager.reservation.service;
+
+import com.hotelmanager.hotel.entity.Hotel;
+import com.hotelmanager.hotel.repository.HotelRepository;
+import com.hotelmanager.reservation.entity.ReservationStatus;
+import com.hotelmanager.reservation.event.ReservationChangedEvent;
+import com.hotelmanager.reservation.repository.ReservationBatchWriter;
+import com.hotelmanager.reservation.repository.ReservationBatchWriter.Transitioned;
+import com.hotelmanager.reservation.repository.ReservationRepository;
+import com.hotelmanager.room.service.RoomService;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fait sortir automatiquement les réservations échues de leur statut actif :
+ *
+ * - PENDING / CONFIRMED -> NO_SHOW une fois passée l'heure de check-in du lendemain de l'arrivée
+ * - CHECKED_IN -> COMPLETED une fois passée l'heure de check-out du jour de départ
+ *
+ * Les transitions se font par lots (UPDATE ... RETURNING, SKIP LOCKED), une transaction par lot :
+ * plusieurs instances peuvent tourner en même temps sans traiter deux fois la même ligne.
+ */
+@Slf4j
+@Component
+public class ReservationLifecycleScheduler {
+
+    private static final List<ReservationStatus> AWAITING_ARRIVAL =
+            List.of(ReservationStatus.PENDING, ReservationStatus.CONFIRMED);
+    private static final List<ReservationStatus> IN_HOUSE = List.of(ReservationStatus.CHECKED_IN);
+
+    private final HotelRepository hotelRepository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationBatchWriter batchWriter;
+    private final RoomService roomService;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate tx;
+    private final int chunkSize;
+
+    public ReservationLifecycleScheduler(
+            HotelRepository hotelRepository,
+            ReservationRepository reservationRepository,
+            ReservationBatchWriter batchWriter,
+            RoomService roomService,
+            ApplicationEventPublisher events,
+            PlatformTransactionManager transactionManager,
+            @Value("${hotel.lifecycle.chunk-size:500}") int chunkSize
+    ) {
+        this.hotelRepository = hotelRepository;
+        this.reservationRepository = reservationRepository;
+        this.batchWriter = batchWriter;
+        this.roomService = roomService;
+        this.events = events;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(initialDelayString = "${hotel.lifecycle.initial-delay:PT1M}",
+               fixedDelayString = "${hotel.lifecycle.interval:PT5M}")
+    public void run() {
+        for (Hotel hotel : hotelRepository.findAllByActiveTrue()) {
+            try {
+                runForHotel(hotel, OffsetDateTime.now());
+            } catch (RuntimeException e) {
+                log.error("Cycle de vie des réservations : échec pour l'hôtel {} : {}", hotel.getId(), e.getMessage());
+            }
+        }
+    }
+
+    void runForHotel(Hotel hotel, OffsetDateTime now) {
+        HotelNights nights = HotelNights.of(hotel);
+        ZonedDateTime local = now.atZoneSameInstant(nights.zone());
+        LocalDate today = local.toLocalDate();
+
+        // Arrivée prévue le jour d : no-show à partir de d+1 à l'heure de check-in.
+        LocalDate lastNoShowArrival = local.toLocalTime().isBefore(nights.checkIn()) ? today.minusDays(2) : today.minusDays(1);
+        OffsetDateTime startBefore = lastNoShowArrival.plusDays(1).atStartOfDay(nights.zone()).toOffsetDateTime();
+
+        // Départ prévu le jour d : séjour terminé à partir de d à l'heure de check-out (et jamais avant endAt).
+        LocalDate lastDeparture = local.toLocalTime().isBefore(nights.checkOut()) ? today.minusDays(1) : today;
+        OffsetDateTime endBefore = lastDeparture.plusDays(1).atStartOfDay(nights.zone()).toOffsetDateTime();
+        if (endBefore.isAfter(now)) endBefore = now;
+
+        int noShows = drain(hotel.getId(), AWAITING_ARRIVAL, ReservationStatus.NO_SHOW, startBefore, true);
+        int completed = drain(hotel.getId(), IN_HOUSE, ReservationStatus.COMPLETED, endBefore, false);
+
+        if (noShows + completed > 0) {
+            log.info("Hôtel {} : {} no-show(s), {} séjour(s) terminé(s)", hotel.getId(), noShows, completed);
+        }
+    }
+
+    private int drain(Long hotelId, List<ReservationStatus> from, ReservationStatus to,
+                      OffsetDateTime bound, boolean byStart) {
+        int total = 0;
+        while (true) {
+            Integer moved = tx.execute(status -> {
+                List<Transitioned> rows = byStart
+                        ? batchWriter.transitionByStart(hotelId, from, to, bound, chunkSize)
+                        : batchWriter.transitionByEnd(hotelId, from, to, bound, chunkSize);
+                if (rows.isEmpty()) return 0;
+
+                applyRoomStates(hotelId, rows, to);
+                for (Transitioned r : rows) {
+                    events.publishEvent(new ReservationChangedEvent(
+                            r.reservationId(), hotelId, r.roomId(), r.startAt(), r.endAt(), r.previousStatus(), to, r.priceCents()));
+                }
+                return rows.size();
+            });
+            int n = moved == null ? 0 : moved;
+            total += n;
+            if (n < chunkSize) return total;
+        }
+    }
+
+    /**
+     * Les chambres occupées depuis par un autre client (CHECKED_IN) gardent leur état.
+     */
+    private void applyRoomStates(Long hotelId, List<Transitioned> rows, ReservationStatus to) {
+        Set<Long> roomIds = new HashSet<>();
+        rows.forEach(r -> roomIds.add(r.roomId()));
+        roomIds.removeAll(reservationRepository.findRoomIdsWithStatus(roomIds, ReservationStatus.CHECKED_IN));
+        roomService.applyReservationStatus(hotelId, roomIds, to);
+    }
+}
@@ -0,0 +1,136 @@
+package com.hotelmanager.reservation.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Placement de séjours dans les chambres d'un même type, en mémoire, sur des nuits numérotées
+ * (epoch day). Un séjour occupe les nuits [first, end).
+ *
+ * Le coût d'un placement est la somme des coûts de ses deux côtés :
+ * - séjour accolé (écart nul) : 0
+ * - écart de 1 à orphanMax nuits : trou invendable, fortement pénalisé
+ * - écart plus long : sa longueur, plafonnée (préférer la chambre la plus ajustée)
+ * - aucun séjour de ce côté : même plafond
+ */
+final class RoomAssignmentPlanner {
+
+    private static final int ORPHAN_COST = 10_000;
+    private static final int OPEN_COST = 400;
+
+    record Stay(Long reservationId, Long roomId, int first, int end, boolean movable, Long version) {}
+
+    record Move(Long reservationId, Long fromRoomId, Long toRoomId, Long version) {}
+
+    record Plan(List<Move> moves, Map<Long, NavigableMap<Integer, Integer>> occupancy,
+                int orphanNightsBefore, int orphanNightsAfter) {
+        int recovered() {
+            return orphanNightsBefore - orphanNightsAfter;
+        }
+    }
+
+    private RoomAssignmentPlanner() {}
+
+    /** Occupation par chambre : début -> fin des séjours, dans l'ordre de roomIds. */
+    static Map<Long, NavigableMap<Integer, Integer>> occupancy(List<Long> roomIds, List<Stay> stays, boolean movableToo) {
+        Map<Long, NavigableMap<Integer, Integer>> occ = new LinkedHashMap<>();
+        for (Long id : roomIds) occ.put(id, new TreeMap<>());
+        for (Stay s : stays) {
+            if (!movableToo && s.movable()) continue;
+            NavigableMap<Integer, Integer> room = occ.get(s.roomId());
+            if (room != null) room.merge(s.first(), s.end(), Math::max);
+        }
+        return occ;
+    }
+
+    /** Chambres pouvant accueillir [first, end), de la moins coûteuse à la plus coûteuse. */
+    static List<Long> rank(Map<Long, NavigableMap<Integer, Integer>> occ, int first, int end, int orphanMax) {
+        Map<Long, Integer> costs = new HashMap<>();
+        List<Long> feasible = new ArrayList<>();
+        occ.forEach((roomId, stays) -> {
+            int c = cost(stays, first, end, orphanMax);
+            if (c >= 0) {
+                costs.put(roomId, c);
+                feasible.add(roomId);
+            }
+        });
+        feasible.sort(Comparator.comparingInt(costs::get));
+        return feasible;
+    }
+
+    /** -1 si [first, end) chevauche un séjour de la chambre. */
+    static int cost(NavigableMap<Integer, Integer> stays, int first, int end, int orphanMax) {
+        Map.Entry<Integer, Integer> prev = stays.floorEntry(first);
+        if (prev != null && prev.getValue() > first) return -1;
+        Map.Entry<Integer, Integer> next = stays.higherEntry(first);
+        if (next != null && next.getKey() < end) return -1;
+        return sideCost(prev == null ? -1 : first - prev.getValue(), orphanMax)
+                + sideCost(next == null ? -1 : next.getKey() - end, orphanMax);
+    }
+
+    private static int sideCost(int gap, int orphanMax) {
+        if (gap < 0) return OPEN_COST;
+        if (gap == 0) return 0;
+        if (gap <= orphanMax) return ORPHAN_COST;
+        return Math.min(gap, OPEN_COST);
+    }
+
+    /** Nuits libres de [from, to) prises entre deux séjours distants d'au plus orphanMax nuits. */
+    static int orphanNights(Map<Long, NavigableMap<Integer, Integer>> occ, int from, int to, int orphanMax) {
+        int total = 0;
+        for (NavigableMap<Integer, Integer> stays : occ.values()) {
+            Integer prevEnd = null;
+            for (Map.Entry<Integer, Integer> e : stays.entrySet()) {
+                if (prevEnd != null) {
+                    int gap = e.getKey() - prevEnd;
+                    if (gap > 0 && gap <= orphanMax) {
+                        total += Math.max(0, Math.min(e.getKey(), to) - Math.max(prevEnd, from));
+                    }
+                }
+                prevEnd = prevEnd == null ? e.getValue() : Math.max(prevEnd, e.getValue());
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Replace tous les séjours déplaçables, par date d'arrivée puis du plus long au plus court,
+     * chacun dans la chambre de moindre coût (à coût égal, sa chambre actuelle).
+     * Le plan n'est retenu que s'il réduit le nombre de nuits orphelines sur [from, to).
+     */
+    static Plan optimize(List<Long> roomIds, List<Stay> stays, int from, int to, int orphanMax) {
+        Map<Long, NavigableMap<Integer, Integer>> current = occupancy(roomIds, stays, true);
+        int before = orphanNights(current, from, to, orphanMax);
+        Plan unchanged = new Plan(List.of(), current, before, before);
+
+        Map<Long, NavigableMap<Integer, Integer>> occ = occupancy(roomIds, stays, false);
+        List<Stay> movable = stays.stream()
+                .filter(Stay::movable)
+                .sorted(Comparator.comparingInt(Stay::first).thenComparing(Comparator.comparingInt(Stay::end).reversed()))
+                .toList();
+
+        List<Move> moves = new ArrayList<>();
+        for (Stay s : movable) {
+            List<Long> ranked = rank(occ, s.first(), s.end(), orphanMax);
+            if (ranked.isEmpty()) return unchanged;
+
+            Long target = ranked.get(0);
+            int best = cost(occ.get(target), s.first(), s.end(), orphanMax);
+            NavigableMap<Integer, Integer> own = occ.get(s.roomId());
+            if (own != null && cost(own, s.first(), s.end(), orphanMax) == best) target = s.roomId();
+
+            occ.get(target).put(s.first(), s.end());
+            if (!target.equals(s.roomId())) moves.add(new Move(s.reservationId(), s.roomId(), target, s.version()));
+        }
+
+        int after = orphanNights(occ, from, to, orphanMax);
+        if (after >= before || moves.isEmpty()) return unchanged;
+        return new Plan(moves, occ, before, after);
+    }
+}
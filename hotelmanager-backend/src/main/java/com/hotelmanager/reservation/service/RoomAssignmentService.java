@@ -0,0 +1,321 @@
+package com.hotelmanager.reservation.service;
+
+import com.hotelmanager.common.exception.BusinessRuleException;
+import com.hotelmanager.common.exception.NotFoundException;
+import com.hotelmanager.hotel.entity.Hotel;
+import com.hotelmanager.hotel.repository.HotelRepository;
+import com.hotelmanager.reservation.dto.AssignableStay;
+import com.hotelmanager.reservation.dto.AssignmentReport;
+import com.hotelmanager.reservation.dto.PublicReservationResponse;
+import com.hotelmanager.reservation.dto.TypeReservationRequest;
+import com.hotelmanager.reservation.entity.ReservationStatus;
+import com.hotelmanager.reservation.event.ReservationChangedEvent;
+import com.hotelmanager.reservation.repository.ReservationBatchWriter;
+import com.hotelmanager.reservation.repository.ReservationBatchWriter.RoomMove;
+import com.hotelmanager.reservation.repository.ReservationRepository;
+import com.hotelmanager.reservation.service.RoomAssignmentPlanner.Move;
+import com.hotelmanager.reservation.service.RoomAssignmentPlanner.Plan;
+import com.hotelmanager.reservation.service.RoomAssignmentPlanner.Stay;
+import com.hotelmanager.room.entity.Room;
+import com.hotelmanager.room.entity.RoomState;
+import com.hotelmanager.room.repository.RoomRepository;
+import com.hotelmanager.room.service.RoomService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Attribution des chambres par type, pour limiter les nuits isolées entre deux séjours
+ * (invendables) :
+ *
+ * - à la réservation, la chambre retenue est celle où le séjour crée le moins de trous
+ * - chaque nuit, les réservations par type pas encore arrivées sont replacées si cela
+ *   réduit le nombre de nuits orphelines ; les types de chambre sont évalués en parallèle
+ *   pour les grands hôtels
+ *
+ * Seules les réservations faites par type (roomFlexible) changent de chambre.
+ */
+@Slf4j
+@Service
+public class RoomAssignmentService {
+
+    private static final int LOOKAROUND_DAYS = 14;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Set<RoomState> UNASSIGNABLE = Set.of(RoomState.INACTIVE, RoomState.MAINTENANCE);
+    private static final Set<ReservationStatus> AWAITING_ARRIVAL = Set.of(ReservationStatus.PENDING, ReservationStatus.CONFIRMED);
+
+    private final HotelRepository hotelRepository;
+    private final RoomRepository roomRepository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationBatchWriter batchWriter;
+    private final PublicReservationService publicService;
+    private final RoomService roomService;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate tx;
+    private final ForkJoinPool planningPool;
+    private final boolean reoptimize;
+    private final int horizonDays;
+    private final int orphanMaxNights;
+    private final int parallelThreshold;
+
+    public RoomAssignmentService(
+            HotelRepository hotelRepository,
+            RoomRepository roomRepository,
+            ReservationRepository reservationRepository,
+            ReservationBatchWriter batchWriter,
+            PublicReservationService publicService,
+            RoomService roomService,
+            ApplicationEventPublisher events,
+            PlatformTransactionManager transactionManager,
+            @Value("${hotel.assignment.reoptimize:true}") boolean reoptimize,
+            @Value("${hotel.assignment.horizon-days:120}") int horizonDays,
+            @Value("${hotel.assignment.orphan-max-nights:1}") int orphanMaxNights,
+            @Value("${hotel.assignment.parallelism:4}") int parallelism,
+            @Value("${hotel.assignment.parallel-threshold:100}") int parallelThreshold
+    ) {
+        this.hotelRepository = hotelRepository;
+        this.roomRepository = roomRepository;
+        this.reservationRepository = reservationRepository;
+        this.batchWriter = batchWriter;
+        this.publicService = publicService;
+        this.roomService = roomService;
+        this.events = events;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.planningPool = new ForkJoinPool(parallelism);
+        this.reoptimize = reoptimize;
+        this.horizonDays = horizonDays;
+        this.orphanMaxNights = orphanMaxNights;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        planningPool.shutdown();
+    }
+
+    /* =================== Réservation par type =================== */
+
+    /**
+     * Réserve la mieux placée des chambres libres. Les chambres prises entre-temps sont écartées
+     * par une lecture, sans exception : l'appel peut ainsi tourner dans la transaction de
+     * l'idempotence, qu'un échec marquerait rollback-only.
+     *
+     * Si l'insertion perd malgré tout la course (contrainte d'exclusion), la chambre suivante n'est
+     * essayée que hors transaction englobante ; sinon le conflit est renvoyé et rien n'est validé,
+     * la requête peut être renvoyée avec la même clé.
+     */
+    public PublicReservationResponse reserveByType(TypeReservationRequest req) {
+        if (!req.startAt().isBefore(req.endAt())) {
+            throw new BusinessRuleException("Intervalle de dates invalide.");
+        }
+        Hotel hotel = hotelRepository.findById(req.hotelId())
+                .orElseThrow(() -> new NotFoundException("Hôtel introuvable."));
+        List<Room> rooms = assignableRoomsByType(hotel.getId()).getOrDefault(typeKey(req.roomType()), List.of());
+        if (rooms.isEmpty()) {
+            throw new NotFoundException("Aucune chambre de ce type dans cet hôtel.");
+        }
+
+        HotelNights nights = HotelNights.of(hotel);
+        List<Long> roomIds = rooms.stream().map(Room::getId).toList();
+        List<AssignableStay> rows = reservationRepository.findAssignableStays(roomIds,
+                req.startAt().minusDays(LOOKAROUND_DAYS), req.endAt().plusDays(LOOKAROUND_DAYS));
+
+        int first = (int) nights.firstNight(req.startAt()).toEpochDay();
+        int end = nightsEnd(nights, first, req.endAt());
+        // Aucun séjour n'est déplacé ici : seule l'occupation actuelle compte.
+        List<Long> ranked = RoomAssignmentPlanner.rank(
+                RoomAssignmentPlanner.occupancy(roomIds, toStays(nights, rows, 0, 0), true), first, end, orphanMaxNights);
+
+        int attempts = 0;
+        for (Long roomId : ranked) {
+            if (reservationRepository.existsOverlapping(roomId, req.startAt(), req.endAt())) {
+                log.debug("Chambre {} prise entre-temps, chambre suivante", roomId);
+                continue;
+            }
+            try {
+                return publicService.reserve(hotel.getId(), roomId, req.startAt(), req.endAt(),
+                        req.firstName(), req.lastName(), req.guestPhone(), true);
+            } catch (BusinessRuleException e) {
+                if (TransactionSynchronizationManager.isActualTransactionActive() || ++attempts >= MAX_ATTEMPTS) throw e;
+                log.debug("Chambre {} prise entre-temps, essai suivant : {}", roomId, e.getMessage());
+            }
+        }
+        throw new BusinessRuleException("Aucune chambre de ce type n’est disponible sur l’intervalle.");
+    }
+
+    /* =================== Réattribution =================== */
+
+    @Scheduled(cron = "${hotel.assignment.cron:0 30 3 * * *}")
+    public void reoptimizeNightly() {
+        if (!reoptimize) return;
+        for (Hotel hotel : hotelRepository.findAllByActiveTrue()) {
+            try {
+                AssignmentReport r = optimize(hotel.getId());
+                if (r.movedReservations() > 0) {
+                    log.info("Hôtel {} : {} réservation(s) déplacée(s), {} nuit(s) récupérée(s) en {} ms",
+                            r.hotelId(), r.movedReservations(), r.recoveredRoomNights(), r.elapsedMillis());
+                }
+            } catch (RuntimeException e) {
+                log.error("Réattribution des chambres : échec pour l'hôtel {} : {}", hotel.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Replace les réservations par type arrivant à partir de demain et finissant avant l'horizon,
+     * type de chambre par type de chambre (une transaction par type).
+     */
+    public AssignmentReport optimize(Long hotelId) {
+        long started = System.nanoTime();
+        Hotel hotel = hotelRepository.findById(hotelId)
+                .orElseThrow(() -> new NotFoundException("Hôtel introuvable."));
+        HotelNights nights = HotelNights.of(hotel);
+        LocalDate tomorrow = LocalDate.now(nights.zone()).plusDays(1);
+        int from = (int) tomorrow.toEpochDay();
+        int to = from + horizonDays;
+
+        Map<String, List<Room>> byType = assignableRoomsByType(hotelId);
+        List<Long> allRoomIds = byType.values().stream().flatMap(List::stream).map(Room::getId).toList();
+        if (allRoomIds.isEmpty()) return new AssignmentReport(hotelId, 0, 0, 0, 0, 0, 0);
+
+        // Fenêtre élargie en amont : un séjour finissant juste avant demain borne un éventuel trou.
+        List<AssignableStay> rows = reservationRepository.findAssignableStays(allRoomIds,
+                nights.nightStart(tomorrow.minusDays(LOOKAROUND_DAYS)), nights.nightStart(tomorrow.plusDays(horizonDays)));
+        Map<Long, AssignableStay> rowsById = rows.stream().collect(Collectors.toMap(AssignableStay::id, Function.identity()));
+        Map<Long, List<Stay>> staysByRoom = toStays(nights, rows, from, to).stream()
+                .collect(Collectors.groupingBy(Stay::roomId));
+
+        List<TypeInput> inputs = new ArrayList<>();
+        byType.forEach((type, rooms) -> {
+            List<Long> roomIds = rooms.stream().map(Room::getId).toList();
+            List<Stay> stays = roomIds.stream().flatMap(id -> staysByRoom.getOrDefault(id, List.of()).stream()).toList();
+            inputs.add(new TypeInput(rooms, roomIds, stays));
+        });
+
+        Function<TypeInput, Plan> planner = in -> RoomAssignmentPlanner.optimize(in.roomIds(), in.stays(), from, to, orphanMaxNights);
+        List<Plan> plans = allRoomIds.size() >= parallelThreshold
+                ? planningPool.submit(() -> inputs.parallelStream().map(planner).toList()).join()
+                : inputs.stream().map(planner).toList();
+
+        int moved = 0, before = 0, after = 0;
+        for (int i = 0; i < inputs.size(); i++) {
+            Plan plan = plans.get(i);
+            int applied = plan.moves().isEmpty() ? 0 : apply(hotelId, inputs.get(i), plan, rowsById);
+            before += plan.orphanNightsBefore();
+            after += applied > 0 ? plan.orphanNightsAfter() : plan.orphanNightsBefore();
+            moved += applied;
+        }
+
+        return new AssignmentReport(hotelId, inputs.size(), moved, before, after, before - after,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Tout ou rien par type : une réservation modifiée depuis le calcul (version) ou un conflit
+     * détecté au commit annule le plan de ce type, repris la nuit suivante.
+     */
+    private int apply(Long hotelId, TypeInput in, Plan plan, Map<Long, AssignableStay> rowsById) {
+        List<RoomMove> moves = plan.moves().stream()
+                .map(m -> new RoomMove(m.reservationId(), m.fromRoomId(), m.toRoomId(), m.version()))
+                .toList();
+        try {
+            Integer applied = tx.execute(status -> {
+                int n = batchWriter.moveRooms(moves);
+                if (n != moves.size()) {
+                    status.setRollbackOnly();
+                    return 0;
+                }
+                syncRoomStates(hotelId, in, plan);
+                for (Move m : plan.moves()) {
+                    AssignableStay row = rowsById.get(m.reservationId());
+                    events.publishEvent(new ReservationChangedEvent(
+                            m.reservationId(), hotelId, m.toRoomId(), row.startAt(), row.endAt(), row.status(), row.status(), null));
+                }
+                return n;
+            });
+            return applied == null ? 0 : applied;
+        } catch (RuntimeException e) {
+            log.warn("Réattribution abandonnée pour l'hôtel {} : {}", hotelId, e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Une chambre libre qui reçoit un séjour passe RESERVEE ; une chambre RESERVEE qui n'a plus
+     * aucun séjour sur la fenêtre, ni au-delà de l'horizon, redevient LIBRE.
+     */
+    private void syncRoomStates(Long hotelId, TypeInput in, Plan plan) {
+        Map<Long, Room> rooms = in.rooms().stream().collect(Collectors.toMap(Room::getId, Function.identity()));
+        Set<Long> gained = new HashSet<>();
+        Set<Long> emptied = new HashSet<>();
+        for (Move m : plan.moves()) {
+            if (rooms.get(m.toRoomId()).getRoomState() == RoomState.LIBRE) gained.add(m.toRoomId());
+            if (rooms.get(m.fromRoomId()).getRoomState() == RoomState.RESERVEE
+                    && plan.occupancy().get(m.fromRoomId()).isEmpty()) emptied.add(m.fromRoomId());
+        }
+        // La fenêtre du plan ne voit pas les séjours plus lointains : relus après les déplacements.
+        OffsetDateTime now = OffsetDateTime.now();
+        emptied.removeIf(roomId -> !reservationRepository.findActiveFutureByRoom(roomId, now).isEmpty());
+        roomService.applyReservationStatus(hotelId, gained, ReservationStatus.CONFIRMED);
+        roomService.applyReservationStatus(hotelId, emptied, ReservationStatus.CANCELED);
+    }
+
+    /* =================== Helpers =================== */
+
+    private Map<String, List<Room>> assignableRoomsByType(Long hotelId) {
+        Map<String, List<Room>> byType = new LinkedHashMap<>();
+        roomRepository.findByHotelId(hotelId).stream()
+                .filter(r -> r.isActive() && r.getRoomType() != null && !UNASSIGNABLE.contains(r.getRoomState()))
+                .sorted((a, b) -> Integer.compare(a.getRoomNumber(), b.getRoomNumber()))
+                .forEach(r -> byType.computeIfAbsent(typeKey(r.getRoomType()), k -> new ArrayList<>()).add(r));
+        return byType;
+    }
+
+    /**
+     * Séjours en nuits ; déplaçable = réservé par type, pas encore arrivé, entièrement dans [movableFrom, movableTo).
+     */
+    private static List<Stay> toStays(HotelNights nights, List<AssignableStay> rows, int movableFrom, int movableTo) {
+        List<Stay> stays = new ArrayList<>(rows.size());
+        for (AssignableStay r : rows) {
+            int first = (int) nights.firstNight(r.startAt()).toEpochDay();
+            int end = nightsEnd(nights, first, r.endAt());
+            boolean movable = r.roomFlexible()
+                    && AWAITING_ARRIVAL.contains(r.status())
+                    && first >= movableFrom
+                    && end <= movableTo;
+            stays.add(new Stay(r.id(), r.roomId(), first, end, movable, r.version()));
+        }
+        return stays;
+    }
+
+    /** Fin exclusive en nuits ; au moins une nuit, même pour un séjour de jour. */
+    private static int nightsEnd(HotelNights nights, int first, OffsetDateTime endAt) {
+        return Math.max(first + 1, (int) nights.lastNight(endAt).toEpochDay() + 1);
+    }
+
+    private static String typeKey(String roomType) {
+        return roomType.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record TypeInput(List<Room> rooms, List<Long> roomIds, List<Stay> stays) {}
+}
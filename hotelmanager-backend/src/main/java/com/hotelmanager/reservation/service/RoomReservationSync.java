@@ -1,10 +1,13 @@
 package com.hotelmanager.reservation.service;
 
 import com.hotelmanager.reservation.entity.Reservation;
+import com.hotelmanager.reservation.entity.ReservationStatus;
+import com.hotelmanager.reservation.event.ReservationChangedEvent;
 import com.hotelmanager.room.entity.Room;
 import com.hotelmanager.room.service.RoomService;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,12 +16,30 @@ import org.springframework.transaction.annotation.Transactional;
 public class RoomReservationSync {
 
     private final RoomService roomService;
+    private final ApplicationEventPublisher events;
 
     @Transactional
-    public void applyStatusToRoom(Reservation res) {
+    public void applyStatusToRoom(Reservation res, ReservationStatus previousStatus) {
+        publishChanged(res, previousStatus);
+
         Room room = res.getRoom();
         if (room == null) return;
 
         roomService.applyReservationStatus(room, res.getStatus());
     }
+
+    /**
+     * Notifie les écouteurs (caches, agrégats...) qu'une réservation a été créée ou a changé de statut.
+     */
+    public void publishChanged(Reservation res, ReservationStatus previousStatus) {
+        events.publishEvent(new ReservationChangedEvent(
+                res.getId(),
+                res.getHotel() == null ? null : res.getHotel().getId(),
+                res.getRoom() == null ? null : res.getRoom().getId(),
+                res.getStartAt(),
+                res.getEndAt(),
+                previousStatus,
+                res.getStatus(),
+                res.getPriceCents()));
+    }
 }
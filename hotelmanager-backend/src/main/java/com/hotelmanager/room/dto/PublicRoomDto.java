@@ -0,0 +1,38 @@
+package com.hotelmanager.room.dto;
+
+import com.hotelmanager.room.entity.Room;
+import com.hotelmanager.room.entity.RoomState;
+
+import java.math.BigDecimal;
+
+/**
+ * Vue publique d'une chambre : aucun lien vers l'hôtel ni le client.
+ * stayTotal : prix du séjour recherché, null si le type de chambre n'est pas tarifé.
+ */
+public record PublicRoomDto(
+        Long id,
+        int roomNumber,
+        String roomType,
+        int floor,
+        String description,
+        RoomState roomState,
+        boolean active,
+        BigDecimal stayTotal
+) {
+    public static PublicRoomDto from(Room r) {
+        return from(r, null);
+    }
+
+    public static PublicRoomDto from(Room r, BigDecimal stayTotal) {
+        return new PublicRoomDto(
+                r.getId(),
+                r.getRoomNumber(),
+                r.getRoomType(),
+                r.getFloor(),
+                r.getDescription(),
+                r.getRoomState(),
+                r.isActive(),
+                stayTotal
+        );
+    }
+}
@@ -0,0 +1,6 @@
+package com.hotelmanager.room.dto;
+
+/**
+ * Projection minimale d'une chambre vendable : identifiant + type.
+ */
+public record RoomTypeRef(Long id, String roomType) {}
@@ -67,6 +67,10 @@ public class Room {
     @JoinColumn(name = "hotel_id", nullable = false)
     private Hotel hotel;
 
+    /** Verrou optimiste : les mises à jour en masse (update versioned) l'incrémentent aussi. */
+    @Version
+    private Long version;
+
     @PrePersist
     public void prePersist() {
         lastUpdated = LocalDateTime.now();
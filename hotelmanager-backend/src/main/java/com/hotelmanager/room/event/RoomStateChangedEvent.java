@@ -0,0 +1,14 @@
+package com.hotelmanager.room.event;
+
+import com.hotelmanager.room.entity.RoomState;
+
+/**
+ * Publié quand une chambre change d'état, est créée, modifiée ou supprimée.
+ * previousState est null pour une création, newState est null pour une suppression.
+ */
+public record RoomStateChangedEvent(
+        Long hotelId,
+        Long roomId,
+        RoomState previousState,
+        RoomState newState
+) {}
@@ -1,12 +1,18 @@
 package com.hotelmanager.room.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.hotelmanager.room.dto.RoomTypeRef;
 import com.hotelmanager.room.entity.Room;
 import com.hotelmanager.room.entity.RoomState;
+import com.hotelmanager.user.entity.User;
 
+import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,10 +40,62 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
             SELECT 1
             FROM reservations res
             WHERE res.room_id = r.id
-              AND res.status IN ('PENDING','CONFIRMED','CHECKED_IN')
+              AND res.status IN ('HOLD','PENDING','CONFIRMED','CHECKED_IN')
               AND NOT (res.end_at <= :startAt OR res.start_at >= :endAt)
           )
         ORDER BY r.room_number ASC
     """, nativeQuery = true)
     List<Room> findAvailableRoomsStrictlyLibre(Long hotelId, OffsetDateTime startAt, OffsetDateTime endAt);
+
+    @Query("""
+        select new com.hotelmanager.room.dto.RoomTypeRef(r.id, r.roomType)
+        from Room r
+        where r.hotel.id = :hotelId
+          and r.active = true
+          and r.roomState not in :excludedStates
+        order by r.id asc
+    """)
+    List<RoomTypeRef> findSellableRoomTypes(
+        @Param("hotelId") Long hotelId,
+        @Param("excludedStates") Collection<RoomState> excludedStates
+    );
+
+    long countByIdInAndRoomStateNot(Collection<Long> ids, RoomState state);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        update versioned Room r
+           set r.roomState = :state, r.lastUpdated = :now
+         where r.id in :ids
+    """)
+    int bulkSetState(
+        @Param("ids") Collection<Long> ids,
+        @Param("state") RoomState state,
+        @Param("now") LocalDateTime now
+    );
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        update versioned Room r
+           set r.roomState = :state, r.client = null, r.lastUpdated = :now
+         where r.id in :ids
+    """)
+    int bulkSetStateAndReleaseClient(
+        @Param("ids") Collection<Long> ids,
+        @Param("state") RoomState state,
+        @Param("now") LocalDateTime now
+    );
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        update versioned Room r
+           set r.roomState = :state, r.client = :client, r.lastUpdated = :now
+         where r.id in :ids
+    """)
+    int bulkSetStateAndClient(
+        @Param("ids") Collection<Long> ids,
+        @Param("state") RoomState state,
+        @Param("client") User client,
+        @Param("now") LocalDateTime now
+    );
 }
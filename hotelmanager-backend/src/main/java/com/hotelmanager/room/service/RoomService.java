@@ -6,11 +6,13 @@ import com.hotelmanager.hotel.entity.Hotel;
 import com.hotelmanager.reservation.entity.ReservationStatus;
 import com.hotelmanager.room.entity.Room;
 import com.hotelmanager.room.entity.RoomState;
+import com.hotelmanager.room.event.RoomStateChangedEvent;
 import com.hotelmanager.room.repository.RoomRepository;
 import com.hotelmanager.user.entity.User;
 import com.hotelmanager.user.repository.UserRepository;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -28,6 +30,7 @@ public class RoomService {
 
     private final RoomRepository roomRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher events;
 
     private static final Map<RoomState, Set<RoomState>> ALLOWED = Map.ofEntries(
             Map.entry(LIBRE, Set.of(RESERVEE, CHECKIN, MAINTENANCE, INACTIVE)),
@@ -104,7 +107,9 @@ public class RoomService {
         if (roomRepository.existsByHotelIdAndRoomNumber(hotel.getId(), room.getRoomNumber())) {
             throw new BusinessRuleException("Numéro de chambre déjà utilisé dans cet hôtel.");
         }
-        return roomRepository.save(room);
+        Room saved = roomRepository.save(room);
+        publishStateChanged(saved, null, saved.getRoomState());
+        return saved;
     }
 
     public Room update(Long id, Room updatedRoom) {
@@ -122,7 +127,9 @@ public class RoomService {
         existing.setDescription(updatedRoom.getDescription());
         existing.setActive(updatedRoom.isActive());
         existing.setLastUpdated(LocalDateTime.now());
-        return roomRepository.save(existing);
+        Room saved = roomRepository.save(existing);
+        publishStateChanged(saved, saved.getRoomState(), saved.getRoomState());
+        return saved;
     }
 
     public void delete(Long id) {
@@ -131,6 +138,7 @@ public class RoomService {
             throw new BusinessRuleException("Suppression impossible: l'état actuel est " + room.getRoomState());
         }
         roomRepository.delete(room);
+        publishStateChanged(room, room.getRoomState(), null);
     }
 
     /* =================== Manual state changes (UI) =================== */
@@ -147,7 +155,9 @@ public class RoomService {
 
         room.setRoomState(target);
         room.setLastUpdated(LocalDateTime.now());
-        return roomRepository.save(room);
+        Room saved = roomRepository.save(room);
+        publishStateChanged(saved, current, target);
+        return saved;
     }
 
     public Room updateState(Long id, RoomState target) {
@@ -165,24 +175,66 @@ public class RoomService {
     public Room applyReservationStatus(Room room, ReservationStatus status) {
         if (room == null || status == null) return room;
 
-        RoomState target = switch (status) {
+        RoomState target = targetStateFor(status);
+        if (target == null) return room;
+
+        RoomState previous = room.getRoomState();
+        room.setRoomState(target);
+        if (releasesClient(status)) {
+            room.setClient(null);
+        }
+
+        room.setLastUpdated(LocalDateTime.now());
+        Room saved = roomRepository.save(room);
+        // Même état : le changement de réservation a déjà invalidé sa plage, pas tout l'hôtel.
+        if (previous != target) publishStateChanged(saved, previous, target);
+        return saved;
+    }
+
+    /**
+     * Même règle que {@link #applyReservationStatus(Room, ReservationStatus)} appliquée
+     * en une seule requête UPDATE à un lot de chambres d'un hôtel.
+     */
+    public int applyReservationStatus(Long hotelId, Collection<Long> roomIds, ReservationStatus status) {
+        return applyReservationStatus(hotelId, roomIds, status, null);
+    }
+
+    /**
+     * @param client client des nouvelles réservations, rattaché aux chambres comme pour une
+     *               réservation unitaire ; null : client des chambres inchangé
+     */
+    public int applyReservationStatus(Long hotelId, Collection<Long> roomIds, ReservationStatus status, User client) {
+        if (roomIds == null || roomIds.isEmpty() || status == null) return 0;
+
+        RoomState target = targetStateFor(status);
+        if (target == null) return 0;
+        boolean stateChanges = roomRepository.countByIdInAndRoomStateNot(roomIds, target) > 0;
+        LocalDateTime now = LocalDateTime.now();
+        int updated;
+        if (releasesClient(status)) updated = roomRepository.bulkSetStateAndReleaseClient(roomIds, target, now);
+        else if (client != null) updated = roomRepository.bulkSetStateAndClient(roomIds, target, client, now);
+        else updated = roomRepository.bulkSetState(roomIds, target, now);
+
+        if (stateChanges) events.publishEvent(new RoomStateChangedEvent(hotelId, null, null, target));
+        return updated;
+    }
+
+    /** null : le statut ne modifie pas l'état de la chambre (options). */
+    private static RoomState targetStateFor(ReservationStatus status) {
+        return switch (status) {
+            case HOLD, EXPIRED      -> null;
             case PENDING, CONFIRMED -> RESERVEE;
             case CHECKED_IN         -> CHECKIN;
             case NO_SHOW            -> A_VALIDER_LIBRE;
             case CANCELED           -> LIBRE;
             case COMPLETED          -> A_NETTOYER;
         };
+    }
 
-        room.setRoomState(target);
-
-        if (status == ReservationStatus.CANCELED
+    private static boolean releasesClient(ReservationStatus status) {
+        return status == ReservationStatus.CANCELED
                 || status == ReservationStatus.NO_SHOW
-                || status == ReservationStatus.COMPLETED) {
-            room.setClient(null);
-        }
-
-        room.setLastUpdated(LocalDateTime.now());
-        return roomRepository.save(room);
+                || status == ReservationStatus.COMPLETED;
     }
 
     /* =================== One-time generation =================== */
@@ -232,5 +284,11 @@ public class RoomService {
         }
 
         roomRepository.saveAll(roomsToSave);
+        events.publishEvent(new RoomStateChangedEvent(hotel.getId(), null, null, LIBRE));
+    }
+
+    private void publishStateChanged(Room room, RoomState previous, RoomState next) {
+        Long hotelId = room.getHotel() == null ? null : room.getHotel().getId();
+        events.publishEvent(new RoomStateChangedEvent(hotelId, room.getId(), previous, next));
     }
 }
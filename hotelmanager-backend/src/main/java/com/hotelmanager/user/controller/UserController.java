@@ -84,6 +84,14 @@ public class UserController {
                 .body(UserCreatedResponse.from(createdUser));
     }
 
+    @PostMapping("/{id}/reset-password")
+    @PreAuthorize("hasRole('MANAGER')")
+    public ResponseEntity<UserResponse> resetClientPassword(
+            @PathVariable Long id,
+            @AuthenticationPrincipal User manager) {
+        return ResponseEntity.ok(userService.resetClientPassword(manager, id));
+    }
+
     /* ──────────────── PUT (SELF) ──────────────── */
 
     @PutMapping("/me")
@@ -1,6 +1,8 @@
 package com.hotelmanager.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.hotelmanager.user.entity.Role;
 import com.hotelmanager.user.entity.User;
@@ -14,4 +16,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     Optional<User> findOneWithHotelByEmail(String email);
     List<User> findAllByHotel_IdAndRole(Long hotelId, Role role);
+
+    /** Emails correspondant à un motif LIKE (ex. "jean.martin%@mon-hotel.hotel"), en une requête. */
+    @Query("select u.email from User u where u.email like :pattern")
+    List<String> findEmailsLike(@Param("pattern") String pattern);
 }
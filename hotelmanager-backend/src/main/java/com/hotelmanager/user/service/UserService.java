@@ -4,8 +4,10 @@ import com.hotelmanager.user.dto.ChangePasswordRequest;
 import com.hotelmanager.user.dto.EmployeeRequest;
 import com.hotelmanager.user.dto.UserResponse;
 import com.hotelmanager.user.dto.UserSelfUpdateRequest;
+import com.hotelmanager.user.entity.Role;
 import com.hotelmanager.user.entity.User;
 import com.hotelmanager.user.repository.UserRepository;
+import com.hotelmanager.util.PasswordUtil;
 
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -86,4 +88,20 @@ public class UserService {
         me.setPassword(passwordEncoder.encode(req.newPassword()));
         userRepository.save(me);
     }
+
+    /**
+     * Nouveau mot de passe pour un client de l'hôtel du manager, remis par la réception
+     * (client reconnu lors d'une réservation publique, identifiants perdus).
+     */
+    public UserResponse resetClientPassword(User manager, Long clientId) {
+        User client = getUserById(clientId);
+        if (client.getRole() != Role.CLIENT || client.getHotel() == null || manager.getHotel() == null
+                || !client.getHotel().getId().equals(manager.getHotel().getId())) {
+            throw new IllegalArgumentException("Client introuvable dans cet hôtel.");
+        }
+        String rawPassword = PasswordUtil.generateSecurePassword(12);
+        client.setPassword(passwordEncoder.encode(rawPassword));
+        userRepository.save(client);
+        return UserResponse.from(client, rawPassword);
+    }
 }
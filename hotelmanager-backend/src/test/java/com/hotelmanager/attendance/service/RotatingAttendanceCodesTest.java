@@ -0,0 +1,101 @@
+package com.hotelmanager.attendance.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Code derivation against fixed vectors, and the drift window around the current step.
+ * One-hour steps keep the current step stable for the duration of a test.
+ */
+class RotatingAttendanceCodesTest {
+
+  private static final String SECRET = "dGVzdC1hdHRlbmRhbmNlLXNlY3JldA==";
+  private static final Duration STEP = Duration.ofHours(1);
+
+  private final RotatingAttendanceCodes codes = new RotatingAttendanceCodes("ROTATING", SECRET, STEP, 1);
+
+  @Test
+  void codesMatchFixedVectors() {
+    assertEquals("GK2ENP", codes.codeAt(1L, 0));
+    assertEquals("VP3W6V", codes.codeAt(1L, 29_000_000));
+    assertEquals("P6X9T7", codes.codeAt(2L, 0));
+    assertEquals("CYGE4W", codes.codeAt(2L, 29_000_000));
+  }
+
+  @Test
+  void codesUseSixCharactersOfTheUnambiguousAlphabet() {
+    for (long step = 0; step < 200; step++) {
+      String code = codes.codeAt(1L, step);
+      assertTrue(code.matches("[A-HJ-NP-Z2-9]{6}"), code);
+    }
+  }
+
+  @Test
+  void eachHotelGetsItsOwnCodes() {
+    long step = currentStep();
+    assertNotEquals(codes.codeAt(1L, step), codes.codeAt(2L, step));
+    assertFalse(codes.verify(2L, codes.codeAt(1L, step)));
+  }
+
+  @Test
+  void codesWithinTheDriftWindowAreAccepted() {
+    long step = currentStep();
+
+    assertTrue(codes.verify(1L, codes.codeAt(1L, step - 1)));
+    assertTrue(codes.verify(1L, codes.codeAt(1L, step)));
+    assertTrue(codes.verify(1L, codes.codeAt(1L, step + 1)));
+  }
+
+  @Test
+  void codesOutsideTheDriftWindowAreRejected() {
+    long step = currentStep();
+
+    assertFalse(codes.verify(1L, codes.codeAt(1L, step - 2)));
+    assertFalse(codes.verify(1L, codes.codeAt(1L, step + 2)));
+  }
+
+  @Test
+  void zeroDriftOnlyAcceptsTheCurrentStep() {
+    RotatingAttendanceCodes strict = new RotatingAttendanceCodes("ROTATING", SECRET, STEP, 0);
+    long step = currentStep();
+
+    assertTrue(strict.verify(1L, strict.codeAt(1L, step)));
+    assertFalse(strict.verify(1L, strict.codeAt(1L, step - 1)));
+  }
+
+  @Test
+  void candidateIsTrimmedAndCaseInsensitive() {
+    String code = codes.codeAt(1L, currentStep());
+
+    assertTrue(codes.verify(1L, "  " + code.toLowerCase() + " "));
+    assertFalse(codes.verify(1L, code.substring(1)));
+    assertFalse(codes.verify(1L, null));
+  }
+
+  @Test
+  void currentCodeIsTheCodeOfTheCurrentStep() {
+    DailyCodeService.ActiveCode active = codes.current(1L);
+
+    assertEquals(codes.codeAt(1L, currentStep()), active.code());
+    assertTrue(active.isValidAt(LocalDateTime.now()));
+    assertTrue(codes.verify(1L, active.code()));
+  }
+
+  @Test
+  void rotatingModeRequiresASecret() {
+    assertThrows(IllegalStateException.class, () -> new RotatingAttendanceCodes("ROTATING", " ", STEP, 1));
+  }
+
+  private static long currentStep() {
+    return Instant.now().getEpochSecond() / STEP.getSeconds();
+  }
+}
@@ -0,0 +1,138 @@
+package com.hotelmanager.planning.service;
+
+import com.hotelmanager.planning.dto.ShiftConflict;
+import com.hotelmanager.planning.dto.ShiftConflict.Type;
+import com.hotelmanager.planning.dto.ShiftInterval;
+import com.hotelmanager.planning.repository.ShiftRepository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Conflict rules on a schedule loaded from stubbed shifts (min rest 11h, max duration 12h).
+ */
+class ShiftConflictEngineTest {
+
+    private static final Long HOTEL = 1L;
+    private static final Long EMPLOYEE = 10L;
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    private final ShiftRepository shiftRepository = mock(ShiftRepository.class);
+    private final ShiftConflictEngine engine =
+            new ShiftConflictEngine(shiftRepository, Duration.ofHours(11), Duration.ofHours(12));
+
+    @Test
+    void overlappingShiftIsReported() {
+        ShiftConflictEngine.Schedule schedule = load(stored(1L, DAY, "08:00", "16:00"));
+
+        List<ShiftConflict> conflicts = schedule.check(candidate(DAY, "15:00", "20:00"));
+
+        assertEquals(1, conflicts.size());
+        assertEquals(Type.OVERLAP, conflicts.get(0).type());
+        assertEquals(1L, conflicts.get(0).conflictingShiftId());
+    }
+
+    @Test
+    void restIsMeasuredFromTheEndOfANightShift() {
+        ShiftConflictEngine.Schedule schedule = load(stored(1L, DAY, "22:00", "06:00"));
+
+        List<ShiftConflict> tooSoon = schedule.check(candidate(DAY.plusDays(1), "14:00", "20:00"));
+        assertEquals(1, tooSoon.size());
+        assertEquals(Type.REST, tooSoon.get(0).type());
+        assertEquals(1L, tooSoon.get(0).conflictingShiftId());
+
+        assertTrue(schedule.check(candidate(DAY.plusDays(1), "17:00", "23:00")).isEmpty());
+    }
+
+    @Test
+    void restIsAlsoCheckedBeforeTheNextShift() {
+        ShiftConflictEngine.Schedule schedule = load(stored(1L, DAY.plusDays(1), "06:00", "14:00"));
+
+        List<ShiftConflict> conflicts = schedule.check(candidate(DAY, "16:00", "23:00"));
+
+        assertEquals(1, conflicts.size());
+        assertEquals(Type.REST, conflicts.get(0).type());
+    }
+
+    @Test
+    void splitShiftOfTheSameDayNeedsNoRest() {
+        ShiftConflictEngine.Schedule schedule = load(stored(1L, DAY, "07:00", "11:00"));
+
+        assertTrue(schedule.check(candidate(DAY, "17:00", "21:00")).isEmpty());
+    }
+
+    @Test
+    void swappedShiftsDoNotConflict() {
+        ShiftConflictEngine.Schedule schedule = load(
+                stored(1L, DAY, "08:00", "16:00"),
+                stored(2L, DAY, "16:00", "00:00"));
+        ShiftInterval first = new ShiftInterval(1L, EMPLOYEE, DAY, time("16:00"), time("00:00"));
+        ShiftInterval second = new ShiftInterval(2L, EMPLOYEE, DAY, time("08:00"), time("16:00"));
+
+        // Moved one at a time, the first lands on the second's old slot.
+        assertEquals(Type.OVERLAP, load(stored(1L, DAY, "08:00", "16:00"), stored(2L, DAY, "16:00", "00:00"))
+                .place(first).get(0).type());
+
+        // As ShiftService.checkShifts does: every moved shift leaves first.
+        schedule.remove(1L);
+        schedule.remove(2L);
+        List<ShiftConflict> conflicts = new ArrayList<>();
+        conflicts.addAll(schedule.place(first));
+        conflicts.addAll(schedule.place(second));
+        assertTrue(conflicts.isEmpty());
+    }
+
+    @Test
+    void shiftsOfTheSameBatchAreCheckedAgainstEachOther() {
+        ShiftConflictEngine.Schedule schedule = load();
+
+        assertTrue(schedule.place(candidate(DAY, "08:00", "16:00")).isEmpty());
+        List<ShiftConflict> conflicts = schedule.place(candidate(DAY, "12:00", "18:00"));
+
+        assertEquals(1, conflicts.size());
+        assertEquals(Type.OVERLAP, conflicts.get(0).type());
+        assertNull(conflicts.get(0).conflictingShiftId());
+    }
+
+    @Test
+    void tooLongShiftIsReported() {
+        ShiftConflictEngine.Schedule schedule = load();
+
+        List<ShiftConflict> conflicts = schedule.check(candidate(DAY, "06:00", "20:00"));
+
+        assertEquals(1, conflicts.size());
+        assertEquals(Type.DURATION, conflicts.get(0).type());
+        assertTrue(schedule.check(candidate(DAY, "06:00", "18:00")).isEmpty());
+    }
+
+    private ShiftConflictEngine.Schedule load(ShiftInterval... stored) {
+        when(shiftRepository.findIntervals(eq(HOTEL), anyCollection(), any(), any())).thenReturn(List.of(stored));
+        return engine.load(HOTEL, List.of(EMPLOYEE), DAY, DAY.plusDays(1));
+    }
+
+    private static ShiftInterval stored(Long id, LocalDate date, String start, String end) {
+        return new ShiftInterval(id, EMPLOYEE, date, time(start), time(end));
+    }
+
+    private static ShiftInterval candidate(LocalDate date, String start, String end) {
+        return new ShiftInterval(null, EMPLOYEE, date, time(start), time(end));
+    }
+
+    private static LocalTime time(String hhmm) {
+        return LocalTime.parse(hhmm);
+    }
+}
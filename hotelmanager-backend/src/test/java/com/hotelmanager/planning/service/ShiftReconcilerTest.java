@@ -0,0 +1,139 @@
+package com.hotelmanager.planning.service;
+
+import com.hotelmanager.planning.entity.ShiftReconciliation.Outcome;
+import com.hotelmanager.planning.service.ShiftReconciler.Match;
+import com.hotelmanager.planning.service.ShiftReconciler.Punch;
+import com.hotelmanager.planning.service.ShiftReconciler.ShiftSlot;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Shift/attendance matching with a 30-minute early window and a 5-minute grace period.
+ */
+class ShiftReconcilerTest {
+
+    private static final Long EMPLOYEE = 10L;
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+    private static final Duration EARLY_WINDOW = Duration.ofMinutes(30);
+    private static final Duration GRACE = Duration.ofMinutes(5);
+
+    @Test
+    void lateArrivalWithinGraceIsOnTime() {
+        Match m = single(shift(1L, DAY, "08:00", "16:00"), punch(100L, DAY, "08:04", "16:00"));
+
+        assertEquals(Outcome.ON_TIME, m.outcome());
+        assertEquals(100L, m.attendanceId());
+        assertEquals(0, m.lateMinutes());
+        assertEquals(476, m.workedMinutes());
+    }
+
+    @Test
+    void lateAndEarlyBeyondGraceAreBothReported() {
+        Match m = single(shift(1L, DAY, "08:00", "16:00"), punch(100L, DAY, "08:20", "15:30"));
+
+        assertEquals(Outcome.LATE_AND_EARLY, m.outcome());
+        assertEquals(20, m.lateMinutes());
+        assertEquals(30, m.earlyMinutes());
+        assertEquals(430, m.workedMinutes());
+    }
+
+    @Test
+    void earlyDepartureAlone() {
+        Match m = single(shift(1L, DAY, "08:00", "16:00"), punch(100L, DAY, "07:55", "15:00"));
+
+        assertEquals(Outcome.EARLY_DEPARTURE, m.outcome());
+        assertEquals(60, m.earlyMinutes());
+    }
+
+    @Test
+    void openAttendanceReportsLatenessOnly() {
+        Match m = single(shift(1L, DAY, "08:00", "16:00"), openPunch(100L, DAY, "08:30"));
+
+        assertEquals(Outcome.OPEN, m.outcome());
+        assertEquals(30, m.lateMinutes());
+        assertEquals(0, m.workedMinutes());
+    }
+
+    @Test
+    void missingOrAbsentAttendanceIsANoShow() {
+        Match missing = single(shift(1L, DAY, "08:00", "16:00"));
+        assertEquals(Outcome.NO_SHOW, missing.outcome());
+        assertNull(missing.attendanceId());
+
+        Match absent = single(shift(1L, DAY, "08:00", "16:00"),
+                new Punch(100L, EMPLOYEE, at(DAY, "08:00"), at(DAY, "08:00"), true));
+        assertEquals(Outcome.NO_SHOW, absent.outcome());
+        assertEquals(100L, absent.attendanceId());
+    }
+
+    @Test
+    void attendanceEndingBeforeTheEarlyWindowIsNotMatched() {
+        Match m = single(shift(1L, DAY, "08:00", "16:00"), punch(100L, DAY, "06:00", "07:00"));
+
+        assertEquals(Outcome.NO_SHOW, m.outcome());
+    }
+
+    @Test
+    void splitShiftsEachTakeTheirOwnAttendance() {
+        List<Match> matches = ShiftReconciler.reconcile(
+                List.of(shift(2L, DAY, "17:00", "21:00"), shift(1L, DAY, "07:00", "11:00")),
+                List.of(punch(101L, DAY, "16:58", "21:00"), punch(100L, DAY, "06:55", "11:00")),
+                EARLY_WINDOW, GRACE);
+
+        List<Match> sorted = matches.stream().sorted(Comparator.comparing(m -> m.shift().shiftId())).toList();
+        assertEquals(100L, sorted.get(0).attendanceId());
+        assertEquals(101L, sorted.get(1).attendanceId());
+        assertEquals(Outcome.ON_TIME, sorted.get(0).outcome());
+        assertEquals(Outcome.ON_TIME, sorted.get(1).outcome());
+    }
+
+    @Test
+    void nightShiftMatchesAnAttendanceEndingTheNextDay() {
+        ShiftSlot night = new ShiftSlot(1L, EMPLOYEE, DAY, at(DAY, "22:00"), at(DAY.plusDays(1), "06:00"));
+        Punch p = new Punch(100L, EMPLOYEE, at(DAY, "21:50"), at(DAY.plusDays(1), "06:02"), false);
+
+        Match m = single(night, p);
+
+        assertEquals(Outcome.ON_TIME, m.outcome());
+        assertEquals(480, m.workedMinutes());
+    }
+
+    @Test
+    void attendancesOfAnotherEmployeeAreIgnored() {
+        Punch other = new Punch(100L, 99L, at(DAY, "08:00"), at(DAY, "16:00"), false);
+
+        assertEquals(Outcome.NO_SHOW, single(shift(1L, DAY, "08:00", "16:00"), other).outcome());
+    }
+
+    private static Match single(ShiftSlot shift, Punch... punches) {
+        List<Match> matches = ShiftReconciler.reconcile(List.of(shift), List.of(punches), EARLY_WINDOW, GRACE);
+        assertEquals(1, matches.size());
+        return matches.get(0);
+    }
+
+    private static ShiftSlot shift(Long id, LocalDate date, String start, String end) {
+        return new ShiftSlot(id, EMPLOYEE, date, at(date, start), at(date, end));
+    }
+
+    private static Punch punch(Long id, LocalDate date, String in, String out) {
+        return new Punch(id, EMPLOYEE, at(date, in), at(date, out), false);
+    }
+
+    private static Punch openPunch(Long id, LocalDate date, String in) {
+        return new Punch(id, EMPLOYEE, at(date, in), null, false);
+    }
+
+    private static LocalDateTime at(LocalDate date, String time) {
+        return date.atTime(LocalTime.parse(time));
+    }
+}
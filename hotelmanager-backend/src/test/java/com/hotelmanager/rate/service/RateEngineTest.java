@@ -0,0 +1,140 @@
+package com.hotelmanager.rate.service;
+
+import com.hotelmanager.hotel.entity.Hotel;
+import com.hotelmanager.hotel.repository.HotelRepository;
+import com.hotelmanager.rate.entity.DailyRate;
+import com.hotelmanager.rate.entity.RoomTypeRate;
+import com.hotelmanager.rate.event.RatesChangedEvent;
+import com.hotelmanager.rate.repository.DailyRateRepository;
+import com.hotelmanager.rate.repository.RoomTypeRateRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Grille compilée à partir de dépôts simulés : tarif de base 100,00, haute saison +50 %
+ * sur les nuits origin+3 .. origin+5 incluses, horizon de 30 jours.
+ */
+class RateEngineTest {
+
+    private static final Long HOTEL = 1L;
+    private static final long BASE = 10_000;
+    private static final long SEASON = 15_000;
+
+    private final HotelRepository hotelRepository = mock(HotelRepository.class);
+    private final RoomTypeRateRepository rateRepository = mock(RoomTypeRateRepository.class);
+    private final DailyRateRepository dailyRateRepository = mock(DailyRateRepository.class);
+    private final RateEngine engine = new RateEngine(hotelRepository, rateRepository, dailyRateRepository, 30);
+
+    private LocalDate origin;
+
+    @BeforeEach
+    void setUp() {
+        origin = LocalDate.now().minusDays(1);
+
+        Hotel.Season season = new Hotel.Season();
+        season.setFromDate(origin.plusDays(3).toString());
+        season.setToDate(origin.plusDays(5).toString());
+        Hotel hotel = new Hotel();
+        hotel.setId(HOTEL);
+        hotel.setHighSeason(season);
+        when(hotelRepository.findById(HOTEL)).thenReturn(Optional.of(hotel));
+
+        when(rateRepository.findByHotelIdOrderByRoomTypeAsc(HOTEL)).thenReturn(List.of(rate("Double", "100.00", 50)));
+        when(dailyRateRepository.findByHotelIdAndDayBetween(eq(HOTEL), any(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void highSeasonAppliesFromItsFirstToItsLastNightIncluded() {
+        HotelRateTable table = engine.table(HOTEL);
+
+        assertEquals(BASE, table.totalCents("double", origin.plusDays(2), 1));
+        assertEquals(SEASON, table.totalCents("double", origin.plusDays(3), 1));
+        assertEquals(SEASON, table.totalCents("double", origin.plusDays(5), 1));
+        assertEquals(BASE, table.totalCents("double", origin.plusDays(6), 1));
+    }
+
+    @Test
+    void stayTotalIsTheSumOfItsNightsAcrossTheSeasonBoundaries() {
+        HotelRateTable table = engine.table(HOTEL);
+
+        // Nuits origin+1 .. origin+7 : 2 hors saison, 3 en saison, 2 hors saison.
+        assertEquals(4 * BASE + 3 * SEASON, table.totalCents("double", origin.plusDays(1), 7));
+        assertEquals(0, table.totalCents("double", origin.plusDays(4), 0));
+    }
+
+    @Test
+    void roomTypeIsMatchedIgnoringCaseAndSpaces() {
+        assertEquals(BASE, engine.table(HOTEL).totalCents("  DOUBLE ", origin, 1));
+    }
+
+    @Test
+    void unknownTypeOrNightsOutsideTheGridAreNotRated() {
+        HotelRateTable table = engine.table(HOTEL);
+
+        assertEquals(-1, table.totalCents("suite", origin, 1));
+        assertEquals(-1, table.totalCents("double", origin.minusDays(1), 1));
+        assertEquals(BASE, table.totalCents("double", origin.plusDays(30), 1));
+        assertEquals(-1, table.totalCents("double", origin.plusDays(30), 2));
+    }
+
+    @Test
+    void dailyRateReplacesTheSeasonalPriceForItsNightOnly() {
+        DailyRate promo = new DailyRate();
+        promo.setRoomType("double");
+        promo.setDay(origin.plusDays(4));
+        promo.setAmount(new BigDecimal("80.00"));
+        when(dailyRateRepository.findByHotelIdAndDayBetween(eq(HOTEL), any(), any())).thenReturn(List.of(promo));
+
+        HotelRateTable table = engine.table(HOTEL);
+
+        assertEquals(8_000, table.totalCents("double", origin.plusDays(4), 1));
+        assertEquals(SEASON + 8_000 + SEASON, table.totalCents("double", origin.plusDays(3), 3));
+    }
+
+    @Test
+    void quoteCountsTheNightsBetweenArrivalAndDepartureDays() {
+        ZoneId zone = ZoneId.systemDefault();
+        var startAt = origin.plusDays(1).atTime(15, 0).atZone(zone).toOffsetDateTime();
+        var endAt = origin.plusDays(4).atTime(11, 0).atZone(zone).toOffsetDateTime();
+
+        HotelRateTable table = engine.table(HOTEL);
+
+        assertEquals(2 * BASE + SEASON, table.quoteCents("double", startAt, endAt));
+        assertEquals(new BigDecimal("350.00"), table.quote("double", startAt, endAt));
+        assertNull(table.quoteCents("suite", startAt, endAt));
+    }
+
+    @Test
+    void tableIsCachedUntilRatesChange() {
+        HotelRateTable first = engine.table(HOTEL);
+        assertSame(first, engine.table(HOTEL));
+
+        engine.onRatesChanged(new RatesChangedEvent(HOTEL));
+
+        assertNotSame(first, engine.table(HOTEL));
+    }
+
+    private static RoomTypeRate rate(String type, String amount, int highSeasonPercent) {
+        RoomTypeRate r = new RoomTypeRate();
+        r.setRoomType(type);
+        r.setBaseAmount(new BigDecimal(amount));
+        r.setHighSeasonPercent(highSeasonPercent);
+        return r;
+    }
+}
@@ -0,0 +1,68 @@
+package com.hotelmanager.reservation.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Roue de 4 seaux de 20 ms : une échéance à 200 ms fait plus de deux tours avant d'échoir.
+ */
+class HoldExpiryWheelTest {
+
+    private static final long TICK = Duration.ofMillis(20).toNanos();
+
+    @Test
+    void deadlineBeyondOneTurnWrapsAroundWithoutFiringEarly() throws InterruptedException {
+        HoldExpiryWheel<Long> wheel = new HoldExpiryWheel<>(TICK, 4);
+        long delay = Duration.ofMillis(200).toNanos();
+        long scheduledAt = System.nanoTime();
+        wheel.schedule(1L, delay);
+
+        List<Long> due = List.of();
+        long deadline = scheduledAt + Duration.ofSeconds(5).toNanos();
+        while (due.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            due = wheel.advance();
+        }
+
+        assertEquals(List.of(1L), due);
+        assertTrue(System.nanoTime() - scheduledAt >= delay, "échue avant son échéance");
+        Thread.sleep(200);
+        assertTrue(wheel.advance().isEmpty(), "un élément n'échoit qu'une fois");
+    }
+
+    @Test
+    void lateAdvanceReturnsEveryDueItemOnce() throws InterruptedException {
+        HoldExpiryWheel<Long> wheel = new HoldExpiryWheel<>(TICK, 4);
+        for (long i = 0; i < 10; i++) wheel.schedule(i, Duration.ofMillis(10 * i).toNanos());
+
+        // Plus d'un tour complet de retard : chaque seau n'est parcouru qu'une fois.
+        Thread.sleep(300);
+        List<Long> due = new ArrayList<>(wheel.advance());
+        due.sort(null);
+
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), due);
+        assertTrue(wheel.advance().isEmpty());
+    }
+
+    @Test
+    void itemScheduledInThePastFiresOnTheNextTick() throws InterruptedException {
+        HoldExpiryWheel<Long> wheel = new HoldExpiryWheel<>(TICK, 4);
+        wheel.schedule(7L, -Duration.ofSeconds(1).toNanos());
+
+        Thread.sleep(50);
+
+        assertEquals(List.of(7L), wheel.advance());
+    }
+
+    @Test
+    void wheelSizeMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new HoldExpiryWheel<Long>(TICK, 6));
+    }
+}
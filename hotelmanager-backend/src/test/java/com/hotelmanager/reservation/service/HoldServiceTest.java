@@ -0,0 +1,109 @@
+package com.hotelmanager.reservation.service;
+
+import com.hotelmanager.hotel.entity.Hotel;
+import com.hotelmanager.rate.service.RateEngine;
+import com.hotelmanager.reservation.entity.Reservation;
+import com.hotelmanager.reservation.entity.ReservationStatus;
+import com.hotelmanager.reservation.event.ReservationChangedEvent;
+import com.hotelmanager.reservation.repository.ReservationBatchWriter;
+import com.hotelmanager.reservation.repository.ReservationBatchWriter.ExpiredHold;
+import com.hotelmanager.reservation.repository.ReservationRepository;
+import com.hotelmanager.room.repository.RoomRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Balayage des options échues par lots et libération conditionnelle, sur dépôts simulés.
+ */
+class HoldServiceTest {
+
+    private static final int SWEEP_CHUNK = 500;
+
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final ReservationBatchWriter batchWriter = mock(ReservationBatchWriter.class);
+    private final RoomReservationSync sync = mock(RoomReservationSync.class);
+    private final ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+    private final HoldService service = new HoldService(
+            mock(RoomRepository.class), reservationRepository, batchWriter, mock(GuestAccountService.class),
+            sync, mock(RateEngine.class), events, mock(PlatformTransactionManager.class), Duration.ofMinutes(10));
+
+    @Test
+    void sweepKeepsGoingWhileAChunkIsFull() {
+        when(batchWriter.expireHolds(isNull(), any(), eq(SWEEP_CHUNK)))
+                .thenReturn(expired(0, SWEEP_CHUNK), expired(SWEEP_CHUNK, SWEEP_CHUNK), expired(2 * SWEEP_CHUNK, 12));
+
+        service.sweep();
+
+        verify(batchWriter, times(3)).expireHolds(isNull(), any(), eq(SWEEP_CHUNK));
+        verify(events, times(2 * SWEEP_CHUNK + 12)).publishEvent(any(ReservationChangedEvent.class));
+    }
+
+    @Test
+    void sweepStopsOnAnExactlyEmptyChunk() {
+        when(batchWriter.expireHolds(isNull(), any(), eq(SWEEP_CHUNK)))
+                .thenReturn(expired(0, SWEEP_CHUNK), Collections.emptyList());
+
+        service.sweep();
+
+        verify(batchWriter, times(2)).expireHolds(isNull(), any(), anyInt());
+    }
+
+    @Test
+    void releaseOfAHoldAlreadyConfirmedOrExpiredIsANoOp() {
+        when(reservationRepository.findById(1L)).thenReturn(Optional.of(hold(1L, "jeton")));
+        when(reservationRepository.releaseHold(eq(1L), eq("jeton"), any())).thenReturn(0);
+
+        service.release(1L, "jeton");
+
+        verify(sync, never()).publishChanged(any(), any());
+    }
+
+    @Test
+    void releasePublishesTheTransitionFromHold() {
+        Reservation res = hold(1L, "jeton");
+        when(reservationRepository.findById(1L)).thenReturn(Optional.of(res));
+        when(reservationRepository.releaseHold(eq(1L), eq("jeton"), any())).thenReturn(1);
+
+        service.release(1L, "jeton");
+
+        verify(sync).publishChanged(res, ReservationStatus.HOLD);
+    }
+
+    private static List<ExpiredHold> expired(long firstId, int count) {
+        OffsetDateTime now = OffsetDateTime.now();
+        return LongStream.range(firstId, firstId + count)
+                .mapToObj(id -> new ExpiredHold(id, 1L, 10L, now, now.plusDays(1)))
+                .toList();
+    }
+
+    private static Reservation hold(Long id, String token) {
+        Hotel hotel = new Hotel();
+        hotel.setId(1L);
+        Reservation res = new Reservation();
+        res.setId(id);
+        res.setHotel(hotel);
+        res.setStatus(ReservationStatus.HOLD);
+        res.setHoldToken(token);
+        res.setHoldExpiresAt(OffsetDateTime.now().plusMinutes(5));
+        return res;
+    }
+}
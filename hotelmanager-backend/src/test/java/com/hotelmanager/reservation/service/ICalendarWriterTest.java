@@ -0,0 +1,89 @@
+package com.hotelmanager.reservation.service;
+
+import com.hotelmanager.reservation.dto.ReservationRow;
+import com.hotelmanager.reservation.entity.ReservationStatus;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Échappement des valeurs texte et repli des lignes à 75 octets (RFC 5545 §3.1 et §3.3.11).
+ */
+class ICalendarWriterTest {
+
+    private static final OffsetDateTime STAMP = OffsetDateTime.of(2026, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void textValuesAreEscaped() {
+        String ics = ICalendarWriter.write("Hôtel; du, port\\nord", List.of(), STAMP);
+
+        assertTrue(ics.contains("X-WR-CALNAME:Hôtel\\; du\\, port\\\\nord\r\n"), ics);
+    }
+
+    @Test
+    void newlinesInValuesBecomeEscapedSequences() {
+        String ics = ICalendarWriter.write("Ligne 1\r\nLigne 2\nLigne 3", List.of(), STAMP);
+
+        assertTrue(ics.contains("X-WR-CALNAME:Ligne 1\\nLigne 2\\nLigne 3\r\n"), ics);
+    }
+
+    @Test
+    void everyLineEndsWithCrlf() {
+        String ics = ICalendarWriter.write("Hôtel", List.of(row("Dupont", ReservationStatus.CONFIRMED)), STAMP);
+
+        assertTrue(ics.endsWith("END:VCALENDAR\r\n"));
+        assertFalse(ics.replace("\r\n", "").contains("\n"), "saut de ligne nu");
+        assertFalse(ics.replace("\r\n", "").contains("\r"), "retour chariot nu");
+    }
+
+    @Test
+    void longLinesAreFoldedAtSeventyFiveOctetsWithoutSplittingCharacters() {
+        String name = "é".repeat(100);
+        String ics = ICalendarWriter.write(name, List.of(), STAMP);
+
+        for (String line : ics.split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, line);
+        }
+        // Le repli se défait en retirant chaque CRLF suivi d'un espace.
+        assertTrue(ics.replace("\r\n ", "").contains("X-WR-CALNAME:" + name + "\r\n"));
+    }
+
+    @Test
+    void eventCarriesUtcTimesSequenceAndStatus() {
+        String ics = ICalendarWriter.write("Hôtel", List.of(
+                row("Dupont", ReservationStatus.CONFIRMED),
+                row("Martin", ReservationStatus.HOLD),
+                row("Durand", ReservationStatus.NO_SHOW)), STAMP);
+        String unfolded = ics.replace("\r\n ", "");
+
+        assertTrue(unfolded.contains("UID:reservation-7@hotelmanager\r\n"));
+        assertTrue(unfolded.contains("DTSTAMP:20260301T120000Z\r\n"));
+        assertTrue(unfolded.contains("DTSTART:20260310T130000Z\r\n"));
+        assertTrue(unfolded.contains("DTEND:20260312T090000Z\r\n"));
+        assertTrue(unfolded.contains("SEQUENCE:3\r\n"));
+        assertEquals(1, count(unfolded, "STATUS:CONFIRMED\r\n"));
+        assertEquals(1, count(unfolded, "STATUS:TENTATIVE\r\n"));
+        assertEquals(1, count(unfolded, "STATUS:CANCELLED\r\n"));
+    }
+
+    private static ReservationRow row(String lastName, ReservationStatus status) {
+        OffsetDateTime start = OffsetDateTime.of(2026, 3, 10, 15, 0, 0, 0, ZoneOffset.ofHours(2));
+        OffsetDateTime end = OffsetDateTime.of(2026, 3, 12, 11, 0, 0, 0, ZoneOffset.ofHours(2));
+        return new ReservationRow(7L, 10L, 204, "Double", 2, null, null, null, null,
+                "Jean", lastName, null, start, end, status, 3L);
+    }
+
+    private static int count(String text, String part) {
+        int n = 0;
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) n++;
+        return n;
+    }
+}
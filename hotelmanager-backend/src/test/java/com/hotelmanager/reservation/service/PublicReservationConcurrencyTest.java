@@ -0,0 +1,77 @@
+package com.hotelmanager.reservation.service;
+
+import com.hotelmanager.common.exception.BusinessRuleException;
+import com.hotelmanager.hotel.entity.Hotel;
+import com.hotelmanager.hotel.repository.HotelRepository;
+import com.hotelmanager.reservation.repository.ReservationRepository;
+import com.hotelmanager.room.entity.Room;
+import com.hotelmanager.room.repository.RoomRepository;
+import com.hotelmanager.support.load.LoadHarness;
+import com.hotelmanager.support.load.LoadReport;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lance des centaines de réservations parallèles sur une même chambre et vérifie
+ * qu'une seule aboutit. Nécessite un PostgreSQL réel (contrainte d'exclusion GiST) :
+ * HOTEL_IT_DB_URL=jdbc:postgresql://localhost:5433/hotel_db
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=${HOTEL_IT_DB_URL}",
+        "spring.datasource.username=${HOTEL_IT_DB_USER:hotel}",
+        "spring.datasource.password=${HOTEL_IT_DB_PASSWORD:hotel123}",
+        "spring.jpa.hibernate.ddl-auto=update"
+})
+@EnabledIfEnvironmentVariable(named = "HOTEL_IT_DB_URL", matches = ".+")
+class PublicReservationConcurrencyTest {
+
+    private static final int ATTEMPTS = 300;
+
+    @Autowired private PublicReservationService service;
+    @Autowired private HotelRepository hotelRepository;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private ReservationRepository reservationRepository;
+
+    @Test
+    void parallelBookingsOnSameRoomProduceExactlyOneReservation() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        Hotel hotel = new Hotel();
+        hotel.setName("Concurrency " + suffix);
+        hotel.setCode("IT-" + suffix);
+        hotel = hotelRepository.save(hotel);
+
+        Room room = new Room();
+        room.setHotel(hotel);
+        room.setRoomNumber(101);
+        room.setRoomType("Standard");
+        room.setFloor(1);
+        room = roomRepository.save(room);
+
+        Long hotelId = hotel.getId();
+        Long roomId = room.getId();
+        OffsetDateTime start = OffsetDateTime.now(ZoneOffset.UTC).plusDays(30).withNano(0);
+
+        // Intervalles décalés mais tous chevauchants : [start + i min, start + 2j + i min)
+        LoadReport report = LoadHarness.run("réservations même chambre", 64, ATTEMPTS,
+                e -> e instanceof BusinessRuleException,
+                i -> service.reserve(hotelId, roomId, start.plusMinutes(i), start.plusDays(2).plusMinutes(i),
+                        "Load", "Guest" + i, "0600000000"));
+
+        assertEquals(0, report.failed());
+        assertEquals(1, report.succeeded(), "une seule réservation doit aboutir");
+        assertEquals(ATTEMPTS - 1, report.rejected());
+        assertTrue(reservationRepository.existsOverlapping(roomId, start, start.plusDays(3)));
+        assertEquals(1, reservationRepository.findActiveFutureByRoom(roomId, start.minusDays(1)).size());
+    }
+}
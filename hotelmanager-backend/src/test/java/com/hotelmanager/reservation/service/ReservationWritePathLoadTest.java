@@ -0,0 +1,178 @@
+package com.hotelmanager.reservation.service;
+
+import com.hotelmanager.common.exception.BusinessRuleException;
+import com.hotelmanager.hotel.entity.Hotel;
+import com.hotelmanager.hotel.repository.HotelRepository;
+import com.hotelmanager.reservation.controller.ManagerReservationsController;
+import com.hotelmanager.reservation.controller.ManagerReservationsController.UpdateStatusRequest;
+import com.hotelmanager.reservation.entity.ReservationStatus;
+import com.hotelmanager.room.entity.Room;
+import com.hotelmanager.room.repository.RoomRepository;
+import com.hotelmanager.support.load.LoadHarness;
+import com.hotelmanager.support.load.LoadReport;
+import com.hotelmanager.support.load.ReservationInvariants;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Charge mixte sur le chemin d'écriture : réservations concurrentes sur un lot de chambres,
+ * puis changements de statut et annulations en concurrence sur les mêmes réservations.
+ * Chaque phase affiche débit et histogramme de latence ; les invariants (pas de double
+ * réservation, état des chambres cohérent) sont vérifiés en SQL à la fin.
+ *
+ * Nécessite un PostgreSQL réel : HOTEL_IT_DB_URL=jdbc:postgresql://localhost:5433/hotel_db
+ * (HOTEL_LOAD_ROOMS et HOTEL_LOAD_THREADS ajustent le volume).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=${HOTEL_IT_DB_URL}",
+        "spring.datasource.username=${HOTEL_IT_DB_USER:hotel}",
+        "spring.datasource.password=${HOTEL_IT_DB_PASSWORD:hotel123}",
+        "spring.jpa.hibernate.ddl-auto=update"
+})
+@EnabledIfEnvironmentVariable(named = "HOTEL_IT_DB_URL", matches = ".+")
+class ReservationWritePathLoadTest {
+
+    private static final int ROOMS = Integer.getInteger("hotel.load.rooms", envInt("HOTEL_LOAD_ROOMS", 40));
+    private static final int THREADS = Integer.getInteger("hotel.load.threads", envInt("HOTEL_LOAD_THREADS", 64));
+    private static final int CONTENDERS_PER_ROOM = 8;
+
+    /** Conflits attendus sous concurrence : refus métier, transition refusée, version périmée. */
+    private static final Predicate<Throwable> EXPECTED_CONFLICT = e ->
+            e instanceof BusinessRuleException
+                    || e instanceof TransitionRefused
+                    || e instanceof OptimisticLockingFailureException;
+
+    @Autowired private PublicReservationService publicService;
+    @Autowired private ManagerReservationsController managerController;
+    @Autowired private HotelRepository hotelRepository;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private JdbcTemplate jdbc;
+
+    @AfterEach
+    void clearSecurity() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void mixedWriteLoadKeepsReservationsAndRoomsConsistent() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        Hotel hotel = new Hotel();
+        hotel.setName("Load " + suffix);
+        hotel.setCode("LD-" + suffix);
+        hotel = hotelRepository.save(hotel);
+
+        List<Long> roomIds = new ArrayList<>(ROOMS);
+        for (int i = 0; i < ROOMS; i++) {
+            Room room = new Room();
+            room.setHotel(hotel);
+            room.setRoomNumber(100 + i);
+            room.setRoomType("Standard");
+            room.setFloor(1);
+            roomIds.add(roomRepository.save(room).getId());
+        }
+
+        Long hotelId = hotel.getId();
+        OffsetDateTime start = OffsetDateTime.now(ZoneOffset.UTC).plusDays(30).withNano(0);
+        ReservationInvariants invariants = new ReservationInvariants(jdbc);
+
+        // Phase 1 : plusieurs candidats par chambre, intervalles décalés mais chevauchants.
+        LoadReport booking = LoadHarness.run("réservations", THREADS, ROOMS * CONTENDERS_PER_ROOM,
+                EXPECTED_CONFLICT, i -> {
+                    Long roomId = roomIds.get(i % ROOMS);
+                    int shift = i / ROOMS;
+                    publicService.reserve(hotelId, roomId, start.plusMinutes(shift),
+                            start.plusDays(2).plusMinutes(shift), "Load", "Guest" + i, "0600000000");
+                });
+        assertEquals(0, booking.failed());
+        assertEquals(ROOMS, booking.succeeded(), "une seule réservation par chambre");
+
+        Map<Long, Long> reservationByRoom = reservationsByRoom(hotelId);
+        assertEquals(ROOMS, reservationByRoom.size());
+
+        // Phase 2 : sur la première moitié des chambres, la réception fait avancer le séjour
+        // (arrivée, no-show, annulation) ; sur la seconde, annulation par chambre contre
+        // no-show/annulation unitaire. L'arrivée n'est pas mise en concurrence avec
+        // l'annulation par chambre, qui n'est prévue que pour des séjours non commencés.
+        int half = ROOMS / 2;
+        ReservationStatus[] desk = {ReservationStatus.CHECKED_IN, ReservationStatus.NO_SHOW, ReservationStatus.CANCELED};
+        ReservationStatus[] contested = {null, ReservationStatus.NO_SHOW, ReservationStatus.CANCELED};
+
+        LoadReport statuses = LoadHarness.run("changements de statut / annulations", THREADS,
+                ROOMS * CONTENDERS_PER_ROOM, EXPECTED_CONFLICT, ReservationWritePathLoadTest::actAsManager, i -> {
+                    int slot = i % ROOMS;
+                    int round = i / ROOMS;
+                    Long roomId = roomIds.get(slot);
+                    if (slot < half) {
+                        updateStatus(reservationByRoom.get(roomId), desk[round % desk.length]);
+                    } else {
+                        ReservationStatus target = contested[round % contested.length];
+                        if (target == null) publicService.cancelActiveByRoom(roomId);
+                        else updateStatus(reservationByRoom.get(roomId), target);
+                    }
+                });
+        assertEquals(0, statuses.failed());
+
+        // Phase 3 : départs concurrents, deux demandes par séjour commencé.
+        List<Long> checkedIn = jdbc.queryForList(
+                "SELECT id FROM reservations WHERE hotel_id = ? AND status = 'CHECKED_IN'", Long.class, hotelId);
+        if (!checkedIn.isEmpty()) {
+            LoadReport checkout = LoadHarness.run("départs", THREADS, checkedIn.size() * 2,
+                    EXPECTED_CONFLICT, ReservationWritePathLoadTest::actAsManager,
+                    i -> updateStatus(checkedIn.get(i % checkedIn.size()), ReservationStatus.COMPLETED));
+            assertEquals(0, checkout.failed());
+            assertEquals(checkedIn.size(), checkout.succeeded(), "un seul départ par séjour");
+        }
+
+        List<String> doubles = invariants.doubleBookings(hotelId);
+        assertTrue(doubles.isEmpty(), () -> "doubles réservations : " + doubles);
+        List<String> mismatches = invariants.roomStateMismatches(hotelId);
+        assertTrue(mismatches.isEmpty(), () -> "états de chambre incohérents : " + mismatches);
+    }
+
+    private void updateStatus(Long reservationId, ReservationStatus status) {
+        var response = managerController.updateStatus(reservationId, new UpdateStatusRequest(status));
+        if (!response.getStatusCode().is2xxSuccessful()) throw new TransitionRefused();
+    }
+
+    private Map<Long, Long> reservationsByRoom(Long hotelId) {
+        Map<Long, Long> byRoom = new HashMap<>();
+        jdbc.query("SELECT room_id, id FROM reservations WHERE hotel_id = ? AND status = 'CONFIRMED'",
+                rs -> { byRoom.put(rs.getLong("room_id"), rs.getLong("id")); }, hotelId);
+        return byRoom;
+    }
+
+    private static void actAsManager() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "load-test", null, List.of(new SimpleGrantedAuthority("ROLE_MANAGER"))));
+    }
+
+    private static int envInt(String name, int fallback) {
+        String v = System.getenv(name);
+        return v == null || v.isBlank() ? fallback : Integer.parseInt(v.trim());
+    }
+
+    /** Le contrôleur répond 400 sans exception quand la transition n'est plus permise. */
+    private static final class TransitionRefused extends RuntimeException {}
+}
@@ -0,0 +1,117 @@
+package com.hotelmanager.reservation.service;
+
+import com.hotelmanager.reservation.service.RoomAssignmentPlanner.Move;
+import com.hotelmanager.reservation.service.RoomAssignmentPlanner.Plan;
+import com.hotelmanager.reservation.service.RoomAssignmentPlanner.Stay;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Coûts de placement et optimisation sur deux chambres, nuits numérotées à partir de 0,
+ * trou orphelin jusqu'à 2 nuits.
+ */
+class RoomAssignmentPlannerTest {
+
+    private static final int ORPHAN_MAX = 2;
+    private static final Long R101 = 101L;
+    private static final Long R102 = 102L;
+
+    @Test
+    void adjacentOnBothSidesCostsNothing() {
+        assertEquals(0, RoomAssignmentPlanner.cost(stays(0, 3, 5, 8), 3, 5, ORPHAN_MAX));
+    }
+
+    @Test
+    void overlappingStayIsNotFeasible() {
+        NavigableMap<Integer, Integer> room = stays(0, 3, 5, 8);
+
+        assertEquals(-1, RoomAssignmentPlanner.cost(room, 2, 4, ORPHAN_MAX));
+        assertEquals(-1, RoomAssignmentPlanner.cost(room, 4, 6, ORPHAN_MAX));
+        assertEquals(-1, RoomAssignmentPlanner.cost(room, 1, 2, ORPHAN_MAX));
+    }
+
+    @Test
+    void orphanGapCostsMoreThanAnEmptyRoom() {
+        int orphan = RoomAssignmentPlanner.cost(stays(0, 3), 4, 6, ORPHAN_MAX);
+        int empty = RoomAssignmentPlanner.cost(stays(), 4, 6, ORPHAN_MAX);
+        int wideGap = RoomAssignmentPlanner.cost(stays(0, 3), 10, 12, ORPHAN_MAX);
+
+        assertTrue(orphan > empty);
+        assertTrue(wideGap < empty, "la chambre la plus ajustée passe avant une chambre vide");
+    }
+
+    @Test
+    void rankPutsTheRoomThatClosesTheGapFirst() {
+        Map<Long, NavigableMap<Integer, Integer>> occ = Map.of(
+                R101, stays(0, 3, 5, 8),
+                R102, stays());
+
+        assertEquals(List.of(R101, R102), RoomAssignmentPlanner.rank(occ, 3, 5, ORPHAN_MAX));
+        assertEquals(List.of(R102), RoomAssignmentPlanner.rank(occ, 2, 5, ORPHAN_MAX));
+    }
+
+    @Test
+    void orphanNightsAreClippedToTheRange() {
+        Map<Long, NavigableMap<Integer, Integer>> occ = Map.of(R101, stays(0, 3, 5, 8));
+
+        assertEquals(2, RoomAssignmentPlanner.orphanNights(occ, 0, 10, ORPHAN_MAX));
+        assertEquals(1, RoomAssignmentPlanner.orphanNights(occ, 4, 10, ORPHAN_MAX));
+        assertEquals(0, RoomAssignmentPlanner.orphanNights(occ, 0, 10, 1));
+    }
+
+    @Test
+    void movableStayIsMovedIntoTheGapItFills() {
+        List<Stay> stays = List.of(
+                new Stay(1L, R101, 0, 3, false, 0L),
+                new Stay(2L, R101, 5, 8, false, 0L),
+                new Stay(3L, R102, 3, 5, true, 4L));
+
+        Plan plan = RoomAssignmentPlanner.optimize(List.of(R101, R102), stays, 0, 10, ORPHAN_MAX);
+
+        assertEquals(List.of(new Move(3L, R102, R101, 4L)), plan.moves());
+        assertEquals(2, plan.orphanNightsBefore());
+        assertEquals(0, plan.orphanNightsAfter());
+        assertEquals(2, plan.recovered());
+    }
+
+    @Test
+    void fixedStaysNeverMove() {
+        List<Stay> stays = List.of(
+                new Stay(1L, R101, 0, 3, false, 0L),
+                new Stay(2L, R101, 5, 8, false, 0L),
+                new Stay(3L, R102, 3, 5, false, 0L));
+
+        Plan plan = RoomAssignmentPlanner.optimize(List.of(R101, R102), stays, 0, 10, ORPHAN_MAX);
+
+        assertTrue(plan.moves().isEmpty());
+        assertEquals(0, plan.recovered());
+    }
+
+    @Test
+    void planWithoutGainKeepsEveryStayInItsRoom() {
+        List<Stay> stays = List.of(
+                new Stay(1L, R101, 0, 3, false, 0L),
+                new Stay(2L, R101, 3, 6, true, 0L),
+                new Stay(3L, R102, 10, 12, true, 0L));
+
+        Plan plan = RoomAssignmentPlanner.optimize(List.of(R101, R102), stays, 0, 20, ORPHAN_MAX);
+
+        assertTrue(plan.moves().isEmpty());
+        assertEquals(plan.orphanNightsBefore(), plan.orphanNightsAfter());
+    }
+
+    /** Paires début, fin. */
+    private static NavigableMap<Integer, Integer> stays(int... bounds) {
+        NavigableMap<Integer, Integer> m = new TreeMap<>();
+        for (int i = 0; i < bounds.length; i += 2) m.put(bounds[i], bounds[i + 1]);
+        return m;
+    }
+}
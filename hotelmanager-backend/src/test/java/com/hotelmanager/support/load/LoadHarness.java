@@ -0,0 +1,95 @@
+package com.hotelmanager.support.load;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Lance {@code operations} appels concurrents sur {@code threads} threads, tous libérés en même
+ * temps par une barrière, et mesure chaque appel.
+ *
+ * Une exception reconnue par {@code isRejection} (refus métier attendu, ex. conflit de créneau)
+ * est comptée comme rejet ; toute autre exception comme erreur.
+ *
+ * Le rapport est journalisé (SLF4J) et renvoyé pour les assertions du test.
+ */
+@Slf4j
+public final class LoadHarness {
+
+    private static final int MAX_SAMPLE_ERRORS = 5;
+
+    @FunctionalInterface
+    public interface Operation {
+        void run(int index) throws Exception;
+    }
+
+    private LoadHarness() {}
+
+    public static LoadReport run(String name, int threads, int operations,
+                                 Predicate<Throwable> isRejection, Operation operation) throws Exception {
+        return run(name, threads, operations, isRejection, () -> {}, operation);
+    }
+
+    /**
+     * @param perThreadSetup exécuté dans chaque thread avant l'opération (contexte de sécurité...)
+     */
+    public static LoadReport run(String name, int threads, int operations, Predicate<Throwable> isRejection,
+                                 Runnable perThreadSetup, Operation operation) throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        AtomicLong ok = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+        CountDownLatch gate = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>(operations);
+        long wall;
+
+        try {
+            for (int i = 0; i < operations; i++) {
+                int index = i;
+                futures.add(pool.submit(() -> {
+                    perThreadSetup.run();
+                    gate.await();
+                    long start = System.nanoTime();
+                    try {
+                        operation.run(index);
+                        ok.incrementAndGet();
+                    } catch (Exception | AssertionError e) {
+                        if (isRejection.test(e)) {
+                            rejected.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                            if (errors.size() < MAX_SAMPLE_ERRORS) errors.add(e.getClass().getSimpleName() + ": " + e.getMessage());
+                        }
+                    } finally {
+                        histogram.record((System.nanoTime() - start) / 1_000);
+                    }
+                    return null;
+                }));
+            }
+
+            long started = System.nanoTime();
+            gate.countDown();
+            for (Future<?> f : futures) f.get(5, TimeUnit.MINUTES);
+            wall = (System.nanoTime() - started) / 1_000_000;
+        } finally {
+            pool.shutdownNow();
+        }
+
+        LoadReport report = new LoadReport(name, threads, ok.get(), rejected.get(), failed.get(),
+                wall, histogram, List.copyOf(errors));
+        log.info(report.render());
+        return report;
+    }
+}
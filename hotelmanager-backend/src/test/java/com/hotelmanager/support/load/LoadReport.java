@@ -0,0 +1,35 @@
+package com.hotelmanager.support.load;
+
+import java.util.List;
+
+/**
+ * Résultat d'une phase de charge : compteurs, débit et distribution des latences.
+ */
+public record LoadReport(
+        String name,
+        int threads,
+        long succeeded,
+        long rejected,
+        long failed,
+        long wallMillis,
+        LatencyHistogram latencies,
+        List<String> sampleErrors
+) {
+    public double throughputPerSecond() {
+        long ops = succeeded + rejected + failed;
+        return wallMillis == 0 ? ops : ops * 1000.0 / wallMillis;
+    }
+
+    public String render() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%n=== %s (%d threads) ===%n", name, threads));
+        sb.append(String.format("ok=%d rejetées=%d erreurs=%d en %d ms -> %.1f op/s%n",
+                succeeded, rejected, failed, wallMillis, throughputPerSecond()));
+        sb.append(String.format("latence µs : p50=%d p90=%d p99=%d max=%d%n",
+                latencies.percentile(0.50), latencies.percentile(0.90),
+                latencies.percentile(0.99), latencies.max()));
+        sb.append(latencies.render());
+        sampleErrors.forEach(e -> sb.append("  erreur : ").append(e).append('\n'));
+        return sb.toString();
+    }
+}
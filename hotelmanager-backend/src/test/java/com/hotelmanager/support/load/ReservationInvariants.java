@@ -0,0 +1,72 @@
+package com.hotelmanager.support.load;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Invariants du chemin d'écriture des réservations, vérifiés en SQL directement sur la base
+ * (sans cache JPA) à la fin d'une phase de charge.
+ */
+public final class ReservationInvariants {
+
+    /** État attendu d'une chambre selon le statut de sa dernière réservation (cf. RoomService). */
+    private static final Map<String, String> EXPECTED_ROOM_STATE = Map.of(
+            "PENDING", "RESERVEE",
+            "CONFIRMED", "RESERVEE",
+            "CHECKED_IN", "CHECKIN",
+            "NO_SHOW", "A_VALIDER_LIBRE",
+            "CANCELED", "LIBRE",
+            "COMPLETED", "A_NETTOYER"
+    );
+
+    private final JdbcTemplate jdbc;
+
+    public ReservationInvariants(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Couples de réservations actives qui se chevauchent sur une même chambre. */
+    public List<String> doubleBookings(Long hotelId) {
+        return jdbc.query("""
+                SELECT a.room_id, a.id AS first_id, b.id AS second_id
+                FROM reservations a
+                JOIN reservations b
+                  ON b.room_id = a.room_id
+                 AND b.id > a.id
+                 AND a.start_at < b.end_at
+                 AND b.start_at < a.end_at
+                WHERE a.hotel_id = ?
+                  AND a.status IN ('HOLD','PENDING','CONFIRMED','CHECKED_IN')
+                  AND b.status IN ('HOLD','PENDING','CONFIRMED','CHECKED_IN')
+                """,
+                (rs, i) -> "chambre " + rs.getLong("room_id")
+                        + " : réservations " + rs.getLong("first_id") + " et " + rs.getLong("second_id"),
+                hotelId);
+    }
+
+    /** Chambres dont l'état ne correspond pas au statut de leur dernière réservation. */
+    public List<String> roomStateMismatches(Long hotelId) {
+        List<String> mismatches = new ArrayList<>();
+        jdbc.query("""
+                SELECT DISTINCT ON (r.room_id) r.room_id, r.id, r.status, rm.room_state
+                FROM reservations r
+                JOIN rooms rm ON rm.id = r.room_id
+                WHERE r.hotel_id = ?
+                ORDER BY r.room_id, r.id DESC
+                """,
+                rs -> {
+                    String expected = EXPECTED_ROOM_STATE.get(rs.getString("status"));
+                    String actual = rs.getString("room_state");
+                    if (expected != null && !expected.equals(actual)) {
+                        mismatches.add("chambre " + rs.getLong("room_id") + " : " + actual
+                                + " alors que la réservation " + rs.getLong("id")
+                                + " est " + rs.getString("status"));
+                    }
+                },
+                hotelId);
+        return mismatches;
+    }
+}
@@ -1,4 +1,4 @@
-import { useCallback, useEffect, useMemo, useState } from "react";
+import { useCallback, useEffect, useMemo, useRef, useState } from "react";
 import { useParams } from "react-router-dom";
 import { getAvailableRooms, reserveRoom } from "../../reservations/api/publiApi";
 import { PublicRoom } from "../../rooms/publicTypes";
@@ -62,6 +62,10 @@ export default function PublicRoomsPage() {
   const [openSuccess, setOpenSuccess] = useState(false);
   const [generatedEmail, setGeneratedEmail] = useState("");
   const [generatedPassword, setGeneratedPassword] = useState("");
+  const [accountExisted, setAccountExisted] = useState(false);
+  const [credentialsLost, setCredentialsLost] = useState(false);
+  // One key per booking attempt, kept across retries of the same request.
+  const attempt = useRef<{ body: string; key: string } | null>(null);
   const [copied, setCopied] = useState<"email" | "password" | null>(null);
 
   // ------- Load available rooms -------
@@ -154,7 +158,7 @@ export default function PublicRoomsPage() {
       setReserveLoading(true);
       setReserveError(null);
 
-      const res = await reserveRoom({
+      const body = {
         hotelId: HOTEL_ID,
         roomId: selectedRoom.id,
         firstName: firstName.trim(),
@@ -162,11 +166,20 @@ export default function PublicRoomsPage() {
         guestPhone,
         startAt: startAtISO,
         endAt: endAtISO,
-      });
+      };
+      const bodyKey = JSON.stringify(body);
+      if (attempt.current?.body !== bodyKey) {
+        attempt.current = { body: bodyKey, key: newIdempotencyKey() };
+      }
+      const res = await reserveRoom(body, attempt.current.key);
+      attempt.current = null;
 
       setOpenReserve(false);
-      setGeneratedEmail(res.email);
-      setGeneratedPassword(res.generatedPassword);
+      setGeneratedEmail(res.email ?? "");
+      setGeneratedPassword(res.generatedPassword ?? "");
+      setAccountExisted(res.accountExisted);
+      // A replayed answer (first one lost) no longer carries the password.
+      setCredentialsLost(!res.accountExisted && !res.generatedPassword);
       setOpenSuccess(true);
 
       await loadAvailable();
@@ -588,13 +601,46 @@ export default function PublicRoomsPage() {
                 id="success-title"
                 className="text-lg font-semibold text-gray-800"
               >
-                Guest account created
+                {accountExisted || credentialsLost ? "Booking confirmed" : "Guest account created"}
               </h3>
             </div>
-            <p className="text-sm text-gray-500 mb-4">
-              Save these credentials: they are shown <strong>only once</strong>.
-            </p>
+            {credentialsLost ? (
+              <div className="text-sm text-gray-600 mb-4 space-y-2">
+                <p>
+                  This booking had already been registered by an earlier attempt,
+                  together with a guest account
+                  {generatedEmail ? ` (${generatedEmail})` : ""}. Its password was
+                  shown only once, on that first attempt.
+                </p>
+                <p>
+                  If you did not save it, contact the reception
+                  {hotel?.phone || hotel?.email ? " (" : ""}
+                  {[hotel?.phone, hotel?.email].filter(Boolean).join(" • ")}
+                  {hotel?.phone || hotel?.email ? ")" : ""}: they can reset it
+                  for you.
+                </p>
+              </div>
+            ) : accountExisted ? (
+              <div className="text-sm text-gray-600 mb-4 space-y-2">
+                <p>
+                  You already have a guest account with this hotel: the booking
+                  was added to it. Sign in with your usual credentials to see it.
+                </p>
+                <p>
+                  Lost your password? Contact the reception
+                  {hotel?.phone || hotel?.email ? " (" : ""}
+                  {[hotel?.phone, hotel?.email].filter(Boolean).join(" • ")}
+                  {hotel?.phone || hotel?.email ? ")" : ""}: they can reset it
+                  for you.
+                </p>
+              </div>
+            ) : (
+              <p className="text-sm text-gray-500 mb-4">
+                Save these credentials: they are shown <strong>only once</strong>.
+              </p>
+            )}
 
+            {!accountExisted && !credentialsLost && (
             <div className="space-y-3">
               <CopyRow
                 label="Email"
@@ -622,6 +668,7 @@ export default function PublicRoomsPage() {
                 secret
               />
             </div>
+            )}
 
             <div className="flex items-center justify-end gap-3 pt-4">
               <button
@@ -674,6 +721,13 @@ function CopyRow({
   );
 }
 
+function newIdempotencyKey(): string {
+  if (typeof crypto !== "undefined" && "randomUUID" in crypto) {
+    return crypto.randomUUID();
+  }
+  return `${Date.now().toString(36)}-${Math.random().toString(36).slice(2)}`;
+}
+
 async function quickCopy(text: string, onOk: () => void, onClear?: () => void) {
   try {
     await navigator.clipboard.writeText(text);
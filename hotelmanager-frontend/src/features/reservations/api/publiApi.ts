@@ -11,10 +11,21 @@ export interface PublicReservationRequest {
   endAt: string;
 }
 
+/**
+ * accountExisted: the guest was recognised (same name and phone) and books with the
+ * existing account. email and generatedPassword are then null: credentials of an
+ * existing account are never returned; reception can reset the password.
+ *
+ * replayed: answer to a retry of an already processed booking (same Idempotency-Key).
+ * The password created by the first attempt is never sent again: if that first
+ * answer was lost, reception resets the password.
+ */
 export interface PublicReservationResponse {
   reservationId: number;
-  email: string;
-  generatedPassword: string;
+  email: string | null;
+  generatedPassword: string | null;
+  accountExisted: boolean;
+  replayed?: boolean;
 }
 
 export async function getAvailableRooms(
@@ -29,10 +40,18 @@ export async function getAvailableRooms(
   return data;
 }
 
-export async function reserveRoom(body: PublicReservationRequest) {
+/**
+ * idempotencyKey: same key for every retry of the same booking, so that a retry after
+ * a lost answer does not book twice.
+ */
+export async function reserveRoom(
+  body: PublicReservationRequest,
+  idempotencyKey?: string
+) {
   const { data } = await publicApi.post<PublicReservationResponse>(
     "/public/reservations",
-    body
+    body,
+    idempotencyKey ? { headers: { "Idempotency-Key": idempotencyKey } } : undefined
   );
   return data;
 }
@@ -35,12 +35,53 @@ export interface Reservation {
   version?: number;
 }
 
+export interface ReservationPage {
+  items: Reservation[];
+  nextStartAt: string | null;
+  nextId: number | null;
+}
+
+export interface ReservationSearchParams {
+  status?: ReservationStatus;
+  roomId?: number;
+  from?: string;
+  to?: string;
+  guest?: string;
+  afterStartAt?: string;
+  afterId?: number;
+  limit?: number;
+}
+
 /* ================= MANAGER ================= */
-export async function listReservations(): Promise<Reservation[]> {
-  const { data } = await api.get<Reservation[]>("/api/reservations");
+const SEARCH_PAGE_SIZE = 200;
+
+export async function searchReservations(
+  params: ReservationSearchParams = {}
+): Promise<ReservationPage> {
+  const { data } = await api.get<ReservationPage>("/api/reservations/search", {
+    params,
+  });
   return data;
 }
 
+/** Every reservation of the hotel, read page by page from the keyset search. */
+export async function listReservations(
+  params: Omit<ReservationSearchParams, "afterStartAt" | "afterId" | "limit"> = {}
+): Promise<Reservation[]> {
+  const all: Reservation[] = [];
+  let cursor: Pick<ReservationSearchParams, "afterStartAt" | "afterId"> = {};
+  for (;;) {
+    const page = await searchReservations({
+      ...params,
+      ...cursor,
+      limit: SEARCH_PAGE_SIZE,
+    });
+    all.push(...page.items);
+    if (page.nextStartAt == null || page.nextId == null) return all;
+    cursor = { afterStartAt: page.nextStartAt, afterId: page.nextId };
+  }
+}
+
 export async function getAllowedStatuses(
   id: number
 ): Promise<ReservationStatus[]> {
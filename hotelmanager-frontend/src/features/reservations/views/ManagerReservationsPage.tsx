@@ -11,6 +11,7 @@ import {
   ChevronRight,
 } from "lucide-react";
 import * as rApi from "../api/reservationsApi";
+import { resetClientPassword } from "../../users/api/userApi";
 import {
   format,
   isSameDay,
@@ -110,6 +111,8 @@ export default function ReservationsPage() {
     "ALL" | "ARRIVALS" | "DEPARTURES" | "INHOUSE"
   >("ALL");
   const [details, setDetails] = useState<Reservation | null>(null);
+  const [resetPassword, setResetPassword] = useState<string | null>(null);
+  const [resetErr, setResetErr] = useState<string | null>(null);
   const confirmBtnRef = useRef<HTMLButtonElement | null>(null);
   const [confirm, setConfirm] = useState<{
     res?: Reservation;
@@ -459,7 +462,11 @@ export default function ReservationsPage() {
               </div>
               <button
                 className="text-sm text-gray-500 hover:text-gray-700"
-                onClick={() => setDetails(null)}
+                onClick={() => {
+                  setDetails(null);
+                  setResetPassword(null);
+                  setResetErr(null);
+                }}
               >
                 Close
               </button>
@@ -492,6 +499,43 @@ export default function ReservationsPage() {
               />
               <InfoLine label="Status" value={<StatusPill s={details.status} />} />
             </div>
+            {details.client && (
+              <div className="mt-4 border-t pt-4 text-sm space-y-2">
+                <p className="text-gray-500">
+                  Guest lost their credentials? Check their identity, then give
+                  them a new password.
+                </p>
+                {resetPassword ? (
+                  <div className="rounded-xl border bg-gray-50 px-3 py-2">
+                    <div className="text-[11px] text-gray-500">
+                      New password for {details.client.email}
+                    </div>
+                    <div className="font-mono text-gray-800 select-all">
+                      {resetPassword}
+                    </div>
+                  </div>
+                ) : (
+                  <button
+                    className="px-4 py-2 rounded-xl border text-sm hover:bg-gray-50"
+                    onClick={async () => {
+                      if (!details.client) return;
+                      setResetErr(null);
+                      try {
+                        const u = await resetClientPassword(details.client.id);
+                        setResetPassword(u.generatedPassword);
+                      } catch (e: any) {
+                        setResetErr(
+                          e?.response?.data?.detail || e?.message || "Unable to reset the password."
+                        );
+                      }
+                    }}
+                  >
+                    Reset guest password
+                  </button>
+                )}
+                {resetErr && <p className="text-red-600">{resetErr}</p>}
+              </div>
+            )}
           </div>
         </div>
       )}
@@ -35,6 +35,18 @@ export const updateUser = async (
   return res.data;
 };
 
+/** New password for a guest of the manager's hotel, handed over by reception. */
+export const resetClientPassword = async (
+  id: number
+): Promise<User & { generatedPassword: string }> => {
+  const res = await axios.post<User & { generatedPassword: string }>(
+    `/users/${id}/reset-password`,
+    null,
+    authHeader()
+  );
+  return res.data;
+};
+
 // ================= CLIENT SELF APIs =================
 
 